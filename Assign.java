@@ -11,7 +11,6 @@
 public class Assign {
     private int col, row; // The row and column being assigned
     private Minesweeper game; // The game instance
-    private Slot[][] moves; // 2D Array to store the game's moves
 
     /**
      * Constructor for the Assign class.
@@ -26,7 +25,6 @@ public class Assign {
         this.game = game;
         this.col = col;
         this.row = row;
-        this.moves = game.getBoard(); // Fetches the current game board from the Minesweeper instance
         assignMove(number);
     }
 
@@ -36,7 +34,7 @@ public class Assign {
      * @param number The state to be assigned to the slot
      */
     public void assignMove(String number) {
-        moves[row][col].setState(number); // Updates the state of the specific slot in the game board
+        game.getSlot(row, col).setState(number); // Updates the state of the specific slot in the game board
     }
 
     /**
@@ -63,7 +61,7 @@ public class Assign {
      * @return The state value
      */
     public String getState() {
-        return moves[row][col].getState(); // Retrieves the state of the specific slot
+        return game.getSlot(row, col).getState(); // Retrieves the state of the specific slot
     }
 
     /**
@@ -74,7 +72,7 @@ public class Assign {
      * @param state The state to set
      */
     public void setState(int row, int col, String state) {
-        moves[row][col].setState(state); // Sets the state of the specific slot
+        game.getSlot(row, col).setState(state); // Sets the state of the specific slot
     }
 
     /**
@@ -83,6 +81,6 @@ public class Assign {
      * @return The game board
      */
     public Slot[][] getBoard() {
-        return moves; // Returns the current game board
+        return game.getBoard(); // Returns the current game board, only built when asked for
     }
 }
@@ -0,0 +1,60 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * AtomicLatencyHistogram
+ * This class is a {@link LatencyHistogram} that any number of threads can record into at once.
+ * Recording is one atomic increment of the duration's bucket and one atomic add to the total, with a
+ * compare-and-set on the maximum only when a new longest duration is seen. Nothing is locked or allocated.
+ *
+ * Percentiles are read from a snapshot. Durations recorded while a snapshot is taken may or may not be in it.
+ *
+ * @version 2.0
+ * @author Paul Carmody
+ */
+public class AtomicLatencyHistogram {
+    private final AtomicLongArray counts = new AtomicLongArray(LatencyHistogram.BUCKETS); // Durations in each bucket
+    private final AtomicLong total = new AtomicLong(); // Sum of the durations recorded
+    private final AtomicLong max = new AtomicLong(); // Longest duration recorded
+
+    /**
+     * Records one duration.
+     *
+     * @param nanos The duration in nanoseconds. Negative durations are counted as 0.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(LatencyHistogram.bucketOf(value));
+        total.addAndGet(value);
+        long longest = max.get();
+        while (value > longest && !max.compareAndSet(longest, value)) {
+            longest = max.get();
+        }
+    }
+
+    /**
+     * Copies the durations recorded so far into a histogram that percentiles can be read from.
+     *
+     * @return A new histogram holding the snapshot.
+     */
+    public LatencyHistogram snapshot() {
+        long[] copy = new long[LatencyHistogram.BUCKETS];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = counts.get(i);
+        }
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.add(copy, total.get(), max.get());
+        return histogram;
+    }
+
+    /**
+     * Forgets every duration recorded.
+     */
+    public void reset() {
+        for (int i = 0; i < LatencyHistogram.BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        total.set(0);
+        max.set(0);
+    }
+} // End of AtomicLatencyHistogram Class
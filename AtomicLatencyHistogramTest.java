@@ -0,0 +1,49 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The test class AtomicLatencyHistogramTest.
+ *
+ * @version 2.0
+ */
+public class AtomicLatencyHistogramTest {
+
+    /**
+     * UNIT-104
+     * Test recording from many threads
+     * Ensures that durations recorded at once from several threads are all counted, and that a snapshot
+     * gives the same results as a plain histogram of the same durations.
+     */
+    @Test
+    public void testConcurrentRecording() throws Exception {
+        AtomicLatencyHistogram shared = new AtomicLatencyHistogram();
+        LatencyHistogram expected = new LatencyHistogram();
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            long offset = t;
+            threads[t] = new Thread(() -> {
+                for (long nanos = 1; nanos <= 50_000; nanos++) {
+                    shared.record(nanos * 8 + offset);
+                }
+            });
+            threads[t].start();
+            for (long nanos = 1; nanos <= 50_000; nanos++) {
+                expected.record(nanos * 8 + offset);
+            }
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        LatencyHistogram snapshot = shared.snapshot();
+        assertEquals(400_000, snapshot.getCount(), "Every duration should be counted");
+        assertEquals(expected.getMean(), snapshot.getMean(), 1e-9);
+        assertEquals(expected.getMax(), snapshot.getMax());
+        for (double percent : new double[] {50, 90, 99}) {
+            assertEquals(expected.getPercentile(percent), snapshot.getPercentile(percent));
+        }
+
+        shared.reset();
+        assertEquals(0, shared.snapshot().getCount());
+    }
+} // End of AtomicLatencyHistogramTest Class
@@ -0,0 +1,376 @@
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * AutoSaver
+ * This class saves a game in the background, so the thread playing it, usually the Swing event dispatch
+ * thread, never waits for the disk. The background writer keeps its own copy of the save, one byte per cell,
+ * and writes it with {@link FileHandler#writeSnapshot}, which replaces the file atomically. The game's thread
+ * only sends it the cells changed since the last save, collected from the game's events, so a save costs
+ * time in proportion to the moves since the last one rather than to the board. The whole board is copied
+ * with {@link FileHandler#snapshot} only for the first save, after a reset or load, or once so many cells
+ * have changed that a full copy is smaller. Cells written straight through a {@link Slot}, which publish
+ * no event, are only saved with the next full copy.
+ *
+ * Saves to the autosave file can be made every few moves, every so often while the game has changed, or on
+ * request with save. Autosaves are coalesced: if the writer is still busy when several come in, their changes
+ * are all merged into its copy and written once, as the newest supersedes the rest. Saves to other files,
+ * such as the player's own through saveAs, are never dropped.
+ *
+ * The game is only read on the thread given to the constructor. Close the AutoSaver when the game ends;
+ * if it autosaves, by interval or move count, closing writes the last changes too. From the event dispatch
+ * thread, use close with a task to run once the writer has finished, so the thread never waits for the disk.
+ *
+ * @version 2.0
+ * @author Paul Carmody
+ */
+public class AutoSaver implements GameListener, Closeable {
+    private final Minesweeper game; // The game being saved
+    private final String filename; // The autosave file
+    private final Executor gameThread; // Runs tasks on the thread that plays the game
+    private final ScheduledThreadPoolExecutor writer; // The background thread that writes every save
+    private final ConcurrentLinkedQueue<Changes> changes = new ConcurrentLinkedQueue<>(); // Sent to the writer, oldest first
+    private final AtomicBoolean writeQueued = new AtomicBoolean(); // Whether the writer has an autosave still to start
+    private final AtomicLong saves = new AtomicLong(); // Autosaves written
+    private final AtomicLong coalesced = new AtomicLong(); // Autosaves merged into a later one rather than written
+    private final AtomicLong failures = new AtomicLong(); // Saves that could not be written
+    private final BitSet marked = new BitSet(); // Cells already in changed, on the game's thread
+    private int[] changed = new int[16]; // Cells changed since the last changes sent, on the game's thread
+    private int changedCount; // Entries used in changed
+    private boolean full = true; // Whether the next changes sent must copy the whole board, on the game's thread
+    private ByteBuffer image; // The writer's copy of the save, only used on the writer thread
+    private int unwritten; // Autosaves merged into image but not yet written, on the writer thread
+    private ScheduledFuture<?> timer; // Checks for changes every interval, or null if there is no interval
+    private int everyMoves; // Moves between autosaves, or 0 to not count moves
+    private int movesSinceSave; // Changes to the game since the last save, on the game's thread
+    private volatile boolean dirty; // Whether the game has changed since the last save
+    private volatile boolean requested; // Whether the timer has asked the game's thread for a save
+
+    /**
+     * Cells and lives the game's thread sends the writer, either a copy of the whole save or the cells
+     * that have changed since the changes sent before.
+     */
+    private static final class Changes {
+        private final ByteBuffer image; // A whole save image, or null if only some cells changed
+        private final int[] cells; // Indices of the changed cells, when image is null
+        private final byte[] codes; // The player's code for each changed cell
+        private final int lives; // Lives when the changes were taken
+        private final boolean autosave; // Whether they were sent for an autosave rather than a saveAs
+
+        Changes(ByteBuffer image, int[] cells, byte[] codes, int lives, boolean autosave) {
+            this.image = image;
+            this.cells = cells;
+            this.codes = codes;
+            this.lives = lives;
+            this.autosave = autosave;
+        }
+    }
+
+    /**
+     * Constructs an AutoSaver for a game and starts listening to it. It saves nothing by itself until
+     * setInterval or setEveryMoves is called.
+     *
+     * @param game The game to save.
+     * @param filename The autosave file.
+     * @param gameThread Runs tasks on the thread that plays the game, such as {@link GameEventBus#EDT}.
+     */
+    public AutoSaver(Minesweeper game, String filename, Executor gameThread) {
+        this.game = game;
+        this.filename = filename;
+        this.gameThread = gameThread;
+        writer = new ScheduledThreadPoolExecutor(1, task -> {
+            Thread thread = new Thread(task, "minesweeper-autosave");
+            thread.setDaemon(true); // Never keep the JVM running; close writes the last save
+            return thread;
+        });
+        game.getEvents().subscribe(this);
+    }
+
+    /**
+     * Constructs an AutoSaver configured by system properties: minesweeper.autosave.file (default autosave.dat),
+     * minesweeper.autosave.seconds and minesweeper.autosave.moves, each 0 (off) by default.
+     *
+     * @param game The game to save.
+     * @param gameThread Runs tasks on the thread that plays the game, such as {@link GameEventBus#EDT}.
+     * @return The AutoSaver.
+     */
+    public static AutoSaver fromSystemProperties(Minesweeper game, Executor gameThread) {
+        AutoSaver saver = new AutoSaver(game, System.getProperty("minesweeper.autosave.file", "autosave.dat"), gameThread);
+        saver.setInterval(Long.getLong("minesweeper.autosave.seconds", 0) * 1000);
+        saver.setEveryMoves(Integer.getInteger("minesweeper.autosave.moves", 0));
+        return saver;
+    }
+
+    /**
+     * Sets how often the game is autosaved while it keeps changing.
+     *
+     * @param millis Milliseconds between checks for changes, or 0 to not save on a timer.
+     */
+    public synchronized void setInterval(long millis) {
+        if (timer != null) {
+            timer.cancel(false);
+            timer = null;
+        }
+        if (millis > 0) {
+            timer = writer.scheduleWithFixedDelay(this::tick, millis, millis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Sets how many moves are made between autosaves. Call it on the game's thread.
+     *
+     * @param moves Moves between autosaves, or 0 to not count moves.
+     */
+    public void setEveryMoves(int moves) {
+        everyMoves = moves;
+    }
+
+    /**
+     * Notes the cells each change to the game touched, autosaving when enough moves have been made.
+     * Called on the game's thread, once for each move, undo, redo, reset or load.
+     *
+     * @param event What the move changed.
+     */
+    @Override
+    public void gameChanged(GameEvent event) {
+        dirty = true;
+        movesSinceSave++;
+        BoardChange cells = event.getCells();
+        if (cells == null) {
+            full = true; // The whole board may have changed
+        } else if (!full) {
+            for (int index : cells.getCells()) {
+                mark(index);
+            }
+        }
+        if (everyMoves > 0 && movesSinceSave >= everyMoves) {
+            save();
+        }
+    }
+
+    /**
+     * Sends the writer the changes since the last save and queues them to be written to the autosave file.
+     * Call it on the game's thread.
+     */
+    public void save() {
+        sendChanges(true);
+        movesSinceSave = 0;
+        dirty = false;
+        if (!writeQueued.getAndSet(true)) {
+            writer.execute(this::writePending);
+        }
+    }
+
+    /**
+     * Sends the writer the changes since the last save and queues the game to be written to another file,
+     * such as a save the player asked for. Call it on the game's thread.
+     *
+     * @param other The file to save to.
+     * @param done Told on the game's thread whether the save was written, or null.
+     */
+    public void saveAs(String other, Consumer<Boolean> done) {
+        sendChanges(false);
+        writer.execute(() -> {
+            mergeChanges();
+            boolean saved = FileHandler.writeSnapshot(image, other);
+            if (!saved) {
+                failures.incrementAndGet();
+            }
+            if (done != null) {
+                gameThread.execute(() -> done.accept(saved));
+            }
+        });
+    }
+
+    /**
+     * Waits until every save queued so far has been written. Not for the event dispatch thread.
+     *
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public void flush() throws InterruptedException {
+        try {
+            writer.submit(() -> { }).get(); // Runs after everything queued before it on the one writer thread
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Stops listening to the game, autosaves any changes not yet saved and waits for the writer to finish.
+     * Call it on the game's thread when the game ends, but not on the event dispatch thread, which
+     * should use close(Runnable) instead.
+     */
+    @Override
+    public void close() {
+        close(null);
+        try {
+            writer.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stops listening to the game and autosaves any changes not yet saved, without waiting for them to be
+     * written. Call it on the game's thread when the game ends. Changes are only saved if the AutoSaver
+     * autosaves by interval or move count; saves asked for with save or saveAs are always written.
+     *
+     * @param then Run on the writer thread once every save has been written, such as exiting, or null.
+     */
+    public synchronized void close(Runnable then) {
+        if (writer.isShutdown()) { // Already closed, so everything has been queued
+            if (then != null) {
+                then.run();
+            }
+            return;
+        }
+        game.getEvents().unsubscribe(this);
+        if (dirty && (everyMoves > 0 || timer != null)) {
+            save();
+        }
+        if (then != null) {
+            writer.execute(then); // The one writer thread runs it after everything queued before it
+        }
+        writer.shutdown(); // Cancels the timer but still writes what is queued
+    }
+
+    /**
+     * Returns the autosave file.
+     *
+     * @return The file name.
+     */
+    public String getFilename() {
+        return filename;
+    }
+
+    /**
+     * Returns the number of autosaves written.
+     *
+     * @return The saves.
+     */
+    public long getSaves() {
+        return saves.get();
+    }
+
+    /**
+     * Returns the number of autosaves dropped because a newer one came in before they were written.
+     *
+     * @return The dropped saves.
+     */
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+
+    /**
+     * Returns the number of saves that could not be written.
+     *
+     * @return The failures.
+     */
+    public long getFailures() {
+        return failures.get();
+    }
+
+    /**
+     * Adds a changed cell to those to send with the next save, on the game's thread. Once a full copy would
+     * be smaller than the changes, at five bytes for each changed cell against one for every cell, the cells
+     * are no longer listed and the next save copies the whole board instead.
+     *
+     * @param index The index of the cell.
+     */
+    private void mark(int index) {
+        if (marked.get(index)) {
+            return;
+        }
+        marked.set(index);
+        if (changedCount == changed.length) {
+            changed = Arrays.copyOf(changed, changed.length * 2);
+        }
+        changed[changedCount++] = index;
+        if (changedCount * 5L >= game.getCells().getCellCount()) {
+            full = true;
+        }
+    }
+
+    /**
+     * Sends the writer everything that has changed since the changes sent before, on the game's thread.
+     *
+     * @param autosave Whether they are for an autosave rather than a saveAs.
+     */
+    private void sendChanges(boolean autosave) {
+        if (full) {
+            changes.add(new Changes(FileHandler.snapshot(game), null, null, game.getLives(), autosave));
+            marked.clear();
+            full = false;
+        } else {
+            Board board = game.getCells();
+            int[] cells = Arrays.copyOf(changed, changedCount);
+            byte[] codes = new byte[changedCount];
+            for (int i = 0; i < changedCount; i++) {
+                codes[i] = board.getPlayer(cells[i]);
+                marked.clear(cells[i]);
+            }
+            changes.add(new Changes(null, cells, codes, game.getLives(), autosave));
+        }
+        changedCount = 0;
+    }
+
+    /**
+     * Merges every change the game's thread has sent into the writer's copy of the save, on the writer thread.
+     */
+    private void mergeChanges() {
+        for (Changes next = changes.poll(); next != null; next = changes.poll()) {
+            if (next.image != null) {
+                image = next.image;
+            } else {
+                FileHandler.patchSnapshot(image, next.cells, next.codes, next.lives);
+            }
+            if (next.autosave) {
+                unwritten++;
+            }
+        }
+    }
+
+    /**
+     * Writes the autosaves merged so far, on the writer thread.
+     */
+    private void writePending() {
+        writeQueued.set(false); // Any autosave sent from now on queues another write
+        mergeChanges();
+        if (unwritten == 0) {
+            return; // An earlier write merged and wrote them already
+        }
+        coalesced.addAndGet(unwritten - 1); // All but the newest were superseded before they were written
+        unwritten = 0;
+        if (FileHandler.writeSnapshot(image, filename)) {
+            saves.incrementAndGet();
+        } else {
+            failures.incrementAndGet();
+        }
+    }
+
+    /**
+     * Asks the game's thread for a save if the game has changed, on the writer thread every interval.
+     */
+    private void tick() {
+        if (dirty && !requested) {
+            requested = true; // Only one request at a time, however slow the game's thread is
+            gameThread.execute(() -> {
+                requested = false;
+                if (dirty) {
+                    save();
+                }
+            });
+        }
+    }
+} // End of AutoSaver Class
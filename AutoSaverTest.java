@@ -0,0 +1,202 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * The test class AutoSaverTest.
+ *
+ * @version 2.0
+ */
+public class AutoSaverTest {
+
+    /**
+     * UNIT-110
+     * Test autosave every few moves
+     * Ensures that a game is autosaved after every few moves, that closing the AutoSaver writes the
+     * moves made since, and that the file then loads back to the same game.
+     */
+    @Test
+    public void testSaveEveryFewMoves() throws Exception {
+        Path dir = Files.createTempDirectory("autosave");
+        String file = dir.resolve("game.dat").toString();
+        Minesweeper game = new Minesweeper();
+        AutoSaver saver = new AutoSaver(game, file, Runnable::run);
+        saver.setEveryMoves(2);
+        game.makeMove(0, 0, "M");
+        game.makeMove(0, 4, "G"); // A mine
+        game.makeMove(2, 0, "G");
+        saver.flush();
+        assertEquals(1, saver.getSaves() + saver.getCoalesced(), "Two moves should make one autosave");
+
+        Minesweeper loaded = new Minesweeper();
+        assertTrue(FileHandler.loadGame(loaded, file));
+        assertEquals(2, loaded.getLives());
+        assertEquals("?", loaded.getCellState(2, 0), "The third move has not been saved yet");
+
+        saver.close();
+        assertTrue(FileHandler.loadGame(loaded, file));
+        assertEquals("0", loaded.getCellState(2, 0), "Closing should save the last move");
+        assertEquals("M", loaded.getCellState(0, 0));
+        deleteAll(dir);
+    }
+
+    /**
+     * UNIT-111
+     * Test autosave on a timer
+     * Ensures that the timer only asks the game's thread for a snapshot when the game has changed,
+     * and that the save is written without leaving a temporary file behind.
+     */
+    @Test
+    public void testSaveOnTimer() throws Exception {
+        Path dir = Files.createTempDirectory("autosave");
+        String file = dir.resolve("game.dat").toString();
+        Minesweeper game = new Minesweeper();
+        BlockingQueue<Runnable> gameThread = new LinkedBlockingQueue<>(); // Tasks for this thread, which plays the game
+        AutoSaver saver = new AutoSaver(game, file, gameThread::add);
+        saver.setInterval(10);
+        assertNull(gameThread.poll(100, TimeUnit.MILLISECONDS), "Nothing has changed, so nothing should be saved");
+
+        game.makeMove(2, 0, "G");
+        Runnable request = gameThread.poll(5, TimeUnit.SECONDS);
+        assertNotNull(request, "The timer should ask for a snapshot once the game changes");
+        request.run();
+        saver.flush();
+        assertEquals(1, saver.getSaves());
+        assertTrue(FileHandler.loadGame(new Minesweeper(), file));
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(1, files.count(), "Only the save should be left in the directory");
+        }
+        saver.close();
+        deleteAll(dir);
+    }
+
+    /**
+     * UNIT-112
+     * Test saves waiting for the writer are coalesced
+     * Ensures that a burst of saves leaves the newest in the file without writing every one of them,
+     * and that a save to another file is written and reported on the game's thread.
+     */
+    @Test
+    public void testSavesAreCoalesced() throws Exception {
+        Path dir = Files.createTempDirectory("autosave");
+        String file = dir.resolve("game.dat").toString();
+        Minesweeper game = new Minesweeper(LevelGenerator.generate(500, 20000, 9L));
+        AutoSaver saver = new AutoSaver(game, file, Runnable::run);
+        for (int i = 0; i < 50; i++) {
+            game.makeMove(i, i, "M");
+            saver.save();
+        }
+        saver.flush();
+        assertEquals(50, saver.getSaves() + saver.getCoalesced());
+        assertEquals(0, saver.getFailures());
+        Minesweeper loaded = new Minesweeper(LevelGenerator.generate(500, 20000, 9L));
+        assertTrue(FileHandler.loadGame(loaded, file));
+        assertEquals("M", loaded.getCellState(49, 49), "The newest save should be the one left in the file");
+
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicBoolean saved = new AtomicBoolean();
+        saver.saveAs(dir.resolve("other.dat").toString(), result -> {
+            saved.set(result);
+            done.countDown();
+        });
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(saved.get());
+        assertTrue(new File(dir.toFile(), "other.dat").length() > FileHandler.HEADER_SIZE);
+        saver.close();
+        deleteAll(dir);
+    }
+
+    /**
+     * UNIT-114
+     * Test closing without autosave
+     * Ensures that closing an AutoSaver that only writes requested saves leaves no autosave file behind,
+     * and that the task given to close runs once the saves queued before it are written.
+     */
+    @Test
+    public void testCloseWithoutAutosave() throws Exception {
+        Path dir = Files.createTempDirectory("autosave");
+        Minesweeper game = new Minesweeper();
+        AutoSaver saver = new AutoSaver(game, dir.resolve("game.dat").toString(), Runnable::run);
+        game.makeMove(2, 0, "G");
+        saver.saveAs(dir.resolve("mine.dat").toString(), null);
+        CountDownLatch closed = new CountDownLatch(1);
+        saver.close(closed::countDown);
+        assertTrue(closed.await(5, TimeUnit.SECONDS));
+        assertTrue(new File(dir.toFile(), "mine.dat").length() > FileHandler.HEADER_SIZE, "The requested save should be written first");
+        assertFalse(new File(dir.toFile(), "game.dat").exists(), "Nothing should be autosaved when autosave is off");
+        deleteAll(dir);
+    }
+
+    /**
+     * UNIT-119
+     * Test autosaves built from changed cells
+     * Ensures that the writer's copy, kept up to date from only the cells each move changed, always saves
+     * the same board and lives as the game, through undos, redos, a reset and saves to other files.
+     */
+    @Test
+    public void testChangedCellsSaveWholeGame() throws Exception {
+        Path dir = Files.createTempDirectory("autosave");
+        String file = dir.resolve("game.dat").toString();
+        Minesweeper game = new Minesweeper(LevelGenerator.generate(40, 200, 5L));
+        AutoSaver saver = new AutoSaver(game, file, Runnable::run);
+        saver.setEveryMoves(1);
+        Random random = new Random(3L);
+        for (int i = 0; i < 300; i++) {
+            int pick = random.nextInt(100);
+            if (pick < 10) {
+                game.undo();
+            } else if (pick < 15) {
+                game.redo();
+            } else if (pick == 15) {
+                game.reset();
+            } else if (pick < 20) {
+                saver.saveAs(dir.resolve("other.dat").toString(), null);
+            } else {
+                game.getUndoJournal().beginMove();
+                game.makeMove(random.nextInt(40), random.nextInt(40), pick < 40 ? "M" : "G");
+            }
+            if (i % 50 == 49) {
+                saver.flush();
+                assertSavedGame(game, file);
+            }
+        }
+        saver.close();
+        assertSavedGame(game, file);
+        assertEquals(0, saver.getFailures());
+        deleteAll(dir);
+    }
+
+    /**
+     * Checks that a save file holds the same board and lives as a game.
+     */
+    private static void assertSavedGame(Minesweeper game, String file) {
+        Minesweeper loaded = new Minesweeper(LevelGenerator.generate(40, 200, 5L));
+        assertTrue(FileHandler.loadGame(loaded, file));
+        assertEquals(game.getLives(), loaded.getLives());
+        for (int i = 0; i < game.getCells().getCellCount(); i++) {
+            assertEquals(game.getCells().getPlayer(i), loaded.getCells().getPlayer(i), "Cell " + i + " should be saved");
+        }
+    }
+
+    /**
+     * Deletes a test directory and the files in it.
+     */
+    private static void deleteAll(Path dir) throws Exception {
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(dir);
+    }
+} // End of AutoSaverTest Class
@@ -0,0 +1,549 @@
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Benchmarks
+ * This class measures the main game, file and rendering paths on boards of several sizes, so a change can be
+ * checked for speed as well as correctness. Each benchmark is warmed up, then timed over several fixed-length
+ * iterations, and the average time per operation is reported. Results are written as JSON in the same shape
+ * JMH uses (benchmark, mode, params, primaryMetric), so runs can be kept and compared with the usual tools.
+ *
+ * Operations are run in growing batches so the clock is read rarely even for the fastest ones, and every
+ * result is folded into a volatile field so the JIT cannot discard the work. The game's console messages
+ * are switched off while measuring. A benchmark that does several operations per call, such as sharedMove,
+ * where several players move on one {@link SharedGame} at once, reports the time per operation, like JMH's
+ * OperationsPerInvocation.
+ *
+ * Run with: java -Djava.awt.headless=true Benchmarks [output.json] [sizes, e.g. 5,100,1000,4000] [names, e.g. makeMove,checkWin]
+ *
+ * @version 2.0
+ * @author Paul Carmody
+ */
+public class Benchmarks {
+    public static final int[] DEFAULT_SIZES = {5, 100, 1000, 4000}; // Board sizes measured by default
+    private static final int VIEWPORT = 600; // Pixels of a large board drawn when rendering, as seen in the scroll pane
+    private static final int SHARED_PLAYERS = 4; // Players moving at once in sharedMove
+    private static final int SHARED_ROUND = 256; // Moves each player makes per sharedMove call
+
+    private static volatile long sink; // Receives every result so the work cannot be optimised away
+
+    /**
+     * The timed part of a benchmark, run over and over.
+     */
+    private interface Operation {
+        void run() throws IOException;
+    }
+
+    /**
+     * An operation that does several of the operations being measured each time it runs.
+     */
+    private static final class Batch implements Operation {
+        private final Operation body; // Does the operations
+        private final int operations; // Operations done by each run
+
+        Batch(int operations, Operation body) {
+            this.body = body;
+            this.operations = operations;
+        }
+
+        @Override
+        public void run() throws IOException {
+            body.run();
+        }
+    }
+
+    /**
+     * Prepares a benchmark for one board size.
+     */
+    private interface Setup {
+        /**
+         * Builds everything the operation needs, outside the timing.
+         *
+         * @param size The board size.
+         * @param dir A scratch directory for files.
+         * @return The operation to time.
+         */
+        Operation prepare(int size, Path dir) throws IOException;
+    }
+
+    /**
+     * The result of one benchmark at one board size.
+     */
+    public static class Result {
+        private String name; // Benchmark name
+        private int size; // Board size
+        private double[] iterations; // Average nanoseconds per operation in each measured iteration
+
+        /**
+         * Constructs a result.
+         *
+         * @param name The benchmark name.
+         * @param size The board size.
+         * @param iterations The average nanoseconds per operation in each measured iteration.
+         */
+        Result(String name, int size, double[] iterations) {
+            this.name = name;
+            this.size = size;
+            this.iterations = iterations;
+        }
+
+        /**
+         * Returns the name of the benchmark.
+         *
+         * @return The name, such as "makeMove".
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the board size the benchmark was run at.
+         *
+         * @return The width and height of the board.
+         */
+        public int getSize() {
+            return size;
+        }
+
+        /**
+         * Returns the average time per operation over every measured iteration.
+         *
+         * @return The score in nanoseconds per operation.
+         */
+        public double getScore() {
+            double total = 0;
+            for (double value : iterations) {
+                total += value;
+            }
+            return total / iterations.length;
+        }
+
+        /**
+         * Returns how much the iterations varied.
+         *
+         * @return The standard deviation of the iterations in nanoseconds per operation, or 0 for a single iteration.
+         */
+        public double getError() {
+            if (iterations.length < 2) {
+                return 0;
+            }
+            double mean = getScore();
+            double squares = 0;
+            for (double value : iterations) {
+                squares += (value - mean) * (value - mean);
+            }
+            return Math.sqrt(squares / (iterations.length - 1));
+        }
+    }
+
+    private int warmups = 3; // Untimed iterations before measuring
+    private int measurements = 5; // Timed iterations
+    private long iterationNanos = 200_000_000L; // Length of each iteration
+
+    /**
+     * Constructs a runner with the default timing: three warm-up and five measured iterations of 200ms each.
+     */
+    public Benchmarks() {
+    }
+
+    /**
+     * Constructs a runner with custom timing.
+     *
+     * @param warmups The number of untimed iterations before measuring.
+     * @param measurements The number of timed iterations.
+     * @param iterationNanos The length of each iteration in nanoseconds.
+     */
+    public Benchmarks(int warmups, int measurements, long iterationNanos) {
+        if (measurements < 1) {
+            throw new IllegalArgumentException("At least one measured iteration is needed");
+        }
+        this.warmups = warmups;
+        this.measurements = measurements;
+        this.iterationNanos = iterationNanos;
+    }
+
+    /**
+     * Returns every benchmark by name, in the order they are run.
+     *
+     * @return The benchmarks.
+     */
+    private static Map<String, Setup> benchmarks() {
+        Map<String, Setup> all = new LinkedHashMap<>();
+        all.put("levelParse", (size, dir) -> {
+            String level = writeLevel(size, dir);
+            return () -> sink += LevelReader.read(level).getSafeCells();
+        });
+        all.put("construct", (size, dir) -> {
+            String level = writeLevel(size, dir);
+            new Minesweeper(level); // Loads the level into the shared cache, as every later game would find it
+            return () -> sink += new Minesweeper(level).getGameSize();
+        });
+        all.put("makeMove", (size, dir) -> {
+            Minesweeper game = newGame(size);
+            int[] cells = numberedCells(game.getCells()); // Guesses that reveal one cell each, so every move costs the same
+            int[] next = new int[1];
+            return () -> {
+                if (next[0] == cells.length) {
+                    game.reset(); // Amortised over every numbered cell on the board
+                    next[0] = 0;
+                }
+                int cell = cells[next[0]++];
+                sink += game.makeMove(cell / size, cell % size, "G").length();
+            };
+        });
+        all.put("checkWin", (size, dir) -> {
+            Minesweeper game = newGame(size);
+            return () -> sink += game.checkWin().length();
+        });
+        all.put("reset", (size, dir) -> {
+            Minesweeper game = newGame(size);
+            return () -> {
+                game.reset();
+                sink += game.getLives();
+            };
+        });
+        all.put("pushUndo", (size, dir) -> {
+            Minesweeper game = newGame(size);
+            UI ui = new UI(game);
+            int[] pushes = new int[1];
+            return () -> {
+                ui.pushCurrentStateToUndoStack();
+                if (++pushes[0] == 1 << 20) {
+                    game.getUndoJournal().clear(); // Keeps the journal's memory bounded however long the run
+                    pushes[0] = 0;
+                }
+            };
+        });
+        all.put("saveGame", (size, dir) -> {
+            Minesweeper game = playedGame(size);
+            String file = dir.resolve("save-" + size + ".bin").toString();
+            return () -> {
+                FileHandler.saveGame(game, file);
+                sink++;
+            };
+        });
+        all.put("loadGame", (size, dir) -> {
+            Minesweeper game = playedGame(size);
+            String file = dir.resolve("load-" + size + ".bin").toString();
+            FileHandler.saveGame(game, file);
+            return () -> {
+                FileHandler.loadGame(game, file);
+                sink += game.getLives();
+            };
+        });
+        all.put("sharedMove", (size, dir) -> {
+            Board level = LevelGenerator.generate(size, size * size / 8, size);
+            SharedGame[] game = {new SharedGame(level, Integer.MAX_VALUE)};
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(SHARED_PLAYERS, SHARED_PLAYERS, 1, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), task -> {
+                        Thread thread = new Thread(task, "benchmark-player");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            pool.allowCoreThreadTimeOut(true); // The players go away once the benchmark stops calling
+            List<Callable<Long>> players = new ArrayList<>();
+            for (int p = 0; p < SHARED_PLAYERS; p++) {
+                SplittableRandom random = new SplittableRandom(size * 1000L + p);
+                players.add(() -> sharedMoves(game[0], random, SHARED_ROUND));
+            }
+            return new Batch(SHARED_PLAYERS * SHARED_ROUND, () -> {
+                if (game[0].getSafeRemaining() < level.getSafeCells() / 2) {
+                    game[0] = new SharedGame(level, Integer.MAX_VALUE); // Amortised over the moves that uncovered half the board
+                }
+                try {
+                    for (Future<Long> result : pool.invokeAll(players)) {
+                        sink += result.get();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while the players were moving", e);
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException(e.getCause());
+                }
+            });
+        });
+        all.put("updateBoard", (size, dir) -> {
+            Minesweeper game = playedGame(size);
+            UI ui = new UI(game);
+            ControlPanel controlPanel = new ControlPanel(game, null, ui);
+            GamePanel panel = new GamePanel(game, false, controlPanel);
+            BoardCanvas canvas = panel.getCanvas();
+            if (canvas == null) {
+                return () -> {
+                    panel.updateBoard();
+                    sink++;
+                };
+            }
+            // The canvas only asks to be repainted, so paint what a scroll pane would show to measure the real work
+            canvas.setSize(canvas.getPreferredSize());
+            BufferedImage image = new BufferedImage(VIEWPORT, VIEWPORT, BufferedImage.TYPE_INT_RGB);
+            return () -> {
+                panel.updateBoard();
+                Graphics2D g = image.createGraphics();
+                g.setClip(0, 0, VIEWPORT, VIEWPORT);
+                canvas.paint(g);
+                g.dispose();
+                sink += image.getRGB(0, 0);
+            };
+        });
+        return all;
+    }
+
+    /**
+     * Runs the chosen benchmarks at every size.
+     *
+     * @param sizes The board sizes.
+     * @param names The benchmarks to run, or null for all of them.
+     * @return One result per benchmark and size.
+     * @throws IOException if the scratch files cannot be written.
+     * @throws IllegalArgumentException if a name is not a benchmark.
+     */
+    public List<Result> run(int[] sizes, List<String> names) throws IOException {
+        Map<String, Setup> all = benchmarks();
+        List<String> chosen = names == null ? new ArrayList<>(all.keySet()) : names;
+        for (String name : chosen) {
+            if (!all.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown benchmark: " + name + ", expected one of " + all.keySet());
+            }
+        }
+        List<Result> results = new ArrayList<>();
+        Path dir = Files.createTempDirectory("minesweeper-benchmarks");
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream())); // The game reports every save and load
+        try {
+            for (String name : chosen) {
+                for (int size : sizes) {
+                    Operation operation = all.get(name).prepare(size, dir);
+                    results.add(new Result(name, size, measure(operation)));
+                }
+            }
+        } finally {
+            System.setOut(console);
+            try (Stream<Path> files = Files.walk(dir)) {
+                files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Warms up and then times an operation.
+     *
+     * @param operation The operation.
+     * @return The average nanoseconds per operation in each measured iteration.
+     * @throws IOException if the operation fails.
+     */
+    private double[] measure(Operation operation) throws IOException {
+        int perRun = operation instanceof Batch ? ((Batch) operation).operations : 1;
+        for (int i = 0; i < warmups; i++) {
+            iteration(operation);
+        }
+        double[] scores = new double[measurements];
+        for (int i = 0; i < measurements; i++) {
+            scores[i] = iteration(operation) / perRun;
+        }
+        return scores;
+    }
+
+    /**
+     * Runs an operation for one iteration, in batches that double until each takes a noticeable time.
+     *
+     * @param operation The operation.
+     * @return The average nanoseconds per operation.
+     * @throws IOException if the operation fails.
+     */
+    private double iteration(Operation operation) throws IOException {
+        long operations = 0;
+        long batch = 1;
+        long start = System.nanoTime();
+        long elapsed;
+        while (true) {
+            for (long i = 0; i < batch; i++) {
+                operation.run();
+            }
+            operations += batch;
+            elapsed = System.nanoTime() - start;
+            if (elapsed >= iterationNanos) {
+                break;
+            }
+            if (elapsed < iterationNanos / 16) {
+                batch *= 2; // Read the clock less often, without running far past the end of the iteration
+            }
+        }
+        return (double) elapsed / operations;
+    }
+
+    /**
+     * Writes results as JSON in the layout JMH uses.
+     *
+     * @param results The results.
+     * @param file The file to write.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void writeJson(List<Result> results, Path file) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("[\n");
+            for (int i = 0; i < results.size(); i++) {
+                Result result = results.get(i);
+                out.write("  {\n");
+                out.write("    \"benchmark\" : \"Benchmarks." + result.getName() + "\",\n");
+                out.write("    \"mode\" : \"avgt\",\n");
+                out.write("    \"measurementIterations\" : " + result.iterations.length + ",\n");
+                out.write("    \"params\" : {\n      \"size\" : \"" + result.getSize() + "\"\n    },\n");
+                out.write("    \"primaryMetric\" : {\n");
+                out.write("      \"score\" : " + result.getScore() + ",\n");
+                out.write("      \"scoreError\" : " + result.getError() + ",\n");
+                out.write("      \"scoreUnit\" : \"ns/op\",\n");
+                out.write("      \"rawData\" : [\n        [");
+                for (int j = 0; j < result.iterations.length; j++) {
+                    out.write((j > 0 ? ", " : "") + result.iterations[j]);
+                }
+                out.write("]\n      ]\n    }\n");
+                out.write(i < results.size() - 1 ? "  },\n" : "  }\n");
+            }
+            out.write("]\n");
+        }
+    }
+
+    /**
+     * Writes a random level file of the given size.
+     *
+     * @param size The board size.
+     * @param dir The directory to write it in.
+     * @return The path of the level file.
+     * @throws IOException if the file cannot be written.
+     */
+    private static String writeLevel(int size, Path dir) throws IOException {
+        Path file = dir.resolve("level-" + size + ".txt");
+        if (Files.exists(file)) {
+            return file.toString();
+        }
+        Board board = LevelGenerator.generate(size, size * size / 6, size);
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.US_ASCII)) {
+            out.write(size + "\n");
+            for (int index = 0; index < board.getCellCount(); index++) {
+                out.write(index / size + " " + index % size + " " + Board.decode(board.getSolution(index)) + "\n");
+            }
+        }
+        return file.toString();
+    }
+
+    /**
+     * Creates a game on a random board with about one cell in six mined.
+     *
+     * @param size The board size.
+     * @return The game, with every cell hidden.
+     */
+    private static Minesweeper newGame(int size) {
+        return new Minesweeper(LevelGenerator.generate(size, size * size / 6, size));
+    }
+
+    /**
+     * Creates a game part way through, so saves and redraws have a mix of cell states to handle.
+     *
+     * @param size The board size.
+     * @return The game, with about a third of its numbered cells uncovered.
+     */
+    private static Minesweeper playedGame(int size) {
+        Minesweeper game = newGame(size);
+        SplittableRandom random = new SplittableRandom(size);
+        for (int cell : numberedCells(game.getCells())) {
+            if (random.nextInt(3) == 0) {
+                game.makeMove(cell / size, cell % size, "G");
+            }
+        }
+        return game;
+    }
+
+    /**
+     * Makes random moves on a shared game for one player, nine guesses to every flag.
+     *
+     * @param game The shared game.
+     * @param random The player's own random numbers.
+     * @param moves The number of moves to make.
+     * @return The cells uncovered, less the mines stepped on.
+     */
+    private static long sharedMoves(SharedGame game, SplittableRandom random, int moves) {
+        int cells = game.getSize() * game.getSize();
+        long result = 0;
+        for (int i = 0; i < moves; i++) {
+            int cell = random.nextInt(cells);
+            if (random.nextInt(10) == 0) {
+                game.flag(cell);
+            } else {
+                result += game.guess(cell);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Lists the safe cells that show a number, since guessing one of them reveals just that cell.
+     *
+     * @param board The board.
+     * @return The cell indices, in a random order.
+     */
+    private static int[] numberedCells(Board board) {
+        int[] cells = new int[board.getCellCount()];
+        int count = 0;
+        for (int index = 0; index < board.getCellCount(); index++) {
+            byte code = board.getSolution(index);
+            if (Board.isNumber(code) && code > 0) {
+                cells[count++] = index;
+            }
+        }
+        SplittableRandom random = new SplittableRandom(board.getSize());
+        for (int i = count - 1; i > 0; i--) { // Shuffle, so moves do not walk the board in memory order
+            int j = random.nextInt(i + 1);
+            int swap = cells[i];
+            cells[i] = cells[j];
+            cells[j] = swap;
+        }
+        return Arrays.copyOf(cells, count);
+    }
+
+    /**
+     * Runs the benchmarks, writes the JSON file and prints a summary table.
+     *
+     * @param args The output file, the sizes and the benchmark names, all optional.
+     */
+    public static void main(String[] args) {
+        Path output = Path.of(args.length > 0 ? args[0] : "benchmarks.json");
+        int[] sizes = args.length > 1 ? Stream.of(args[1].split(",")).mapToInt(Integer::parseInt).toArray() : DEFAULT_SIZES;
+        List<String> names = args.length > 2 ? List.of(args[2].split(",")) : null;
+        try {
+            List<Result> results = new Benchmarks().run(sizes, names);
+            writeJson(results, output);
+            System.out.printf("%-14s %6s %16s %14s%n", "Benchmark", "Size", "Score (ns/op)", "Error");
+            for (Result result : results) {
+                System.out.printf("%-14s %6d %16.1f %14.1f%n", result.getName(), result.getSize(), result.getScore(), result.getError());
+            }
+            System.out.println("Results written to " + output);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+} // End of Benchmarks Class
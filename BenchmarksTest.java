@@ -0,0 +1,51 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * The test class BenchmarksTest.
+ *
+ * @version 2.0
+ */
+public class BenchmarksTest {
+
+    /**
+     * UNIT-086
+     * Test benchmark run
+     * Ensures that every benchmark runs at a small size and produces a positive score.
+     */
+    @Test
+    public void testEveryBenchmarkRuns() throws Exception {
+        List<Benchmarks.Result> results = new Benchmarks(0, 2, 2_000_000L).run(new int[] {5}, null);
+        assertEquals(10, results.size(), "Every benchmark should run once at the one size");
+        for (Benchmarks.Result result : results) {
+            assertEquals(5, result.getSize());
+            assertTrue(result.getScore() > 0, result.getName() + " should take some time");
+            assertTrue(result.getError() >= 0, result.getName() + " should have a non-negative error");
+        }
+    }
+
+    /**
+     * UNIT-087
+     * Test benchmark JSON output
+     * Ensures that results are written in the JMH layout and that unknown benchmark names are rejected.
+     */
+    @Test
+    public void testJsonOutput() throws Exception {
+        List<Benchmarks.Result> results = new Benchmarks(0, 1, 1_000_000L).run(new int[] {5, 10}, List.of("checkWin"));
+        Path file = Files.createTempFile("benchmarks", ".json");
+        try {
+            Benchmarks.writeJson(results, file);
+            String json = Files.readString(file);
+            assertTrue(json.startsWith("[") && json.trim().endsWith("]"), "The output should be a JSON array");
+            assertTrue(json.contains("\"benchmark\" : \"Benchmarks.checkWin\""));
+            assertTrue(json.contains("\"size\" : \"10\""));
+            assertTrue(json.contains("\"scoreUnit\" : \"ns/op\""));
+        } finally {
+            Files.delete(file);
+        }
+        assertThrows(IllegalArgumentException.class, () -> new Benchmarks().run(new int[] {5}, List.of("noSuchBenchmark")));
+    }
+} // End of BenchmarksTest Class
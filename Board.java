@@ -0,0 +1,490 @@
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Board
+ * This class holds the two layers of a Minesweeper board, the solution and the player's view,
+ * as flat byte arrays indexed by row * size + col. Each cell is stored as a single encoded byte
+ * rather than a String or Slot object, so very large boards stay cheap to hold and to scan.
+ * Each player cell also carries a one byte epoch stamp. A cell whose stamp is not the board's
+ * current epoch reads as hidden, so hiding the whole board is usually just a matter of moving to a new epoch.
+ *
+ * @version 2.0
+ * @author Paul Carmody
+ */
+public class Board {
+    public static final byte EMPTY = 9; // "-", a revealed cell with no number (codes 0-8 are the numbers themselves)
+    public static final byte HIDDEN = 10; // "?", a cell the player has not uncovered yet
+    public static final byte FLAGGED = 11; // "M", a cell the player has flagged as a mine
+    public static final byte MINE = 12; // "M", a mine in the solution or one the player has stepped on
+
+    private static final String[] NAMES = new String[128]; // Decoded state for every code, shared by all boards
+
+    static {
+        for (int c = 32; c < 128; c++) {
+            NAMES[c] = String.valueOf((char) c); // Any other single character is stored as its own ASCII code
+        }
+        for (int n = 0; n <= 8; n++) {
+            NAMES[n] = String.valueOf(n);
+        }
+        NAMES[EMPTY] = "-";
+        NAMES[HIDDEN] = "?";
+        NAMES[FLAGGED] = "M";
+        NAMES[MINE] = "M";
+    }
+
+    private final int size; // The width and height of the board
+    private final byte[] solution; // The level's answer for every cell
+    private final boolean sharedSolution; // True if the solution belongs to a LevelTemplate and must not change
+    private final byte[] player; // What the player can currently see for every cell, if stamped with the current epoch
+    private final byte[] stamps; // Epoch in which each player cell was last written
+    private byte epoch = 1; // Current epoch, from 1 to 127; cells with any other stamp are hidden
+    private int safeCells; // The number of cells in the solution that are not mines
+    private int safeRemaining; // Safe cells whose player state does not yet match the solution
+    private int flagsPlaced; // Cells the player has flagged
+    private int minesRevealed; // Mines the player has stepped on
+    private int hiddenCount; // Cells still showing "?"
+    private UndoJournal journal; // Journal told about every change to the player's view, or null
+    private int[] queue = new int[16]; // Cells revealed by the last reveal, in the order they were expanded
+
+    /**
+     * Constructs an empty board of the given size with every player cell hidden.
+     *
+     * @param size The width and height of the board.
+     */
+    public Board(int size) {
+        this.size = size;
+        this.solution = new byte[size * size];
+        this.player = new byte[size * size];
+        this.stamps = new byte[size * size]; // All stamped 0, so every cell starts hidden
+        this.sharedSolution = false;
+    }
+
+    /**
+     * Constructs a board for a new game that shares a level's solution instead of copying it.
+     * Only the player's view is new, with every cell hidden. The solution can not be changed through this board.
+     *
+     * @param solution The level's solution, size * size codes, which must never change afterwards.
+     * @param safeCells The number of cells in the solution that are not mines.
+     */
+    Board(byte[] solution, int safeCells) {
+        this.size = (int) Math.sqrt(solution.length);
+        if (size * size != solution.length) {
+            throw new IllegalArgumentException("A solution of " + solution.length + " cells is not square");
+        }
+        this.solution = solution;
+        this.player = new byte[solution.length];
+        this.stamps = new byte[solution.length];
+        this.sharedSolution = true;
+        this.safeCells = safeCells;
+        hideAll();
+    }
+
+    /**
+     * Encodes a state string into its cell code.
+     *
+     * @param state The state to encode, for example "?", "M", "-" or "3".
+     * @return The byte code for the state.
+     * @throws IllegalArgumentException if the state is not a single ASCII character.
+     */
+    public static byte encode(String state) {
+        if (state.length() != 1) {
+            throw new IllegalArgumentException("Invalid cell state: " + state);
+        }
+        return encode(state.charAt(0));
+    }
+
+    /**
+     * Encodes a single-character state into its cell code.
+     *
+     * @param c The state character, for example '?', 'M', '-' or '3'.
+     * @return The byte code for the state.
+     * @throws IllegalArgumentException if the character is not printable ASCII.
+     */
+    public static byte encode(char c) {
+        if (c < 32 || c >= 128) {
+            throw new IllegalArgumentException("Invalid cell state: " + c);
+        }
+        if (c >= '0' && c <= '8') {
+            return (byte) (c - '0');
+        }
+        switch (c) {
+            case '-':
+                return EMPTY;
+            case '?':
+                return HIDDEN;
+            case 'M':
+                return MINE;
+            default:
+                return (byte) c;
+        }
+    }
+
+    /**
+     * Encodes a state string from the player's view into its cell code. It is the same as encode, except
+     * that "M" is a flag rather than a mine: the player's view only shows mines that were stepped on, and
+     * those cost a life that is kept apart from the board, so an "M" read back is counted as a flag.
+     * Use encode for the solution, where "M" is always a mine.
+     *
+     * @param state The state to encode, for example "?", "M", "-" or "3".
+     * @return The byte code for the state.
+     * @throws IllegalArgumentException if the state is not a single ASCII character.
+     */
+    public static byte encodePlayer(String state) {
+        byte code = encode(state);
+        return code == MINE ? FLAGGED : code;
+    }
+
+    /**
+     * Decodes a cell code back into its state string. The returned strings are shared, so no allocation takes place.
+     *
+     * @param code The byte code of the cell.
+     * @return The state string for the code.
+     */
+    public static String decode(byte code) {
+        return NAMES[code];
+    }
+
+    /**
+     * Checks whether a code is one of the numbered states 0-8.
+     *
+     * @param code The byte code of the cell.
+     * @return true if the code is a number.
+     */
+    public static boolean isNumber(byte code) {
+        return code >= 0 && code <= 8;
+    }
+
+    /**
+     * Converts a row and column into a flat cell index.
+     *
+     * @param row the row of the cell.
+     * @param col the column of the cell.
+     * @return The index of the cell.
+     * @throws IndexOutOfBoundsException if the row or column is outside the board.
+     */
+    public int index(int row, int col) {
+        Objects.checkIndex(row, size);
+        Objects.checkIndex(col, size);
+        return row * size + col;
+    }
+
+    /**
+     * Provides access to the board size.
+     *
+     * @return The width and height of the board.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the number of cells on the board.
+     *
+     * @return The number of cells.
+     */
+    public int getCellCount() {
+        return player.length;
+    }
+
+    /**
+     * Returns the solution code of a cell.
+     *
+     * @param index The index of the cell.
+     * @return The solution code.
+     */
+    public byte getSolution(int index) {
+        return solution[index];
+    }
+
+    /**
+     * Sets the solution code of a cell.
+     * recount must be called once the solution is complete.
+     *
+     * @param index The index of the cell.
+     * @param code The new solution code.
+     * @throws IllegalArgumentException if the code is HIDDEN, which only the player's view can hold.
+     */
+    public void setSolution(int index, byte code) {
+        if (sharedSolution) {
+            throw new IllegalStateException("The solution is shared with other games and cannot be changed");
+        }
+        if (code == HIDDEN) {
+            throw new IllegalArgumentException("A solution cell cannot be hidden");
+        }
+        solution[index] = code;
+    }
+
+    /**
+     * Recalculates the running counters from scratch. This must be called once the solution has been filled in.
+     */
+    public void recount() {
+        safeCells = 0;
+        safeRemaining = 0;
+        flagsPlaced = 0;
+        minesRevealed = 0;
+        hiddenCount = 0;
+        for (int i = 0; i < player.length; i++) {
+            if (!isMine(i)) {
+                safeCells++;
+            }
+            count(i, 1);
+        }
+    }
+
+    /**
+     * Checks whether the solution has a mine in a cell.
+     *
+     * @param index The index of the cell.
+     * @return true if the cell is a mine.
+     */
+    public boolean isMine(int index) {
+        return solution[index] == MINE;
+    }
+
+    /**
+     * Returns the player's code for a cell.
+     *
+     * @param index The index of the cell.
+     * @return The player code.
+     */
+    public byte getPlayer(int index) {
+        return stamps[index] == epoch ? player[index] : HIDDEN;
+    }
+
+    /**
+     * Sets the player's code for a cell.
+     *
+     * @param index The index of the cell.
+     * @param code The new player code.
+     */
+    public void setPlayer(int index, byte code) {
+        if (journal != null) {
+            journal.recordCell(index, getPlayer(index), code);
+        }
+        count(index, -1); // Take the old state out of the counters before replacing it
+        player[index] = code;
+        stamps[index] = epoch;
+        count(index, 1);
+    }
+
+    /**
+     * Sets the journal that records changes to the player's view for undo and redo.
+     * hideAll is not recorded, so the journal should be cleared whenever the board is hidden again.
+     *
+     * @param journal The journal to record into, or null to stop recording.
+     */
+    public void setJournal(UndoJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Adds or removes a cell's current player state from the running counters.
+     *
+     * @param index The index of the cell.
+     * @param delta 1 to add the cell, -1 to remove it.
+     */
+    private void count(int index, int delta) {
+        byte code = getPlayer(index);
+        if (code == FLAGGED) {
+            flagsPlaced += delta;
+        } else if (code == MINE) {
+            minesRevealed += delta;
+        } else if (code == HIDDEN) {
+            hiddenCount += delta;
+        }
+        if (code != solution[index] && !isMine(index)) {
+            safeRemaining += delta;
+        }
+    }
+
+    /**
+     * Returns the number of safe cells the player still has to uncover.
+     *
+     * @return The number of safe cells not yet matching the solution.
+     */
+    public int getSafeRemaining() {
+        return safeRemaining;
+    }
+
+    /**
+     * Returns the number of cells on the board that are not mines.
+     *
+     * @return The number of safe cells.
+     */
+    public int getSafeCells() {
+        return safeCells;
+    }
+
+    /**
+     * Returns the number of mines in the solution.
+     *
+     * @return The number of mines.
+     */
+    public int getMineCount() {
+        return player.length - safeCells;
+    }
+
+    /**
+     * Returns the number of cells still hidden from the player.
+     *
+     * @return The number of cells showing "?".
+     */
+    public int getHiddenCount() {
+        return hiddenCount;
+    }
+
+    /**
+     * Returns the number of cells the player has flagged.
+     *
+     * @return The number of flags placed.
+     */
+    public int getFlagsPlaced() {
+        return flagsPlaced;
+    }
+
+    /**
+     * Returns the number of mines the player has stepped on.
+     *
+     * @return The number of mines revealed.
+     */
+    public int getMinesRevealed() {
+        return minesRevealed;
+    }
+
+    /**
+     * Returns the player's state of a cell as a string.
+     *
+     * @param row the row of the cell.
+     * @param col the column of the cell.
+     * @return The state of the cell.
+     */
+    public String getState(int row, int col) {
+        return NAMES[getPlayer(index(row, col))];
+    }
+
+    /**
+     * Sets the player's state of a cell from a string, reading "M" as a flag.
+     *
+     * @param row the row of the cell.
+     * @param col the column of the cell.
+     * @param state The new state of the cell.
+     */
+    public void setState(int row, int col, String state) {
+        setPlayer(index(row, col), encodePlayer(state));
+    }
+
+    /**
+     * Reveals a safe cell and, if it has no neighbouring mines, the whole connected region of empty cells
+     * around it together with their numbered border. The region is walked with an explicit queue of
+     * cell indices rather than by recursion, so even a board-sized region cannot overflow the stack.
+     * Flagged cells and mines are never uncovered by the cascade.
+     *
+     * @param index The index of the safe cell the player picked.
+     * @return The number of cells revealed, including the picked cell.
+     */
+    public int reveal(int index) {
+        setPlayer(index, solution[index]);
+        queue[0] = index;
+        int head = 0;
+        int tail = 1;
+        while (head < tail) {
+            int cell = queue[head++];
+            byte code = solution[cell];
+            if (code != 0 && code != EMPTY) {
+                continue; // Numbered cells form the border of the region and are not expanded
+            }
+            int row = cell / size;
+            int col = cell % size;
+            for (int r = Math.max(0, row - 1); r <= Math.min(size - 1, row + 1); r++) {
+                for (int c = Math.max(0, col - 1); c <= Math.min(size - 1, col + 1); c++) {
+                    int next = r * size + c;
+                    if (getPlayer(next) == HIDDEN && !isMine(next)) {
+                        setPlayer(next, solution[next]); // Revealing on enqueue means every cell is queued at most once
+                        if (tail == queue.length) {
+                            queue = Arrays.copyOf(queue, Math.min(queue.length * 2, player.length));
+                        }
+                        queue[tail++] = next;
+                    }
+                }
+            }
+        }
+        return tail;
+    }
+
+    /**
+     * Returns the cells uncovered by the most recent call to reveal.
+     * The array is reused, so only the first count entries are valid and only until the next reveal.
+     *
+     * @return The revealed cell indices.
+     */
+    public int[] getRevealed() {
+        return queue;
+    }
+
+    /**
+     * Copies the player's view into a buffer, one byte per cell in row order.
+     *
+     * A heap buffer is filled straight through its array, which is several times faster on large boards.
+     *
+     * @param buffer The buffer to write into, which must have room for every cell.
+     */
+    public void writePlayer(ByteBuffer buffer) {
+        if (buffer.hasArray() && buffer.remaining() >= player.length) {
+            byte[] out = buffer.array();
+            int start = buffer.arrayOffset() + buffer.position();
+            byte current = epoch;
+            for (int i = 0; i < player.length; i++) {
+                out[start + i] = stamps[i] == current ? player[i] : HIDDEN;
+            }
+            buffer.position(buffer.position() + player.length);
+            return;
+        }
+        for (int i = 0; i < player.length; i++) {
+            buffer.put(getPlayer(i));
+        }
+    }
+
+    /**
+     * Replaces the player's view with cells read from a buffer, one byte per cell in row order.
+     * Every cell is checked before any is applied, so a bad buffer leaves the board as it was.
+     * Each cell then goes through setPlayer, so the counters and any journal stay up to date.
+     *
+     * @param buffer The buffer to read from, which must hold every cell.
+     * @throws IllegalArgumentException if the buffer holds a byte that is not a valid code.
+     */
+    public void readPlayer(ByteBuffer buffer) {
+        if (buffer.remaining() < player.length) {
+            throw new IllegalArgumentException("Expected " + player.length + " cells but found " + buffer.remaining());
+        }
+        int start = buffer.position();
+        for (int i = 0; i < player.length; i++) {
+            byte code = buffer.get(start + i);
+            if (code < 0 || NAMES[code] == null) {
+                throw new IllegalArgumentException("Invalid cell code " + code + " at cell " + i);
+            }
+        }
+        for (int i = 0; i < player.length; i++) {
+            setPlayer(i, buffer.get());
+        }
+    }
+
+    /**
+     * Hides every cell of the player's view again. Usually this takes constant time: the board moves to a new
+     * epoch and every cell written in an earlier one reads as hidden. The stamps are a byte each, so every
+     * 127th call runs out of epochs and clears them all, which takes time in proportion to the board.
+     * The cost is therefore amortized: a 127th of a full clear per call, rather than a full clear every time.
+     */
+    public void hideAll() {
+        epoch++;
+        if (epoch < 0) { // Wrapped past 127, so old stamps could match again
+            Arrays.fill(stamps, (byte) 0);
+            epoch = 1;
+        }
+        safeRemaining = safeCells; // setSolution refuses "?", so every safe cell is hidden again
+        flagsPlaced = 0;
+        minesRevealed = 0;
+        hiddenCount = player.length;
+    }
+} // End of Board Class
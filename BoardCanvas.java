@@ -0,0 +1,162 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+
+/**
+ * The BoardCanvas class draws the whole game board as a single component, for boards too large
+ * for a grid of buttons. It is meant to sit inside a JScrollPane: only the cells inside the
+ * visible area are painted, straight from the game, and clicks are mapped to cells by arithmetic.
+ */
+@SuppressWarnings("serial") // Swing components are never serialized by the game
+public class BoardCanvas extends JComponent implements Scrollable {
+    public static final int CELL_SIZE = 28; // Width and height of a cell in pixels
+    private static final int MAX_CELL_REPAINTS = 64; // Larger changes repaint the visible area in one go
+
+    private Minesweeper theGame; // The Minesweeper game instance being drawn
+    private GamePanel gamePanel; // The panel that turns clicks into moves
+    private Font font = new Font("Arial", Font.BOLD, 16); // Shared font for every cell
+
+    /**
+     * Constructs the canvas for the given game.
+     *
+     * @param theGame The Minesweeper game instance.
+     * @param gamePanel The GamePanel handling clicks on the canvas.
+     */
+    public BoardCanvas(Minesweeper theGame, GamePanel gamePanel) {
+        this.theGame = theGame;
+        this.gamePanel = gamePanel;
+        setOpaque(true);
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                int index = cellAt(e.getX(), e.getY());
+                if (index >= 0) {
+                    int gameSize = theGame.getGameSize();
+                    gamePanel.cellClicked(index / gameSize, index % gameSize);
+                }
+            }
+        });
+    }
+
+    /**
+     * Finds the cell under a point on the canvas.
+     *
+     * @param x The x coordinate in pixels.
+     * @param y The y coordinate in pixels.
+     * @return The index of the cell (row * size + col), or -1 if the point is off the board.
+     */
+    public int cellAt(int x, int y) {
+        int gameSize = theGame.getGameSize();
+        int row = y / CELL_SIZE;
+        int col = x / CELL_SIZE;
+        if (x < 0 || y < 0 || row >= gameSize || col >= gameSize) {
+            return -1;
+        }
+        return row * gameSize + col;
+    }
+
+    /**
+     * Repaints the cells listed in a change from the game.
+     *
+     * @param change The cells changed by the last move.
+     */
+    public void repaintCells(BoardChange change) {
+        if (change.size() > MAX_CELL_REPAINTS) {
+            repaint(); // Painting is clipped to the viewport, so this only redraws what can be seen
+            return;
+        }
+        int gameSize = theGame.getGameSize();
+        for (int index : change.getCells()) {
+            repaint((index % gameSize) * CELL_SIZE, (index / gameSize) * CELL_SIZE, CELL_SIZE, CELL_SIZE);
+        }
+    }
+
+    /**
+     * Counts the cells in the visible part of the canvas, which is all that a full repaint draws.
+     *
+     * @return The number of visible cells, or 0 if the canvas is not on screen.
+     */
+    int visibleCellCount() {
+        Rectangle visible = getVisibleRect();
+        int gameSize = theGame.getGameSize();
+        int rows = Math.min(gameSize - 1, (visible.y + visible.height - 1) / CELL_SIZE) - visible.y / CELL_SIZE + 1;
+        int cols = Math.min(gameSize - 1, (visible.x + visible.width - 1) / CELL_SIZE) - visible.x / CELL_SIZE + 1;
+        return visible.isEmpty() ? 0 : rows * cols;
+    }
+
+    /**
+     * Paints the cells that fall inside the area being redrawn.
+     *
+     * @param g The graphics context to paint with.
+     */
+    @Override
+    protected void paintComponent(Graphics g) {
+        Board board = theGame.getCells();
+        int gameSize = theGame.getGameSize();
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+        int firstRow = Math.max(0, clip.y / CELL_SIZE);
+        int lastRow = Math.min(gameSize - 1, (clip.y + clip.height - 1) / CELL_SIZE);
+        int firstCol = Math.max(0, clip.x / CELL_SIZE);
+        int lastCol = Math.min(gameSize - 1, (clip.x + clip.width - 1) / CELL_SIZE);
+
+        g.setFont(font);
+        FontMetrics metrics = g.getFontMetrics();
+        int textY = (CELL_SIZE - metrics.getHeight()) / 2 + metrics.getAscent();
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int col = firstCol; col <= lastCol; col++) {
+                byte code = board.getPlayer(row * gameSize + col);
+                int x = col * CELL_SIZE;
+                int y = row * CELL_SIZE;
+                g.setColor(gamePanel.cellBackground(row * gameSize + col, code)); // Includes any heat map
+                g.fillRect(x, y, CELL_SIZE, CELL_SIZE);
+                g.setColor(Color.GRAY);
+                g.drawRect(x, y, CELL_SIZE - 1, CELL_SIZE - 1);
+                String text = Board.decode(code);
+                g.setColor(GamePanel.foregroundFor(code));
+                g.drawString(text, x + (CELL_SIZE - metrics.stringWidth(text)) / 2, y + textY);
+            }
+        }
+    }
+
+    /**
+     * Returns the full size of the board in pixels, so the scroll pane knows how far it can scroll.
+     *
+     * @return The preferred size of the canvas.
+     */
+    @Override
+    public Dimension getPreferredSize() {
+        int side = theGame.getGameSize() * CELL_SIZE;
+        return new Dimension(side, side);
+    }
+
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        Dimension size = getPreferredSize();
+        return new Dimension(Math.min(size.width, 600), Math.min(size.height, 600));
+    }
+
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return CELL_SIZE; // Scroll one cell at a time
+    }
+
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+        int extent = orientation == SwingConstants.VERTICAL ? visibleRect.height : visibleRect.width;
+        return Math.max(CELL_SIZE, extent - CELL_SIZE); // Page by a screenful, keeping one cell of overlap
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        return false;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        return false;
+    }
+} // End of BoardCanvas Class
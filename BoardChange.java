@@ -0,0 +1,39 @@
+/**
+ * BoardChange
+ * This class describes which cells a move changed. Minesweeper passes it to its listeners
+ * inside each {@link GameEvent} so the GUI only has to redraw those cells. An event without
+ * a BoardChange means the whole board may have changed and should be redrawn.
+ *
+ * @version 2.0
+ * @author Paul Carmody
+ */
+public class BoardChange {
+    private final int[] cells; // Indices (row * size + col) of the cells that changed
+
+    /**
+     * Constructs a change covering the given cells.
+     *
+     * @param cells The indices of the changed cells.
+     */
+    public BoardChange(int... cells) {
+        this.cells = cells;
+    }
+
+    /**
+     * Returns the indices of the changed cells.
+     *
+     * @return The changed cell indices, possibly empty if only the lives changed.
+     */
+    public int[] getCells() {
+        return cells;
+    }
+
+    /**
+     * Returns the number of changed cells.
+     *
+     * @return The number of changed cells.
+     */
+    public int size() {
+        return cells.length;
+    }
+} // End of BoardChange Class
@@ -0,0 +1,159 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The test class BoardTest.
+ *
+ * @version 2.0
+ */
+public class BoardTest {
+    private Board board;
+
+    /**
+     * Sets up the test fixture.
+     * (Called before every test case method.)
+     */
+    @BeforeEach
+    public void setUp() {
+        board = new Board(5);
+    }
+
+    /**
+     * UNIT-041
+     * Test encode and decode
+     * Ensures that every state used by the game survives a round trip through its byte code.
+     */
+    @Test
+    public void testEncodeDecode() {
+        String[] states = {"?", "M", "-", "0", "1", "8", "G"};
+        for (String state : states) {
+            assertEquals(state, Board.decode(Board.encode(state)), "State should decode to what was encoded");
+        }
+        assertEquals(Board.EMPTY, Board.encode("-"), "'-' should encode as EMPTY");
+        assertThrows(IllegalArgumentException.class, () -> Board.encode("MM"), "Multi-character states should be rejected");
+    }
+
+    /**
+     * UNIT-042
+     * Test new board is hidden
+     * Ensures that every player cell of a new board starts as '?'.
+     */
+    @Test
+    public void testNewBoardIsHidden() {
+        for (int i = 0; i < 5; i++) {
+            for (int j = 0; j < 5; j++) {
+                assertEquals("?", board.getState(i, j), "New cells should be hidden");
+            }
+        }
+    }
+
+    /**
+     * UNIT-043
+     * Test board index boundaries
+     * Ensures that cells outside the board are rejected rather than wrapping onto the next row.
+     */
+    @Test
+    public void testIndexBoundaries() {
+        assertEquals(7, board.index(1, 2), "Index should be row * size + col");
+        assertThrows(IndexOutOfBoundsException.class, () -> board.index(1, 5), "Column past the edge should throw");
+        assertThrows(IndexOutOfBoundsException.class, () -> board.index(-1, 0), "Negative row should throw");
+    }
+
+    /**
+     * UNIT-044
+     * Test Slot view of a board
+     * Ensures that a Slot backed by a board reads and writes the board's cell.
+     */
+    @Test
+    public void testSlotView() {
+        Slot slot = new Slot(board, 2, 3);
+        slot.setState("4");
+        assertEquals("4", board.getState(2, 3), "Writing through the slot should update the board");
+        board.hideAll();
+        assertEquals("?", slot.getState(), "The slot should see changes made to the board");
+    }
+
+    /**
+     * UNIT-045
+     * Test running counters
+     * Ensures that the safe, flag and mine counters follow every change to the player's view.
+     */
+    @Test
+    public void testRunningCounters() {
+        board.setSolution(0, Board.MINE);
+        board.setSolution(1, (byte) 1);
+        board.recount();
+        assertEquals(24, board.getSafeCells(), "Every cell but the mine should be safe");
+        assertEquals(24, board.getSafeRemaining(), "No safe cells should be uncovered yet");
+
+        board.setPlayer(1, (byte) 1);
+        board.setPlayer(2, Board.FLAGGED);
+        board.setPlayer(0, Board.MINE);
+        assertEquals(23, board.getSafeRemaining(), "Uncovering a safe cell should reduce the count");
+        assertEquals(1, board.getFlagsPlaced(), "The flag should be counted");
+        assertEquals(1, board.getMinesRevealed(), "The mine should be counted");
+
+        board.setPlayer(2, (byte) 0);
+        assertEquals(0, board.getFlagsPlaced(), "Replacing the flag should remove it from the count");
+        assertEquals(22, board.getSafeRemaining(), "Uncovering the flagged cell should reduce the count");
+
+        board.hideAll();
+        assertEquals(24, board.getSafeRemaining(), "Hiding the board should restore the count");
+        assertEquals(0, board.getMinesRevealed(), "Hiding the board should clear revealed mines");
+    }
+
+    /**
+     * UNIT-046
+     * Test reveal cascade border
+     * Ensures that revealing an empty cell opens its region and numbered border but leaves flags and mines alone.
+     */
+    @Test
+    public void testRevealCascadeBorder() {
+        board.setSolution(board.index(4, 4), Board.MINE);
+        board.setSolution(board.index(3, 3), (byte) 1);
+        board.setSolution(board.index(3, 4), (byte) 1);
+        board.setSolution(board.index(4, 3), (byte) 1);
+        board.recount();
+        board.setPlayer(board.index(0, 4), Board.FLAGGED);
+
+        int revealed = board.reveal(0);
+        assertEquals(23, revealed, "Every safe cell except the flagged one should be revealed");
+        assertEquals("1", board.getState(3, 3), "The numbered border should be revealed");
+        assertEquals("?", board.getState(4, 4), "The mine should stay hidden");
+        assertEquals("M", board.getState(0, 4), "The flag should be left in place");
+    }
+
+    /**
+     * UNIT-047
+     * Test reveal of a very large empty region
+     * Ensures that a 4000x4000 empty region is revealed in one call without overflowing the stack.
+     */
+    @Test
+    public void testRevealLargeRegion() {
+        Board large = new Board(4000);
+        large.recount();
+        assertEquals(4000 * 4000, large.reveal(0), "The whole board should be revealed");
+        assertEquals(0, large.getSafeRemaining(), "No safe cells should remain");
+    }
+
+    /**
+     * UNIT-070
+     * Test hiding the board across many epochs
+     * Ensures that cells written before any number of hideAll calls read as hidden, including when the epochs wrap.
+     */
+    @Test
+    public void testHideAllAcrossEpochs() {
+        board.recount();
+        for (int round = 0; round < 300; round++) {
+            assertEquals("?", board.getState(round % 5, 2), "The cell should be hidden at the start of round " + round);
+            board.setPlayer(board.index(round % 5, 2), (byte) 3);
+            board.setPlayer(board.index(4, 4), Board.FLAGGED);
+            assertEquals("3", board.getState(round % 5, 2), "The cell should show what was written");
+            board.hideAll();
+            assertEquals("?", board.getState(4, 4), "The flag should be hidden after hideAll");
+            assertEquals(0, board.getFlagsPlaced(), "The flag count should be reset");
+            assertEquals(25, board.getHiddenCount(), "Every cell should be hidden");
+        }
+    }
+}
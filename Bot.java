@@ -0,0 +1,58 @@
+import java.util.SplittableRandom;
+
+/**
+ * Bot
+ * A strategy that plays Minesweeper without a person, used by {@link Simulation} to play large numbers
+ * of games. A bot only chooses which cell to guess; the simulation makes the move.
+ *
+ * A bot is used by one thread at a time, but the simulation creates one per worker thread, so a bot
+ * may keep state between calls without any locking.
+ *
+ * @version 2.0
+ * @author Paul Carmody
+ */
+public interface Bot {
+
+    /**
+     * Called before each game.
+     *
+     * @param game The game about to be played, with every cell hidden.
+     * @param random The random sequence to use for this game, so runs can be repeated.
+     */
+    void newGame(Minesweeper game, SplittableRandom random);
+
+    /**
+     * Chooses the next cell to guess.
+     *
+     * @param game The game being played, which is still in progress.
+     * @return The index of a hidden cell (row * size + col).
+     */
+    int nextGuess(Minesweeper game);
+
+    /**
+     * Picks a random hidden cell. A few random tries are enough while the board is mostly hidden;
+     * after that the board is scanned from a random starting point.
+     *
+     * @param board The board being played.
+     * @param random The random sequence to use.
+     * @param skip Cells to avoid even if hidden, or null.
+     * @return The index of a hidden cell, or -1 if every hidden cell is skipped.
+     */
+    static int randomHidden(Board board, SplittableRandom random, Solver skip) {
+        int cells = board.getCellCount();
+        for (int tries = 0; tries < 16; tries++) {
+            int index = random.nextInt(cells);
+            if (board.getPlayer(index) == Board.HIDDEN && (skip == null || !skip.isCertainMine(index))) {
+                return index;
+            }
+        }
+        int start = random.nextInt(cells);
+        for (int i = 0; i < cells; i++) {
+            int index = (start + i) % cells;
+            if (board.getPlayer(index) == Board.HIDDEN && (skip == null || !skip.isCertainMine(index))) {
+                return index;
+            }
+        }
+        return -1;
+    }
+} // End of Bot Interface
@@ -4,16 +4,18 @@ import java.io.File;
 
 /**
  * The ControlPanel class provides the control interface for the Minesweeper game.
- * It includes buttons for toggling modes, saving, loading, undoing, and clearing the game.
+ * It includes buttons for toggling modes, saving, loading, undoing, hints, mine odds, and clearing the game.
  */
 public class ControlPanel extends JPanel {
     private Minesweeper theGame;
     private UI theUI;
     private JLabel livesLabel;
     private JLabel modeLabel;
+    private JLabel minesLabel;
     private JProgressBar progressBar; // For improved UX
     private boolean flagMode;
     private GamePanel gamePanel;
+    private AutoSaver autoSaver; // Writes saves in the background, or null to save on the event dispatch thread
 
     /**
      * Constructs the ControlPanel with the provided game instance, game panel, and UI.
@@ -46,6 +48,10 @@ public class ControlPanel extends JPanel {
         modeLabel = new JLabel("Mode: Guess");
         modeLabel.setFont(labelFont);
     
+        // Create and configure the mines remaining label
+        minesLabel = new JLabel("Mines: " + theGame.getMinesRemaining());
+        minesLabel.setFont(labelFont);
+    
         // Create and configure the progress bar
         progressBar = new JProgressBar(0, theGame.getGameSize() * theGame.getGameSize());
         progressBar.setStringPainted(true); // Display the progress percentage
@@ -61,11 +67,31 @@ public class ControlPanel extends JPanel {
         saveButton.setFont(buttonFont);
         saveButton.addActionListener(e -> saveGame()); // Add action listener to handle game saving
     
+        // Create and configure the export button
+        JButton exportButton = new JButton("Export");
+        exportButton.setFont(buttonFont);
+        exportButton.addActionListener(e -> exportGame()); // Add action listener to handle exporting as text
+    
         // Create and configure the undo button
         JButton undoButton = new JButton("Undo");
         undoButton.setFont(buttonFont);
         undoButton.addActionListener(e -> undoMove()); // Add action listener to handle undoing moves
     
+        // Create and configure the redo button
+        JButton redoButton = new JButton("Redo");
+        redoButton.setFont(buttonFont);
+        redoButton.addActionListener(e -> redoMove()); // Add action listener to handle redoing moves
+    
+        // Create and configure the hint button
+        JButton hintButton = new JButton("Hint");
+        hintButton.setFont(buttonFont);
+        hintButton.addActionListener(e -> hint()); // Add action listener to handle asking for a hint
+    
+        // Create and configure the odds button
+        JButton oddsButton = new JButton("Odds");
+        oddsButton.setFont(buttonFont);
+        oddsButton.addActionListener(e -> gamePanel.showMineOdds()); // Add action listener to show the mine odds heat map
+    
         // Create and configure the clear button
         JButton clearButton = new JButton("Clear");
         clearButton.setFont(buttonFont);
@@ -79,14 +105,23 @@ public class ControlPanel extends JPanel {
         // Add components to the panel
         add(livesLabel);
         add(modeLabel);
+        add(minesLabel);
         add(progressBar);
         add(Box.createRigidArea(new Dimension(0, 20))); // Adds some vertical spacing
         add(toggleButton);
         add(Box.createRigidArea(new Dimension(0, 30))); // Adds some vertical spacing
         add(saveButton);
         add(Box.createRigidArea(new Dimension(0, 10))); // Adds some vertical spacing
+        add(exportButton);
+        add(Box.createRigidArea(new Dimension(0, 10))); // Adds some vertical spacing
         add(undoButton);
         add(Box.createRigidArea(new Dimension(0, 10))); // Adds some vertical spacing
+        add(redoButton);
+        add(Box.createRigidArea(new Dimension(0, 10))); // Adds some vertical spacing
+        add(hintButton);
+        add(Box.createRigidArea(new Dimension(0, 10))); // Adds some vertical spacing
+        add(oddsButton);
+        add(Box.createRigidArea(new Dimension(0, 10))); // Adds some vertical spacing
         add(clearButton);
         add(Box.createRigidArea(new Dimension(0, 10))); // Adds some vertical spacing
         add(loadButton);
@@ -101,6 +136,15 @@ public class ControlPanel extends JPanel {
         this.gamePanel = gamePanel;
     }
 
+    /**
+     * Sets the AutoSaver that writes the player's saves, so the save button never waits for the disk.
+     * 
+     * @param autoSaver The AutoSaver for the game, or null to save directly.
+     */
+    public void setAutoSaver(AutoSaver autoSaver) {
+        this.autoSaver = autoSaver;
+    }
+
     /**
      * Gets the UI instance.
      * 
@@ -127,8 +171,13 @@ public class ControlPanel extends JPanel {
         JFileChooser fileChooser = new JFileChooser(); // Creates a file chooser for selecting the save location
         if (fileChooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) { // Opens the save dialog and checks if the user approves the save action
             File file = fileChooser.getSelectedFile(); // Gets the selected file from the file chooser
-            saveGameToFile(file); // Calls the method to save the game state to the selected file
-            JOptionPane.showMessageDialog(this, "Game saved successfully!"); // Displays a confirmation message to the user
+            if (autoSaver == null) {
+                saveGameToFile(file); // Calls the method to save the game state to the selected file
+                JOptionPane.showMessageDialog(this, "Game saved successfully!"); // Displays a confirmation message to the user
+            } else { // Write it in the background and confirm once it is on disk
+                autoSaver.saveAs(file.getAbsolutePath(), saved -> JOptionPane.showMessageDialog(this,
+                        saved ? "Game saved successfully!" : "The game could not be saved."));
+            }
         }
     }
     
@@ -142,6 +191,18 @@ public class ControlPanel extends JPanel {
         FileHandler.saveGame(theGame, file.getAbsolutePath());
     }
     
+    /**
+     * Exports the game state to a text file.
+     */
+    private void exportGame() {
+        JFileChooser fileChooser = new JFileChooser(); // Creates a file chooser for selecting the export location
+        if (fileChooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
+            File file = fileChooser.getSelectedFile();
+            FileHandler.exportTextGame(theGame, file.getAbsolutePath()); // Writes the older, human-readable text format
+            JOptionPane.showMessageDialog(this, "Game exported successfully!");
+        }
+    }
+    
     /**
      * Undoes the last move.
      */
@@ -150,6 +211,22 @@ public class ControlPanel extends JPanel {
         theUI.undoMove();
     }
     
+    /**
+     * Redoes the last undone move.
+     */
+    private void redoMove() {
+        // Delegates the redo action to the UI class, which handles the redo functionality
+        theUI.redoMove();
+    }
+    
+    /**
+     * Shows a move that follows for certain from the cells already uncovered.
+     */
+    private void hint() {
+        // Delegates to the UI class, which owns the solver
+        JOptionPane.showMessageDialog(this, theUI.hint());
+    }
+    
     /**
      * Clears the game state.
      */
@@ -173,27 +250,20 @@ public class ControlPanel extends JPanel {
 
     /**
      * Updates the control panel display.
+     * Every value comes from the game's running counters, so this costs the same on any board size.
      */
     public void update() {
         livesLabel.setText("Lives: " + theGame.getLives());
+        minesLabel.setText("Mines: " + theGame.getMinesRemaining());
         progressBar.setValue(getProgress());
     }
 
     /**
      * Calculates and returns the current progress of the game.
      * 
-     * @return The current progress of the game.
+     * @return The number of cells that are no longer hidden, flags included.
      */
     private int getProgress() {
-        int progress = 0;
-        Slot[][] board = theGame.getBoard();
-        for (int i = 0; i < board.length; i++) {
-            for (int j = 0; j < board[i].length; j++) {
-                if (!board[i][j].getState().equals("?")) {
-                    progress++;
-                }
-            }
-        }
-        return progress;
+        return theGame.getRevealedCount() + theGame.getFlaggedCount();
     }
 } // End of ControlPanel Class.
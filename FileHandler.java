@@ -1,69 +1,308 @@
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.PrintWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.NoSuchElementException;
 import java.util.Scanner;
+import java.util.zip.CRC32;
 
 /**
  * The FileHandler class handles the saving and loading of game states for the Minesweeper game.
  * 
+ * Games are saved in a binary format: a 20 byte header (magic number, version, board size, lives
+ * and a CRC32 checksum of the cells) followed by one byte per cell in the board's own encoding.
+ * A save is copied out of the game as a snapshot first, then written to a temporary file beside the
+ * save, forced to disk and renamed over the old save, so a crash part way through leaves the previous
+ * save intact. The two halves are public so an {@link AutoSaver} can take the snapshot on the game's
+ * thread and write it on another. Saves are read into a heap buffer through a FileChannel rather than
+ * mapped, so no mapping outlives the load and stops the file being replaced by the next save. The older
+ * text format, one row of states per line followed by the lives, can still be exported and is detected
+ * automatically on load.
+ * 
  * @version 2.0
  */
 public class FileHandler {
+    public static final int MAGIC = 0x4D535750; // "MSWP" at the start of every binary save
+    public static final int VERSION = 1; // Version of the binary save format
+    public static final int HEADER_SIZE = 20; // Bytes before the cell section
 
     /**
-     * Saves the current game state to a specified file.
+     * Saves the current game state to a specified file in the binary format.
      * 
      * @param theGame  The current Minesweeper game instance.
      * @param filename The name of the file to save the game state.
+     * @return true if the game was saved.
+     */
+    public static boolean saveGame(Minesweeper theGame, String filename) {
+        boolean saved = writeSnapshot(snapshot(theGame), filename);
+        if (saved) {
+            System.out.println("Game saved successfully!");
+        }
+        return saved;
+    }
+
+    /**
+     * Copies the game into a save image, ready for writeSnapshot. This copies one byte per cell, which takes
+     * a few milliseconds on a very large board, so callers saving often should copy it once and keep it up to
+     * date with patchSnapshot. The checksum is left to the writer.
+     * 
+     * @param theGame The current Minesweeper game instance.
+     * @return The save, header and cells, from position 0 to its limit.
+     */
+    public static ByteBuffer snapshot(Minesweeper theGame) {
+        Board board = theGame.getCells();
+        ByteBuffer image = ByteBuffer.allocate(HEADER_SIZE + board.getCellCount());
+        image.putInt(MAGIC);
+        image.putInt(VERSION);
+        image.putInt(board.getSize());
+        image.putInt(theGame.getLives());
+        image.putInt(0); // The checksum, filled in by writeSnapshot
+        board.writePlayer(image);
+        image.flip();
+        return image;
+    }
+
+    /**
+     * Brings a save image taken by snapshot up to date with the cells and lives that have changed since.
+     * It can be called on any thread that owns the image, as it does not touch the game.
+     * 
+     * @param image The save image.
+     * @param cells The indices of the changed cells.
+     * @param codes The player's code for each changed cell, in the same order.
+     * @param lives The lives now.
+     */
+    public static void patchSnapshot(ByteBuffer image, int[] cells, byte[] codes, int lives) {
+        for (int i = 0; i < cells.length; i++) {
+            image.put(HEADER_SIZE + cells[i], codes[i]);
+        }
+        image.putInt(12, lives);
+    }
+
+    /**
+     * Writes a save image taken by snapshot to a file. It can be called on any thread, as it does not touch the game.
+     * The image goes to a temporary file in the same directory, which is forced to disk and then renamed over
+     * the file, so the file always holds either the old save or the whole of the new one.
+     * 
+     * @param image    The save image.
+     * @param filename The name of the file to save the game state.
+     * @return true if the game was saved.
      */
-    public static void saveGame(Minesweeper theGame, String filename) {
+    public static boolean writeSnapshot(ByteBuffer image, String filename) {
+        MinesweeperMetrics metrics = MinesweeperMetrics.getActive();
+        long start = metrics == null ? 0 : System.nanoTime();
+        FlightEvents.Save flight = new FlightEvents.Save();
+        flight.begin();
+        boolean saved = writeImage(image, Paths.get(filename).toAbsolutePath());
+        if (metrics != null) {
+            metrics.recordSave(System.nanoTime() - start);
+        }
+        if (flight.shouldCommit()) {
+            flight.file = filename;
+            flight.bytes = saved ? image.limit() : 0;
+            flight.succeeded = saved;
+            flight.commit();
+        }
+        return saved;
+    }
+
+    /**
+     * Writes the save image for writeSnapshot.
+     * 
+     * @param image The save image.
+     * @param file  The file to save the game state to.
+     * @return true if the game was saved.
+     */
+    private static boolean writeImage(ByteBuffer image, Path file) {
+        Path temp = null;
         try {
-            PrintWriter writer = new PrintWriter(filename); // Create a PrintWriter object to write to the file
-            Slot[][] board = theGame.getMoves(); // Retrieve the current game board
+            ByteBuffer buffer = image.duplicate();
+            CRC32 crc = new CRC32();
+            crc.update(buffer.duplicate().position(HEADER_SIZE));
+            buffer.putInt(16, (int) crc.getValue());
 
-            // Write the state of each slot to the file
-            for (int i = 0; i < board.length; i++) {
-                for (int j = 0; j < board[i].length; j++) {
-                    writer.print(board[i][j].getState() + " ");
+            temp = Files.createTempFile(file.getParent(), file.getFileName() + ".", ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
                 }
-                writer.println();
+                channel.force(false); // Make sure the save has reached the disk before it replaces the old one
             }
-            writer.println(theGame.getLives()); // Write the number of lives to the file
-            writer.close(); // Close the PrintWriter to free up resources
-            System.out.println("Game saved successfully!");
-        } catch (FileNotFoundException e) { // Handle any file not found exceptions
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            temp = null;
+            try (FileChannel directory = FileChannel.open(file.getParent(), StandardOpenOption.READ)) {
+                directory.force(true); // Make the rename itself durable
+            } catch (IOException e) {
+                // Not every platform can sync a directory; the save itself is already on disk
+            }
+            return true;
+        } catch (IOException e) { // Handle any errors creating, writing or renaming the file
             System.out.println("Error saving game.");
             e.printStackTrace();
+            return false;
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp); // Leave nothing behind from a failed save
+                } catch (IOException e) {
+                    // The failure has already been reported
+                }
+            }
+        }
+    }
+
+    /**
+     * Exports the current game state to a specified file in the text format.
+     * 
+     * @param theGame  The current Minesweeper game instance.
+     * @param filename The name of the file to export the game state to.
+     */
+    public static void exportTextGame(Minesweeper theGame, String filename) {
+        Board board = theGame.getCells();
+        int size = board.getSize();
+        try (BufferedWriter writer = Files.newBufferedWriter(Paths.get(filename))) {
+            // Write the state of each slot to the file, one row per line
+            for (int i = 0; i < size; i++) {
+                for (int j = 0; j < size; j++) {
+                    writer.write(Board.decode(board.getPlayer(i * size + j)));
+                    writer.write(' ');
+                }
+                writer.newLine();
+            }
+            writer.write(Integer.toString(theGame.getLives())); // Write the number of lives to the file
+            writer.newLine();
+            System.out.println("Game exported successfully!");
+        } catch (IOException e) { // Handle any errors opening or writing the file
+            System.out.println("Error exporting game.");
+            e.printStackTrace();
         }
     }
 
     /**
-     * Loads a game state from a specified file.
+     * Loads a game state from a specified file, detecting whether it is a binary save or a text export.
      * 
      * @param theGame  The current Minesweeper game instance.
      * @param filename The name of the file to load the game state from.
+     * @return true if the game was loaded.
      */
-    public static void loadGame(Minesweeper theGame, String filename) {
-        try {
-            File file = new File(filename); // Create a File object to read from the specified filename
-            Scanner scanner = new Scanner(file); // Create a Scanner object to read from the file
-            Slot[][] board = new Slot[theGame.getGameSize()][theGame.getGameSize()]; // Initialise the game board with the correct size
+    public static boolean loadGame(Minesweeper theGame, String filename) {
+        MinesweeperMetrics metrics = MinesweeperMetrics.getActive();
+        long start = metrics == null ? 0 : System.nanoTime();
+        FlightEvents.Load flight = new FlightEvents.Load();
+        flight.begin();
+        boolean loaded = readGame(theGame, filename);
+        if (metrics != null) {
+            metrics.recordLoad(System.nanoTime() - start);
+        }
+        if (flight.shouldCommit()) {
+            flight.file = filename;
+            flight.bytes = new File(filename).length(); // 0 if the file is missing
+            flight.succeeded = loaded;
+            flight.commit();
+        }
+        return loaded;
+    }
 
-            // Read the state of each slot from the file and populate the game board
-            for (int i = 0; i < board.length; i++) {
-                for (int j = 0; j < board[i].length; j++) {
-                    String state = scanner.next(); // Read the state of each slot from the file
-                    board[i][j] = new Slot(j, i, state); // Create a new slot object with the read state and assign it to the board
-                }
+    /**
+     * Reads a binary save or text export for loadGame.
+     * 
+     * @param theGame  The current Minesweeper game instance.
+     * @param filename The name of the file to load the game state from.
+     * @return true if the game was loaded.
+     */
+    private static boolean readGame(Minesweeper theGame, String filename) {
+        Path path = Paths.get(filename);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long length = channel.size();
+            ByteBuffer magic = ByteBuffer.allocate(4);
+            if (length < HEADER_SIZE || channel.read(magic, 0) < 4 || magic.getInt(0) != MAGIC) {
+                loadTextGame(theGame, path.toFile()); // No binary header, so treat it as a text export
+                return true;
             }
-            int lives = scanner.nextInt(); // Read the number of lives from the file
-            theGame.setBoard(board); // Set the game board with the loaded state
-            theGame.setLives(lives); // Set the number of lives with the loaded value
-            scanner.close(); // Close the Scanner to free up resources
+
+            if (length != HEADER_SIZE + (long) theGame.getCells().getCellCount()) { // Checked before reading, so a stray file is never read whole
+                System.out.println("Error loading the game: the save is for a different board size.");
+                return false;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) length);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // Read until the buffer is full or the file ends
+            }
+            buffer.flip();
+            int version = buffer.getInt(4);
+            int size = buffer.getInt(8);
+            int lives = buffer.getInt(12);
+            int checksum = buffer.getInt(16);
+            if (version != VERSION) {
+                System.out.println("Error loading the game: unsupported save version " + version + ".");
+                return false;
+            }
+            if (size != theGame.getGameSize() || buffer.limit() != length) {
+                System.out.println("Error loading the game: the save is for a different board size.");
+                return false;
+            }
+            buffer.position(HEADER_SIZE);
+            CRC32 crc = new CRC32();
+            crc.update(buffer.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                System.out.println("Error loading the game: the save file is corrupt.");
+                return false;
+            }
+
+            apply(theGame, buffer, lives);
             System.out.println("Game loaded successfully!");
-        } catch (FileNotFoundException e) { // Handle any file not found exceptions
+            return true;
+        } catch (IOException | IllegalArgumentException | NoSuchElementException e) { // Handle missing files, unreadable states and truncated text saves
             System.out.println("Error loading the game.");
             e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Loads a game state from a file in the text format.
+     * 
+     * @param theGame The current Minesweeper game instance.
+     * @param file    The file to load the game state from.
+     * @throws FileNotFoundException if the file cannot be opened.
+     */
+    private static void loadTextGame(Minesweeper theGame, File file) throws FileNotFoundException {
+        try (Scanner scanner = new Scanner(file)) { // Create a Scanner object to read from the file
+            int size = theGame.getGameSize();
+            ByteBuffer cells = ByteBuffer.allocate(size * size);
+
+            // Read the state of each slot from the file, in row order
+            while (cells.hasRemaining()) {
+                cells.put(Board.encodePlayer(scanner.next())); // An exported "M" is read back as a flag
+            }
+            int lives = scanner.nextInt(); // Read the number of lives from the file
+            cells.flip();
+            apply(theGame, cells, lives);
+            System.out.println("Game loaded successfully!");
+        }
+    }
+
+    /**
+     * Puts a loaded board and lives into the game, as a single change for its listeners.
+     * 
+     * @param theGame The current Minesweeper game instance.
+     * @param cells   The loaded cells, one byte per cell in row order.
+     * @param lives   The loaded number of lives.
+     */
+    private static void apply(Minesweeper theGame, ByteBuffer cells, int lives) {
+        theGame.getEvents().begin(); // The board and lives are redrawn together rather than one after the other
+        try {
+            theGame.setCells(cells); // Set the game board with the loaded state
+            theGame.setLives(lives); // Set the number of lives with the loaded value
+            theGame.getUndoJournal().clear(); // Moves made before the load cannot be undone into it
+        } finally {
+            theGame.getEvents().commit();
         }
     }
 } // End of FileHandler Class
@@ -1,7 +1,12 @@
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
 
 /**
  * The test class FileHandlerTest.
@@ -10,6 +15,8 @@ import java.io.File;
  */
 public class FileHandlerTest {
     private Minesweeper game;
+    @TempDir
+    Path dir; // Holds the files each test saves, so none are left in the working tree
 
     /**
      * Sets up the test fixture.
@@ -27,8 +34,8 @@ public class FileHandlerTest {
      */
     @Test
     public void testSaveGame() {
-        FileHandler.saveGame(game, "test_save.txt");
-        File file = new File("test_save.txt");
+        FileHandler.saveGame(game, tempFile("test_save.txt"));
+        File file = new File(tempFile("test_save.txt"));
         assertTrue(file.exists(), "File should be saved");
     }
 
@@ -39,9 +46,122 @@ public class FileHandlerTest {
      */
     @Test
     public void testLoadGame() {
-        FileHandler.saveGame(game, "test_save.txt");
+        FileHandler.saveGame(game, tempFile("test_save.txt"));
         game.makeMove(0, 0, "G");
-        FileHandler.loadGame(game, "test_save.txt");
+        FileHandler.loadGame(game, tempFile("test_save.txt"));
         assertEquals("?", game.getCellState(0, 0), "Cell state should be restored to '?' after loading");
     }
+
+    /**
+     * UNIT-058
+     * Test FileHandler binary round trip
+     * Ensures that a binary save starts with the header and restores the cells and lives exactly.
+     */
+    @Test
+    public void testBinaryRoundTrip() throws IOException {
+        game.makeMove(0, 0, "M");
+        game.makeMove(0, 4, "G");
+        game.makeMove(1, 1, "G");
+        FileHandler.saveGame(game, tempFile("test_save.bin"));
+        try (RandomAccessFile file = new RandomAccessFile(tempFile("test_save.bin"), "r")) {
+            assertEquals(FileHandler.MAGIC, file.readInt(), "The save should start with the magic number");
+            assertEquals(FileHandler.HEADER_SIZE + 25, file.length(), "The save should hold one byte per cell");
+        }
+
+        game.reset();
+        FileHandler.loadGame(game, tempFile("test_save.bin"));
+        assertEquals("M", game.getCellState(0, 0), "The flag should be restored");
+        assertEquals("1", game.getCellState(1, 1), "The revealed number should be restored");
+        assertEquals(2, game.getLives(), "The lives should be restored");
+        assertEquals(1, game.getFlaggedCount(), "The counters should follow the loaded cells");
+    }
+
+    /**
+     * UNIT-059
+     * Test FileHandler text export
+     * Ensures that a text export is detected and loaded without a binary header.
+     */
+    @Test
+    public void testTextExportIsDetected() {
+        game.makeMove(1, 1, "G");
+        FileHandler.exportTextGame(game, tempFile("test_export.txt"));
+        game.reset();
+        FileHandler.loadGame(game, tempFile("test_export.txt"));
+        assertEquals("1", game.getCellState(1, 1), "The text export should be loaded");
+    }
+
+    /**
+     * UNIT-060
+     * Test FileHandler corrupt save
+     * Ensures that a binary save whose cells do not match the checksum is rejected.
+     */
+    @Test
+    public void testCorruptSaveIsRejected() throws IOException {
+        FileHandler.saveGame(game, tempFile("test_save.bin"));
+        try (RandomAccessFile file = new RandomAccessFile(tempFile("test_save.bin"), "rw")) {
+            file.seek(FileHandler.HEADER_SIZE);
+            file.write(1); // Reveal a cell behind the checksum's back
+        }
+        game.makeMove(1, 1, "G");
+        FileHandler.loadGame(game, tempFile("test_save.bin"));
+        assertEquals("1", game.getCellState(1, 1), "A corrupt save should leave the game untouched");
+    }
+
+    /**
+     * UNIT-115
+     * Test FileHandler save with a bad cell
+     * Ensures that a save whose checksum matches but which holds an invalid cell code is rejected
+     * without changing any cell, and that a good load cannot be undone into the moves made before it.
+     */
+    @Test
+    public void testBadCellLeavesGameUntouched() throws IOException {
+        FileHandler.saveGame(game, tempFile("test_save.bin"));
+        try (RandomAccessFile file = new RandomAccessFile(tempFile("test_save.bin"), "rw")) {
+            byte[] cells = new byte[25];
+            file.seek(FileHandler.HEADER_SIZE);
+            file.readFully(cells);
+            cells[0] = 1; // A valid change that must not be applied on its own
+            cells[24] = 20; // Not a cell code
+            CRC32 crc = new CRC32();
+            crc.update(cells);
+            file.seek(FileHandler.HEADER_SIZE);
+            file.write(cells);
+            file.seek(16);
+            file.writeInt((int) crc.getValue());
+        }
+        assertFalse(FileHandler.loadGame(game, tempFile("test_save.bin")));
+        assertEquals("?", game.getCellState(0, 0), "A rejected save should not be half loaded");
+
+        FileHandler.saveGame(game, tempFile("good.bin"));
+        game.getUndoJournal().beginMove();
+        game.makeMove(2, 0, "G");
+        game.getUndoJournal().beginMove(); // A step opened but not used when the game is loaded
+        assertTrue(FileHandler.loadGame(game, tempFile("good.bin")));
+        assertFalse(game.undo(), "The load should start a new history");
+        assertEquals("?", game.getCellState(2, 0));
+    }
+
+    /**
+     * UNIT-118
+     * Test FileHandler text export of flags
+     * Ensures that flags exported as text are loaded back as flags, not as mines the player stepped on.
+     */
+    @Test
+    public void testTextExportKeepsFlags() {
+        game.makeMove(0, 0, "M");
+        game.makeMove(4, 4, "M"); // A flag on a safe cell
+        FileHandler.exportTextGame(game, tempFile("test_export.txt"));
+        game.reset();
+        assertTrue(FileHandler.loadGame(game, tempFile("test_export.txt")));
+        assertEquals(2, game.getFlaggedCount(), "Both flags should be loaded as flags");
+        assertEquals(0, game.getCells().getMinesRevealed(), "No flag should be loaded as a mine stepped on");
+        assertEquals("M", game.getCellState(4, 4));
+    }
+
+    /**
+     * Returns the path of a file in the test's temporary directory.
+     */
+    private String tempFile(String name) {
+        return dir.resolve(name).toString();
+    }
 }
@@ -0,0 +1,141 @@
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * FlightEvents
+ * This class holds the Java Flight Recorder events the game emits, so a recording of a real session shows
+ * where its time went move by move. The events are listed under "Minesweeper" in JDK Mission Control, and
+ * minesweeper.jfc is a settings file that records them along with the JDK's own CPU and GC events:
+ *
+ *   java -XX:StartFlightRecording:settings=minesweeper.jfc,filename=session.jfr MinesweeperGUI
+ *
+ * Each event is created, begun and committed around the work it times, but its fields are only filled in
+ * when the event is enabled. While JFR is not recording, an event is an object the JIT removes and an
+ * isEnabled check that is always false, so the game pays nothing for them. Stack traces are off, as the
+ * place each event comes from is fixed.
+ *
+ * @version 2.0
+ * @author Paul Carmody
+ */
+public final class FlightEvents {
+    private FlightEvents() {
+        // Only holds the event classes
+    }
+
+    /**
+     * A call to Minesweeper.makeMove.
+     */
+    @Name("minesweeper.Move")
+    @Label("Move")
+    @Category("Minesweeper")
+    @Description("A flag or guess made with Minesweeper.makeMove")
+    @StackTrace(false)
+    public static class Move extends Event {
+        @Label("Row")
+        public int row;
+
+        @Label("Column")
+        public int col;
+
+        @Label("Guess")
+        @Description("M to flag a mine, G to guess a square")
+        public String guess;
+
+        @Label("Cells Changed")
+        @Description("Cells uncovered or flagged by the move, counting the whole of a cascade")
+        public int cellsChanged;
+    }
+
+    /**
+     * A call to Minesweeper.reset.
+     */
+    @Name("minesweeper.Reset")
+    @Label("Reset")
+    @Category("Minesweeper")
+    @Description("The board hidden again and the lives restored")
+    @StackTrace(false)
+    public static class Reset extends Event {
+        @Label("Cells")
+        public int cells;
+    }
+
+    /**
+     * A save written by FileHandler.saveGame or an AutoSaver.
+     */
+    @Name("minesweeper.Save")
+    @Label("Save Game")
+    @Category({"Minesweeper", "Files"})
+    @StackTrace(false)
+    public static class Save extends Event {
+        @Label("File")
+        public String file;
+
+        @Label("Bytes")
+        @DataAmount
+        public long bytes;
+
+        @Label("Succeeded")
+        public boolean succeeded;
+    }
+
+    /**
+     * A call to FileHandler.loadGame.
+     */
+    @Name("minesweeper.Load")
+    @Label("Load Game")
+    @Category({"Minesweeper", "Files"})
+    @StackTrace(false)
+    public static class Load extends Event {
+        @Label("File")
+        public String file;
+
+        @Label("Bytes")
+        @DataAmount
+        public long bytes;
+
+        @Label("Succeeded")
+        public boolean succeeded;
+    }
+
+    /**
+     * A level file parsed by LevelReader.
+     */
+    @Name("minesweeper.LevelParse")
+    @Label("Level Parse")
+    @Category({"Minesweeper", "Files"})
+    @StackTrace(false)
+    public static class LevelParse extends Event {
+        @Label("File")
+        public String file;
+
+        @Label("Bytes")
+        @DataAmount
+        @Description("Size of the file on disk, compressed if it is gzipped")
+        public long bytes;
+
+        @Label("Board Size")
+        public int size;
+    }
+
+    /**
+     * A refresh of the game panel.
+     */
+    @Name("minesweeper.Refresh")
+    @Label("Board Refresh")
+    @Category({"Minesweeper", "GUI"})
+    @Description("The game panel redrawing cells after a change, from GamePanel.updateBoard or updateCells")
+    @StackTrace(false)
+    public static class Refresh extends Event {
+        @Label("Cells Touched")
+        @Description("Buttons updated, or canvas cells repainted")
+        public int cellsTouched;
+
+        @Label("Whole Board")
+        public boolean wholeBoard;
+    }
+} // End of FlightEvents Class
@@ -0,0 +1,89 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * The test class FlightEventsTest.
+ *
+ * @version 2.0
+ */
+public class FlightEventsTest {
+
+    /**
+     * UNIT-105
+     * Test flight recorder events
+     * Ensures that moves, resets, saves, loads, level parsing and refreshes are recorded with their details
+     * when a recording uses the shipped settings file.
+     */
+    @Test
+    public void testEventsAreRecorded() throws Exception {
+        Configuration settings = Configuration.create(Path.of("minesweeper.jfc"));
+        Path dump = Files.createTempFile("minesweeper", ".jfr");
+        try (Recording recording = new Recording(settings)) {
+            recording.start();
+            Minesweeper game = new Minesweeper(LevelReader.read("Levels/em1.txt"));
+            game.makeMove(0, 0, "M");
+            game.makeMove(2, 0, "G");
+            FileHandler.saveGame(game, "flight_save.dat");
+            FileHandler.loadGame(game, "flight_save.dat");
+            new GamePanel(game, false, null).updateBoard();
+            game.reset();
+            recording.stop();
+            recording.dump(dump);
+        } finally {
+            new File("flight_save.dat").delete();
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump).stream()
+                .filter(event -> event.getEventType().getName().startsWith("minesweeper."))
+                .collect(Collectors.toList());
+        Files.delete(dump);
+
+        List<RecordedEvent> moves = named(events, "minesweeper.Move");
+        assertEquals(2, moves.size());
+        assertEquals("M", moves.get(0).getString("guess"));
+        assertEquals(1, moves.get(0).getInt("cellsChanged"));
+        assertEquals(2, moves.get(1).getInt("row"));
+        assertEquals(21, moves.get(1).getInt("cellsChanged"), "The whole cascade should be counted");
+        assertEquals(1, named(events, "minesweeper.LevelParse").size());
+        assertEquals(5, named(events, "minesweeper.LevelParse").get(0).getInt("size"));
+        assertEquals(FileHandler.HEADER_SIZE + 25, named(events, "minesweeper.Save").get(0).getLong("bytes"));
+        assertTrue(named(events, "minesweeper.Load").get(0).getBoolean("succeeded"));
+        RecordedEvent refresh = named(events, "minesweeper.Refresh").get(0);
+        assertEquals(25, refresh.getInt("cellsTouched"));
+        assertTrue(refresh.getBoolean("wholeBoard"));
+        assertEquals(25, named(events, "minesweeper.Reset").get(0).getInt("cells"));
+    }
+
+    /**
+     * UNIT-106
+     * Test nothing is recorded without a recording
+     * Ensures that the game runs normally and emits nothing while the flight recorder is not recording its events.
+     */
+    @Test
+    public void testDisabledEventsCostNothing() {
+        assertFalse(new FlightEvents.Move().isEnabled(), "Move events should be off without a recording");
+        Minesweeper game = new Minesweeper();
+        assertEquals("You have flagged a tile.", game.makeMove(0, 0, "M"));
+        game.reset();
+        assertEquals("?", game.getCellState(0, 0));
+    }
+
+    /**
+     * Picks out the events of one type, in the order they were recorded.
+     */
+    private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+        return events.stream().filter(event -> event.getEventType().getName().equals(name))
+                .sorted((a, b) -> a.getStartTime().compareTo(b.getStartTime()))
+                .collect(Collectors.toList());
+    }
+} // End of FlightEventsTest Class
@@ -0,0 +1,107 @@
+import java.util.BitSet;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+/**
+ * FrameCoalescer
+ * This class stands between a game and a view that is slow to refresh, such as the GUI. Events from the
+ * game only mark the view dirty; a single pass on the Swing event dispatch thread then hands the view one
+ * event covering everything that changed since the last pass, at most once per frame. A bot playing
+ * hundreds of moves a second, or a load that changes the board and then the lives, costs one refresh per frame.
+ *
+ * Events may arrive on any thread. The end of a game is passed on once, and only if the game was still over
+ * when the pass ran, so a game that is ended and then reset within one frame does not prompt the player.
+ *
+ * @version 2.0
+ * @author Paul Carmody
+ */
+public class FrameCoalescer implements GameListener {
+    public static final int FRAME_MILLIS = 16; // Shortest time between passes, about 60 a second
+
+    private final GameListener view; // Receives the merged events on the event dispatch thread
+    private final Timer timer; // Runs a pass when the last one was too recent
+    private final BitSet cells = new BitSet(); // Cells changed since the last pass
+    private int kinds; // Kinds of change since the last pass, one bit per Kind
+    private boolean replaced; // True if the whole board was replaced since the last pass
+    private GameEvent latest; // The most recent event, for the lives and result
+    private boolean scheduled; // True while a pass is waiting to run
+    private long lastPass; // System.nanoTime of the last pass
+    private long passes; // Number of passes run
+
+    /**
+     * Constructs a coalescer in front of a view.
+     *
+     * @param view The view, called on the event dispatch thread with one merged event per pass.
+     */
+    public FrameCoalescer(GameListener view) {
+        this.view = view;
+        timer = new Timer(FRAME_MILLIS, e -> flush());
+        timer.setRepeats(false);
+        lastPass = System.nanoTime() - FRAME_MILLIS * 1_000_000L;
+    }
+
+    /**
+     * Merges an event into the next pass, scheduling one if none is waiting.
+     *
+     * @param event What changed.
+     */
+    @Override
+    public synchronized void gameChanged(GameEvent event) {
+        kinds |= event.kindBits();
+        BoardChange change = event.getCells();
+        if (change == null) {
+            replaced = true;
+            cells.clear(); // Every cell is redrawn anyway
+        } else if (!replaced) {
+            for (int index : change.getCells()) {
+                cells.set(index);
+            }
+        }
+        latest = event;
+        if (scheduled) {
+            return; // This change will be picked up by the waiting pass
+        }
+        scheduled = true;
+        long wait = (lastPass + FRAME_MILLIS * 1_000_000L - System.nanoTime()) / 1_000_000L;
+        if (wait <= 0) {
+            SwingUtilities.invokeLater(this::flush);
+        } else {
+            timer.setInitialDelay((int) wait);
+            timer.restart();
+        }
+    }
+
+    /**
+     * Returns the number of passes run so far.
+     *
+     * @return The number of refreshes handed to the view.
+     */
+    public synchronized long getPasses() {
+        return passes;
+    }
+
+    /**
+     * Hands the view everything that changed since the last pass. Runs on the event dispatch thread.
+     */
+    private void flush() {
+        GameEvent merged;
+        synchronized (this) {
+            if (!scheduled) {
+                return;
+            }
+            int bits = kinds;
+            if (latest.getResult().equals("continue")) {
+                bits &= ~GameEvent.bit(GameEvent.Kind.GAME_OVER); // The game was started again before the player saw it end
+            }
+            merged = new GameEvent(latest.getGame(), bits, replaced ? null : new BoardChange(cells.stream().toArray()),
+                    latest.getLives(), latest.getResult());
+            kinds = 0;
+            replaced = false;
+            cells.clear();
+            scheduled = false;
+            lastPass = System.nanoTime();
+            passes++;
+        }
+        view.gameChanged(merged); // Outside the lock, so the game can keep publishing while the view refreshes
+    }
+} // End of FrameCoalescer Class
@@ -0,0 +1,95 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.SwingUtilities;
+
+/**
+ * The test class FrameCoalescerTest.
+ *
+ * @version 2.0
+ */
+public class FrameCoalescerTest {
+
+    /**
+     * UNIT-099
+     * Test refreshes are coalesced
+     * Ensures that many moves made between frames reach the view as one refresh on the event dispatch
+     * thread, listing every changed cell once, and that a load is a single full refresh.
+     */
+    @Test
+    public void testRefreshesAreCoalesced() throws Exception {
+        Minesweeper game = new Minesweeper(LevelGenerator.generate(40, 100, 3L));
+        List<GameEvent> refreshes = new ArrayList<>();
+        List<Boolean> onEdt = new ArrayList<>();
+        FrameCoalescer coalescer = new FrameCoalescer(event -> {
+            refreshes.add(event);
+            onEdt.add(SwingUtilities.isEventDispatchThread());
+        });
+        game.getEvents().subscribe(coalescer);
+
+        SwingUtilities.invokeAndWait(() -> {
+            for (int col = 0; col < 40; col++) {
+                game.makeMove(0, col, "M"); // The pass cannot run until these moves are done
+                game.makeMove(0, col, "M");
+            }
+        });
+        waitForPasses();
+        assertEquals(1, refreshes.size(), "Eighty moves in one frame should be one refresh");
+        assertEquals(40, refreshes.get(0).getCells().size(), "Each changed cell should be listed once");
+        assertEquals(List.of(true), onEdt);
+
+        FileHandler.saveGame(game, "coalescer_save.dat");
+        FileHandler.loadGame(game, "coalescer_save.dat");
+        new java.io.File("coalescer_save.dat").delete();
+        waitForPasses();
+        assertEquals(2, refreshes.size(), "A load should be one refresh");
+        assertNull(refreshes.get(1).getCells(), "A load should redraw the whole board");
+        assertEquals(refreshes.size(), coalescer.getPasses());
+    }
+
+    /**
+     * UNIT-100
+     * Test the end of the game is shown once
+     * Ensures that the end of a game reaches the view exactly once, and not at all if the game was
+     * started again before the view refreshed.
+     */
+    @Test
+    public void testGameOverShownOnce() throws Exception {
+        Minesweeper game = new Minesweeper();
+        List<GameEvent> refreshes = new ArrayList<>();
+        game.getEvents().subscribe(new FrameCoalescer(refreshes::add));
+
+        game.makeMove(0, 0, "G");
+        game.makeMove(0, 4, "G");
+        game.makeMove(1, 4, "G"); // The last life
+        game.makeMove(4, 0, "G"); // A move after the end
+        waitForPasses();
+        game.makeMove(2, 0, "G");
+        waitForPasses();
+        long shown = refreshes.stream().filter(event -> event.has(GameEvent.Kind.GAME_OVER)).count();
+        assertEquals(1, shown, "The end of the game should be shown exactly once");
+
+        refreshes.clear();
+        SwingUtilities.invokeAndWait(() -> {
+            game.reset();
+            game.makeMove(0, 0, "G");
+            game.makeMove(0, 4, "G");
+            game.makeMove(1, 4, "G");
+            game.reset(); // Started again within the same frame
+        });
+        waitForPasses();
+        assertEquals(1, refreshes.size());
+        assertFalse(refreshes.get(0).has(GameEvent.Kind.GAME_OVER), "A game already started again should not be shown as over");
+        assertNull(refreshes.get(0).getCells(), "The reset should redraw the whole board");
+    }
+
+    /**
+     * Waits until any pass that is due has run.
+     */
+    private static void waitForPasses() throws Exception {
+        Thread.sleep(3 * FrameCoalescer.FRAME_MILLIS);
+        SwingUtilities.invokeAndWait(() -> { });
+    }
+} // End of FrameCoalescerTest Class
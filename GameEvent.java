@@ -0,0 +1,110 @@
+/**
+ * GameEvent
+ * This class describes everything one logical move, or one batch of moves, changed in a game.
+ * A move that steps on the last mine, for example, is a single event that has changed a cell,
+ * changed the lives and ended the game, rather than three separate notifications.
+ * Events are immutable, so they can be handed to listeners on other threads.
+ *
+ * @version 2.0
+ * @author Paul Carmody
+ */
+public class GameEvent {
+    /**
+     * The kinds of change an event can carry. One event may carry several.
+     */
+    public enum Kind {
+        CELLS_CHANGED, // Some cells changed, listed by getCells
+        LIVES_CHANGED, // The number of lives changed
+        GAME_OVER, // The game has just been won or lost
+        BOARD_REPLACED // The whole board may have changed, such as after a reset or a load
+    }
+
+    private final Minesweeper game; // The game that changed
+    private final int kinds; // One bit per Kind, by ordinal
+    private final BoardChange cells; // The changed cells, or null if the whole board was replaced
+    private final int lives; // Lives once the change was made
+    private final String result; // checkWin once the change was made
+
+    /**
+     * Constructs an event.
+     *
+     * @param game The game that changed.
+     * @param kinds The kinds of change, one bit per Kind by ordinal.
+     * @param cells The changed cells, or null if the whole board was replaced.
+     * @param lives The lives once the change was made.
+     * @param result The state of the game once the change was made.
+     */
+    GameEvent(Minesweeper game, int kinds, BoardChange cells, int lives, String result) {
+        this.game = game;
+        this.kinds = kinds;
+        this.cells = cells;
+        this.lives = lives;
+        this.result = result;
+    }
+
+    /**
+     * Returns the game that changed.
+     *
+     * @return The game.
+     */
+    public Minesweeper getGame() {
+        return game;
+    }
+
+    /**
+     * Checks whether the event carries a kind of change.
+     *
+     * @param kind The kind of change.
+     * @return true if this event includes that change.
+     */
+    public boolean has(Kind kind) {
+        return (kinds & bit(kind)) != 0;
+    }
+
+    /**
+     * Returns every kind of change the event carries.
+     *
+     * @return One bit per Kind, by ordinal.
+     */
+    int kindBits() {
+        return kinds;
+    }
+
+    /**
+     * Returns the cells that changed.
+     *
+     * @return The changed cells, possibly none, or null if the whole board was replaced and should be redrawn.
+     */
+    public BoardChange getCells() {
+        return cells;
+    }
+
+    /**
+     * Returns the lives once the change was made. Listeners on other threads should use this rather
+     * than asking the game, which may have moved on.
+     *
+     * @return The lives.
+     */
+    public int getLives() {
+        return lives;
+    }
+
+    /**
+     * Returns the state of the game once the change was made.
+     *
+     * @return "continue", "won" or "lives", as from {@link Minesweeper#checkWin}.
+     */
+    public String getResult() {
+        return result;
+    }
+
+    /**
+     * Returns the bit standing for a kind of change.
+     *
+     * @param kind The kind of change.
+     * @return The bit.
+     */
+    static int bit(Kind kind) {
+        return 1 << kind.ordinal();
+    }
+} // End of GameEvent Class
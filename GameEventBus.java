@@ -0,0 +1,213 @@
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import javax.swing.SwingUtilities;
+
+/**
+ * GameEventBus
+ * This class delivers a game's {@link GameEvent}s to its listeners. It replaces java.util.Observable,
+ * whose notifyObservers is synchronized and copies the observer list on every call.
+ *
+ * Listeners are kept in a copy-on-write list, so publishing an event takes no lock and makes no copy,
+ * and listeners may be added or removed from any thread, even while an event is being delivered.
+ *
+ * Changes are gathered into transactions. The game opens one around each logical move, so a move
+ * produces a single event however many cells it changes, and callers can open their own around
+ * several moves to have them delivered as one. Transactions nest; the event is published when the
+ * outermost one ends. The bus is driven by its game, so like the game it belongs to one thread at a time.
+ *
+ * Each listener is called on the game's thread by default, or can opt into delivery through an
+ * Executor, such as {@link #EDT} for the Swing event dispatch thread or a background executor.
+ *
+ * @version 2.0
+ * @author Paul Carmody
+ */
+public class GameEventBus {
+    /**
+     * Delivers events on the Swing event dispatch thread, in the order they were published.
+     */
+    public static final Executor EDT = SwingUtilities::invokeLater;
+
+    private static final int ALL_KINDS = (1 << GameEvent.Kind.values().length) - 1; // A listener for every kind
+
+    private final Minesweeper game; // The game whose changes are published
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>(); // Registered listeners
+    private int depth; // Transactions open, 0 outside any transaction
+    private int kinds; // Kinds of change in the open transaction, one bit per Kind
+    private int[] cells = new int[16]; // Cells changed in the open transaction
+    private int cellCount; // Entries used in cells
+    private boolean replaced; // True if the whole board was replaced in the open transaction
+    private int livesBefore; // Lives when the outermost transaction began
+    private String lastResult = "continue"; // State of the game after the last published event
+
+    /**
+     * Constructs a bus for a game.
+     *
+     * @param game The game whose changes are published.
+     */
+    public GameEventBus(Minesweeper game) {
+        this.game = game;
+    }
+
+    /**
+     * Registers a listener for every kind of event, called on the thread that changed the game.
+     *
+     * @param listener The listener.
+     */
+    public void subscribe(GameListener listener) {
+        subscribe(listener, null);
+    }
+
+    /**
+     * Registers a listener for some kinds of event, delivered through an executor.
+     *
+     * @param listener The listener.
+     * @param executor Runs each delivery, such as {@link #EDT}, or null to call the listener on the thread that changed the game.
+     * @param kinds The kinds of change the listener wants. An event is delivered if it carries any of them.
+     *              With none given, every event is delivered.
+     */
+    public void subscribe(GameListener listener, Executor executor, GameEvent.Kind... kinds) {
+        int mask = kinds.length == 0 ? ALL_KINDS : 0;
+        for (GameEvent.Kind kind : kinds) {
+            mask |= GameEvent.bit(kind);
+        }
+        subscriptions.add(new Subscription(listener, executor, mask));
+    }
+
+    /**
+     * Removes a listener. Events already handed to its executor may still be delivered.
+     *
+     * @param listener The listener.
+     * @return true if it was registered.
+     */
+    public boolean unsubscribe(GameListener listener) {
+        return subscriptions.removeIf(subscription -> subscription.listener == listener);
+    }
+
+    /**
+     * Opens a transaction. Changes are held back until the matching commit.
+     */
+    public void begin() {
+        if (depth++ == 0) {
+            livesBefore = game.getLives();
+        }
+    }
+
+    /**
+     * Closes a transaction. When the outermost one closes, everything it changed is published as one event.
+     */
+    public void commit() {
+        if (depth == 0) {
+            throw new IllegalStateException("No transaction is open");
+        }
+        if (--depth > 0) {
+            return;
+        }
+        int lives = game.getLives();
+        if (lives != livesBefore) {
+            kinds |= GameEvent.bit(GameEvent.Kind.LIVES_CHANGED);
+        }
+        String result = game.result();
+        if (!result.equals(lastResult)) {
+            if (!result.equals("continue")) {
+                kinds |= GameEvent.bit(GameEvent.Kind.GAME_OVER);
+            }
+            lastResult = result;
+        }
+        if (kinds == 0) {
+            return; // Nothing changed
+        }
+        BoardChange change = replaced ? null : new BoardChange(Arrays.copyOf(cells, cellCount));
+        GameEvent event = new GameEvent(game, kinds, change, lives, result);
+        kinds = 0;
+        cellCount = 0;
+        replaced = false; // Cleared before delivery, as a listener may start the next transaction
+        publish(event);
+    }
+
+    /**
+     * Records that one cell changed.
+     *
+     * @param index The index of the cell.
+     */
+    public void cellChanged(int index) {
+        begin();
+        addCell(index);
+        commit();
+    }
+
+    /**
+     * Records that some cells changed.
+     *
+     * @param indices The indices of the cells.
+     * @param count The number of entries of indices to use.
+     */
+    public void cellsChanged(int[] indices, int count) {
+        begin();
+        for (int i = 0; i < count; i++) {
+            addCell(indices[i]);
+        }
+        commit();
+    }
+
+    /**
+     * Records that the whole board may have changed.
+     */
+    public void boardReplaced() {
+        begin();
+        replaced = true;
+        cellCount = 0; // Every cell is covered anyway
+        kinds |= GameEvent.bit(GameEvent.Kind.BOARD_REPLACED);
+        commit();
+    }
+
+    /**
+     * Adds a cell to the open transaction.
+     *
+     * @param index The index of the cell.
+     */
+    private void addCell(int index) {
+        kinds |= GameEvent.bit(GameEvent.Kind.CELLS_CHANGED);
+        if (replaced) {
+            return;
+        }
+        if (cellCount == cells.length) {
+            cells = Arrays.copyOf(cells, cells.length * 2);
+        }
+        cells[cellCount++] = index;
+    }
+
+    /**
+     * Hands an event to every listener that wants it.
+     *
+     * @param event The event.
+     */
+    private void publish(GameEvent event) {
+        for (Subscription subscription : subscriptions) {
+            if ((subscription.kinds & event.kindBits()) == 0) {
+                continue;
+            }
+            if (subscription.executor == null) {
+                subscription.listener.gameChanged(event);
+            } else {
+                subscription.executor.execute(() -> subscription.listener.gameChanged(event));
+            }
+        }
+    }
+
+    /**
+     * A registered listener and how it wants to be called.
+     */
+    private static final class Subscription {
+        private final GameListener listener; // The listener
+        private final Executor executor; // Runs each delivery, or null to call it directly
+        private final int kinds; // Kinds of change it wants, one bit per Kind
+
+        Subscription(GameListener listener, Executor executor, int kinds) {
+            this.listener = listener;
+            this.executor = executor;
+            this.kinds = kinds;
+        }
+    }
+} // End of GameEventBus Class
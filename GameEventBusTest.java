@@ -0,0 +1,110 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import javax.swing.SwingUtilities;
+
+/**
+ * The test class GameEventBusTest.
+ *
+ * @version 2.0
+ */
+public class GameEventBusTest {
+    private Minesweeper game;
+    private List<GameEvent> events;
+
+    @BeforeEach
+    public void setUp() {
+        game = new Minesweeper();
+        events = new ArrayList<>();
+        game.getEvents().subscribe(events::add);
+    }
+
+    /**
+     * UNIT-096
+     * Test one event per move
+     * Ensures that a move is published as a single event carrying every kind of change it made,
+     * and that the end of the game is reported only by the move that ends it.
+     */
+    @Test
+    public void testOneEventPerMove() {
+        game.makeMove(0, 0, "G");
+        assertEquals(1, events.size(), "Stepping on a mine should be one event");
+        GameEvent mine = events.get(0);
+        assertTrue(mine.has(GameEvent.Kind.CELLS_CHANGED) && mine.has(GameEvent.Kind.LIVES_CHANGED));
+        assertFalse(mine.has(GameEvent.Kind.GAME_OVER));
+        assertEquals(2, mine.getLives());
+        assertSame(game, mine.getGame());
+
+        game.makeMove(0, 4, "G");
+        game.makeMove(1, 4, "G");
+        assertTrue(events.get(2).has(GameEvent.Kind.GAME_OVER), "Losing the last life should end the game");
+        assertEquals("lives", events.get(2).getResult());
+        game.makeMove(4, 0, "G");
+        assertFalse(events.get(3).has(GameEvent.Kind.GAME_OVER), "The game should only end once");
+
+        game.reset();
+        GameEvent reset = events.get(4);
+        assertTrue(reset.has(GameEvent.Kind.BOARD_REPLACED) && reset.has(GameEvent.Kind.LIVES_CHANGED));
+        assertEquals("continue", reset.getResult());
+        assertEquals(5, events.size(), "A reset should be one event");
+    }
+
+    /**
+     * UNIT-097
+     * Test transactions and filters
+     * Ensures that moves made inside a transaction are published together when it ends, and that
+     * listeners only hear about the kinds of change they asked for.
+     */
+    @Test
+    public void testTransactionsAndFilters() {
+        List<GameEvent> livesOnly = new ArrayList<>();
+        GameListener lives = livesOnly::add;
+        game.getEvents().subscribe(lives, null, GameEvent.Kind.LIVES_CHANGED);
+
+        game.getEvents().begin();
+        game.makeMove(0, 0, "M");
+        game.makeMove(2, 0, "G");
+        assertTrue(events.isEmpty(), "Nothing should be published while the transaction is open");
+        game.getEvents().commit();
+        assertEquals(1, events.size(), "Both moves should be one event");
+        assertEquals(22, events.get(0).getCells().size(), "The flag and the whole cascade should be reported");
+        assertTrue(livesOnly.isEmpty(), "No lives changed");
+
+        game.makeMove(0, 4, "G");
+        assertEquals(1, livesOnly.size());
+        assertTrue(game.getEvents().unsubscribe(lives));
+        game.makeMove(1, 4, "G");
+        assertEquals(1, livesOnly.size(), "A removed listener should hear nothing more");
+        assertThrows(IllegalStateException.class, () -> game.getEvents().commit());
+    }
+
+    /**
+     * UNIT-098
+     * Test delivery through executors
+     * Ensures that listeners can opt into delivery on the Swing event dispatch thread or a background executor.
+     */
+    @Test
+    public void testExecutorDelivery() throws Exception {
+        List<Boolean> onEdt = new ArrayList<>();
+        game.getEvents().subscribe(event -> onEdt.add(SwingUtilities.isEventDispatchThread()), GameEventBus.EDT);
+        ExecutorService background = Executors.newSingleThreadExecutor(task -> new Thread(task, "listener"));
+        List<String> threads = new ArrayList<>();
+        game.getEvents().subscribe(event -> threads.add(Thread.currentThread().getName()), background);
+
+        game.makeMove(0, 0, "M");
+        game.makeMove(2, 0, "G");
+        SwingUtilities.invokeAndWait(() -> { }); // Wait for the queued deliveries
+        background.shutdown();
+        assertTrue(background.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals(List.of(true, true), onEdt, "Both events should arrive on the event dispatch thread");
+        assertEquals(List.of("listener", "listener"), threads, "Both events should arrive on the background thread");
+        assertEquals(2, events.size(), "Direct listeners should still be called straight away");
+    }
+} // End of GameEventBusTest Class
@@ -0,0 +1,16 @@
+/**
+ * GameListener
+ * This interface is implemented by anything that follows a game's changes, such as the GUI or the Solver.
+ * Listeners are registered with the game's {@link GameEventBus}.
+ *
+ * @version 2.0
+ * @author Paul Carmody
+ */
+public interface GameListener {
+    /**
+     * Called once for each move, or each batch of moves, that changed the game.
+     *
+     * @param event What changed.
+     */
+    void gameChanged(GameEvent event);
+} // End of GameListener Interface
@@ -2,16 +2,26 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 /**
  * The GamePanel class represents the main game board of the GUI Minesweeper game.
  * It handles the display and interaction of the game tiles.
+ * Small boards are shown as a grid of buttons; larger boards are drawn by a single
+ * scrollable {@link BoardCanvas} so that the board size does not affect startup time or memory.
  */
 public class GamePanel extends JPanel {
+    public static final int MAX_BUTTON_GRID = 30; // Largest board size still shown as a grid of buttons
+    public static final long MINE_ODDS_NANOS = 2_000_000_000L; // Time spent sampling for the heat map
+
     private Minesweeper theGame; // The Minesweeper game instance being managed
-    private JButton[][] buttons; // 2D array of buttons representing the game board
+    private JButton[][] buttons; // 2D array of buttons representing the game board, null when using the canvas
+    private BoardCanvas canvas; // Single component drawing the board, null when using buttons
     private boolean flagMode; // Boolean flag indicating whether the game is in flag mode
     private ControlPanel controlPanel; // Reference to the ControlPanel instance
+    private float[] mineOdds; // Chance of a mine for each cell, shown as a heat map over hidden cells; null when not shown
+    private MineProbability oddsEstimator; // Estimate still running for the heat map, null when idle
 
     /**
      * Constructs the GamePanel with the given game instance, flag mode, and control panel.
@@ -21,9 +31,27 @@ public class GamePanel extends JPanel {
      * @param controlPanel The ControlPanel instance.
      */
     public GamePanel(Minesweeper theGame, boolean flagMode, ControlPanel controlPanel) {
+        this(theGame, flagMode, controlPanel, theGame.getGameSize() > MAX_BUTTON_GRID);
+    }
+
+    /**
+     * Constructs the GamePanel, choosing explicitly between the button grid and the canvas renderer.
+     * 
+     * @param theGame The Minesweeper game instance.
+     * @param flagMode The initial flag mode state.
+     * @param controlPanel The ControlPanel instance.
+     * @param useCanvas true to draw the board on a single scrollable canvas instead of buttons.
+     */
+    public GamePanel(Minesweeper theGame, boolean flagMode, ControlPanel controlPanel, boolean useCanvas) {
         this.theGame = theGame;
         this.flagMode = flagMode;
         this.controlPanel = controlPanel;
+        if (useCanvas) {
+            canvas = new BoardCanvas(theGame, this);
+            setLayout(new BorderLayout());
+            add(new JScrollPane(canvas), BorderLayout.CENTER); // Only the visible part of the board is ever painted
+            return;
+        }
         int gameSize = theGame.getGameSize();
         setLayout(new GridLayout(gameSize, gameSize)); // Sets the layout to a grid based on the game size
         buttons = new JButton[gameSize][gameSize];
@@ -67,60 +95,267 @@ public class GamePanel extends JPanel {
             String[] coords = e.getActionCommand().split(" ");
             int row = Integer.parseInt(coords[0]);
             int col = Integer.parseInt(coords[1]);
-            String result;
+            cellClicked(row, col);
+        }
+    }
 
-            // Save the current game state to the undo stack before making a move
-            controlPanel.getGameUI().pushCurrentStateToUndoStack();
+    /**
+     * Makes a move on the clicked cell, flagging or guessing depending on the current mode.
+     * 
+     * @param row the row of the clicked cell.
+     * @param col the column of the clicked cell.
+     */
+    void cellClicked(int row, int col) {
+        String result;
 
-            // Determine the type of move based on the current mode (flag or guess)
-            if (flagMode) {
-                result = theGame.makeMove(row, col, "M"); // Flag mode: mark the cell as a mine
-            } else {
-                result = theGame.makeMove(row, col, "G"); // Guess mode: make a guess move
-            }
+        // Start recording the move so that it can be undone
+        controlPanel.getGameUI().pushCurrentStateToUndoStack();
 
-            System.out.println(result); // Print the result of the move to the console
-            updateBoard(); // Update the board to reflect the new game state
+        // Determine the type of move based on the current mode (flag or guess)
+        if (flagMode) {
+            result = theGame.makeMove(row, col, "M"); // Flag mode: mark the cell as a mine
+        } else {
+            result = theGame.makeMove(row, col, "G"); // Guess mode: make a guess move
         }
+
+        System.out.println(result); // Print the result of the move to the console
+        // No redraw here: the game notifies the GUI with just the cells this move changed
     }
 
     /**
-     * Updates the display of the game board based on the game state.
+     * Updates the display of the whole game board based on the game state.
+     * Only needed when the whole board may have changed, such as after a reset or a load.
+     * Any heat map is removed, since it no longer matches the board.
      */
     public void updateBoard() {
+        long start = System.nanoTime();
+        FlightEvents.Refresh flight = new FlightEvents.Refresh();
+        flight.begin();
+        stopMineOdds();
+        mineOdds = null;
+        redrawAll();
+        recordRefresh(start);
+        if (flight.shouldCommit()) {
+            int gameSize = theGame.getGameSize();
+            flight.cellsTouched = canvas != null ? canvas.visibleCellCount() : gameSize * gameSize;
+            flight.wholeBoard = true;
+            flight.commit();
+        }
+    }
+
+    /**
+     * Updates only the buttons of the cells listed in a change from the game.
+     * If a heat map is shown the whole board is redrawn instead, to remove it.
+     * 
+     * @param change The cells changed by the last move.
+     */
+    public void updateCells(BoardChange change) {
+        if (mineOdds != null || oddsEstimator != null) {
+            updateBoard(); // The odds of every hidden cell may have changed
+            return;
+        }
+        long start = System.nanoTime();
+        FlightEvents.Refresh flight = new FlightEvents.Refresh();
+        flight.begin();
+        if (canvas != null) {
+            canvas.repaintCells(change);
+        } else {
+            int gameSize = theGame.getGameSize();
+            for (int index : change.getCells()) {
+                updateButton(index / gameSize, index % gameSize);
+            }
+        }
+        recordRefresh(start);
+        if (flight.shouldCommit()) {
+            flight.cellsTouched = change.size();
+            flight.commit();
+        }
+    }
+
+    /**
+     * Records how long a refresh took, if metrics are being recorded.
+     * 
+     * @param start The System.nanoTime when the refresh began.
+     */
+    private static void recordRefresh(long start) {
+        MinesweeperMetrics metrics = MinesweeperMetrics.getActive();
+        if (metrics != null) {
+            metrics.recordRefresh(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Redraws every cell, or the visible part of the canvas.
+     */
+    private void redrawAll() {
+        if (canvas != null) {
+            canvas.repaint(); // The canvas reads the game when it paints
+            return;
+        }
         int gameSize = theGame.getGameSize();
 
         // Update each button on the board to reflect its current state
         for (int row = 0; row < gameSize; row++) {
             for (int col = 0; col < gameSize; col++) {
-                String state = theGame.getCellState(row, col);
-                buttons[row][col].setText(state); // Update the button text
-
-                // Update button appearance based on its state
-                if (state.equals("M")) {
-                    buttons[row][col].setBackground(Color.RED); // Mine state: set background to red
-                    buttons[row][col].setForeground(Color.RED);
-                } else if (state.matches("\\d")) {
-                    buttons[row][col].setBackground(Color.WHITE); // Number state: set background to white
-                    buttons[row][col].setForeground(Color.BLUE);
-                } else if (state.equals("-")) {
-                    buttons[row][col].setBackground(Color.WHITE); // Empty state: set background to white
-                    buttons[row][col].setForeground(Color.BLACK);
-                } else {
-                    buttons[row][col].setBackground(Color.LIGHT_GRAY); // Default state: set background to light grey
-                    buttons[row][col].setForeground(Color.BLACK); // Set default text colour to black
+                updateButton(row, col);
+            }
+        }
+    }
+
+    /**
+     * Starts estimating the chance of a mine under every hidden cell in the background, and shows the
+     * estimate as a heat map, refined as sampling goes on. The heat map is removed by the next move.
+     */
+    public void showMineOdds() {
+        stopMineOdds();
+        MineProbability estimator = new MineProbability(theGame.getCells(), System.nanoTime()); // Copies the board here, on the event thread
+        oddsEstimator = estimator;
+        new SwingWorker<float[], float[]>() {
+            @Override
+            protected float[] doInBackground() {
+                return estimator.estimate(Long.MAX_VALUE, MINE_ODDS_NANOS, (odds, samples) -> publish(odds));
+            }
+
+            @Override
+            protected void process(List<float[]> chunks) {
+                if (oddsEstimator == estimator) { // Ignore an estimate the board has moved on from
+                    setMineOdds(chunks.get(chunks.size() - 1));
                 }
             }
+
+            @Override
+            protected void done() {
+                if (oddsEstimator != estimator) {
+                    return;
+                }
+                oddsEstimator = null;
+                try {
+                    setMineOdds(get());
+                } catch (InterruptedException | ExecutionException e) {
+                    System.out.println("Error estimating the mine odds: " + e.getMessage());
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Stops any estimate still running for the heat map.
+     */
+    private void stopMineOdds() {
+        if (oddsEstimator != null) {
+            oddsEstimator.cancel();
+            oddsEstimator = null;
+        }
+    }
+
+    /**
+     * Shows a heat map of mine odds over the hidden cells.
+     * 
+     * @param mineOdds The chance of a mine for each cell, indexed by row * size + col, or null to remove the heat map.
+     */
+    public void setMineOdds(float[] mineOdds) {
+        this.mineOdds = mineOdds;
+        redrawAll();
+    }
+
+    /**
+     * Gets the mine odds currently shown.
+     * 
+     * @return The chance of a mine for each cell, or null if no heat map is shown.
+     */
+    public float[] getMineOdds() {
+        return mineOdds;
+    }
+
+    /**
+     * Updates a single button to reflect the current state of its cell.
+     * 
+     * @param row the row of the cell.
+     * @param col the column of the cell.
+     */
+    private void updateButton(int row, int col) {
+        Board board = theGame.getCells();
+        byte code = board.getPlayer(board.index(row, col));
+        JButton button = buttons[row][col];
+        button.setText(Board.decode(code)); // Update the button text
+        button.setBackground(cellBackground(board.index(row, col), code)); // Update button appearance based on its state
+        button.setForeground(foregroundFor(code));
+    }
+
+    /**
+     * Returns the background colour used to show a cell state.
+     * 
+     * @param code The player code of the cell.
+     * @return The background colour.
+     */
+    static Color backgroundFor(byte code) {
+        if (code == Board.MINE || code == Board.FLAGGED) {
+            return Color.RED; // Mine state: red
+        } else if (Board.isNumber(code) || code == Board.EMPTY) {
+            return Color.WHITE; // Number and empty states: white
+        }
+        return Color.LIGHT_GRAY; // Default state: light grey
+    }
+
+    /**
+     * Returns the background colour of a cell, taking the heat map into account.
+     * 
+     * @param index The index of the cell.
+     * @param code The player code of the cell.
+     * @return The background colour.
+     */
+    Color cellBackground(int index, byte code) {
+        if (mineOdds != null && (code == Board.HIDDEN || code == Board.FLAGGED) && !Float.isNaN(mineOdds[index])) {
+            return heatColour(mineOdds[index]);
+        }
+        return backgroundFor(code);
+    }
+
+    /**
+     * Returns the heat map colour for a chance of a mine, from green for certainly safe,
+     * through yellow, to red for certainly a mine.
+     * 
+     * @param odds The chance of a mine, from 0 to 1.
+     * @return The colour.
+     */
+    static Color heatColour(float odds) {
+        float clamped = Math.max(0f, Math.min(1f, odds));
+        int red = (int) (255 * Math.min(1f, clamped * 2));
+        int green = (int) (255 * Math.min(1f, (1 - clamped) * 2));
+        return new Color(red, green, 0);
+    }
+
+    /**
+     * Returns the text colour used to show a cell state.
+     * 
+     * @param code The player code of the cell.
+     * @return The text colour.
+     */
+    static Color foregroundFor(byte code) {
+        if (code == Board.MINE || code == Board.FLAGGED) {
+            return Color.RED; // Mine state: red
+        } else if (Board.isNumber(code)) {
+            return Color.BLUE; // Number state: blue
         }
+        return Color.BLACK; // Empty and default states: black
     }
 
     /**
      * Gets the buttons array.
      * 
-     * @return The buttons array.
+     * @return The buttons array, or null if the board is drawn on a canvas.
      */
     public JButton[][] getButtons() {
         return buttons; // Returns the 2D array of buttons
     }
+
+    /**
+     * Gets the canvas drawing the board.
+     * 
+     * @return The canvas, or null if the board is shown as buttons.
+     */
+    public BoardCanvas getCanvas() {
+        return canvas;
+    }
 } // End of GamePanel Class.
  
\ No newline at end of file
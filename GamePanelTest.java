@@ -2,6 +2,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import javax.swing.*;
+import java.awt.event.MouseEvent;
 
 /**
  * The test class GamePanelTest.
@@ -37,4 +38,57 @@ public class GamePanelTest {
         gamePanel.getButtons()[0][0].doClick();
         assertEquals("M", game.getCellState(0, 0), "Cell state should be updated to 'M' in flag mode");
     }
+
+    /**
+     * UNIT-049
+     * Test GamePanel partial update
+     * Ensures that updating from a change redraws the listed cells and leaves the others alone.
+     */
+    @Test
+    public void testUpdateCellsOnlyChangesListedCells() {
+        game.makeMove(1, 1, "G");
+        game.makeMove(0, 0, "M");
+        gamePanel.updateCells(new BoardChange(1 * game.getGameSize() + 1));
+        assertEquals("1", gamePanel.getButtons()[1][1].getText(), "The changed cell should be redrawn");
+        assertEquals("?", gamePanel.getButtons()[0][0].getText(), "Cells not in the change should not be redrawn");
+    }
+
+    /**
+     * UNIT-051
+     * Test GamePanel canvas renderer
+     * Ensures that the canvas renderer creates no buttons and maps clicks to the right cell.
+     */
+    @Test
+    public void testCanvasRendererClick() {
+        GamePanel canvasPanel = new GamePanel(game, true, controlPanel, true);
+        BoardCanvas canvas = canvasPanel.getCanvas();
+        assertNull(canvasPanel.getButtons(), "The canvas renderer should not create buttons");
+        assertEquals(-1, canvas.cellAt(5 * BoardCanvas.CELL_SIZE, 0), "Points off the board should map to no cell");
+
+        int x = 2 * BoardCanvas.CELL_SIZE + 3; // Column 2
+        int y = 1 * BoardCanvas.CELL_SIZE + 3; // Row 1
+        canvas.dispatchEvent(new MouseEvent(canvas, MouseEvent.MOUSE_PRESSED, 0, 0, x, y, 1, false));
+        assertEquals("M", game.getCellState(1, 2), "Clicking the canvas in flag mode should flag the cell");
+    }
+
+    /**
+     * UNIT-080
+     * Test GamePanel mine odds heat map
+     * Ensures that odds colour the hidden cells only and that the next move removes them.
+     */
+    @Test
+    public void testMineOddsHeatMap() {
+        game.makeMove(1, 1, "G");
+        int cells = game.getGameSize() * game.getGameSize();
+        float[] odds = new float[cells];
+        java.util.Arrays.fill(odds, 1f);
+        odds[game.getGameSize() + 1] = Float.NaN; // The uncovered cell has no odds
+        gamePanel.setMineOdds(odds);
+        assertEquals(GamePanel.heatColour(1f), gamePanel.getButtons()[0][0].getBackground(), "Hidden cells should show their odds");
+        assertEquals(GamePanel.backgroundFor(Board.encode("1")), gamePanel.getButtons()[1][1].getBackground(), "Uncovered cells should keep their colour");
+
+        gamePanel.updateCells(new BoardChange(0));
+        assertNull(gamePanel.getMineOdds(), "A move should remove the heat map");
+        assertEquals(GamePanel.backgroundFor(Board.HIDDEN), gamePanel.getButtons()[0][0].getBackground(), "Hidden cells should lose their odds colour");
+    }
 }
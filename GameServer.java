@@ -0,0 +1,247 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * GameServer
+ * This class hosts many games at once for programs that play over a local TCP connection, such as bots.
+ * Each connection gets its own {@link GameSession} and its own thread, which blocks reading the next
+ * command; the protocol is described in GameSession. The server only listens on the loopback address.
+ *
+ * Threads come from a virtual-thread-per-task executor when the JVM has one (Java 21 and later), so idle
+ * sessions cost almost nothing. On older JVMs each session gets a platform thread with a small stack,
+ * which still allows tens of thousands of idle sessions. Per-connection buffers are kept small for the same reason.
+ *
+ * @version 2.0
+ * @author Paul Carmody
+ */
+public class GameServer implements Closeable {
+    public static final int DEFAULT_PORT = 7377; // Port used when none is given
+    private static final int MAX_LINE = 256; // Longest command line accepted
+    private static final int BUFFER_SIZE = 512; // Bytes buffered per connection in each direction
+    private static final long SESSION_STACK = 256 * 1024; // Stack size of platform session threads
+    private static final long ACCEPT_RETRY_MILLIS = 100; // Pause after a failed accept
+    private static final long CLOSE_WAIT_MILLIS = 5000; // Longest close waits for the acceptor and the sessions
+
+    private Supplier<Minesweeper> games; // Creates the game for each new session
+    private Path saveDir; // Directory holding each session's own save directory
+    private ServerSocket serverSocket; // Listens for new connections
+    private ExecutorService sessions; // Runs one task per connection
+    private boolean virtualThreads; // True if sessions run on virtual threads
+    private Set<Socket> connections = ConcurrentHashMap.newKeySet(); // Open connections, closed when the server stops
+    private Thread acceptor; // Accepts connections until the server stops
+
+    /**
+     * Constructs a server. Nothing is opened until start is called.
+     *
+     * @param games Creates the game for each new session. Called from session threads, so it must be thread-safe.
+     * @param saveDir The directory each session makes its own save directory in. It is created if it does not exist.
+     */
+    public GameServer(Supplier<Minesweeper> games, Path saveDir) {
+        this.games = games;
+        this.saveDir = saveDir;
+    }
+
+    /**
+     * Starts listening on the loopback address.
+     *
+     * @param port The port to listen on, or 0 for any free port.
+     * @throws IOException if the port cannot be opened.
+     */
+    public void start(int port) throws IOException {
+        Files.createDirectories(saveDir);
+        serverSocket = new ServerSocket(port, 1024, InetAddress.getLoopbackAddress());
+        sessions = newSessionExecutor();
+        acceptor = new Thread(this::acceptConnections, "minesweeper-acceptor");
+        acceptor.start();
+    }
+
+    /**
+     * Returns the port the server is listening on.
+     *
+     * @return The port, useful when started on port 0.
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Returns the number of open connections.
+     *
+     * @return The number of sessions.
+     */
+    public int getSessionCount() {
+        return connections.size();
+    }
+
+    /**
+     * Checks whether sessions run on virtual threads.
+     *
+     * @return true on a JVM with virtual threads.
+     */
+    public boolean isUsingVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Stops accepting connections, closes every open session and waits for the server's threads to finish.
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close(); // Ends the accept loop
+        try {
+            acceptor.join(CLOSE_WAIT_MILLIS); // No connection can be added once it has stopped
+            for (Socket socket : connections) {
+                socket.close(); // Ends each session's blocked read
+            }
+            sessions.shutdown();
+            if (!sessions.awaitTermination(CLOSE_WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+                sessions.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            sessions.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Creates the executor sessions run on. Virtual threads are looked up by name so this class still
+     * compiles and runs on JVMs that do not have them.
+     *
+     * @return The executor.
+     */
+    private ExecutorService newSessionExecutor() {
+        try {
+            ExecutorService executor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            virtualThreads = true;
+            return executor;
+        } catch (ReflectiveOperationException e) {
+            virtualThreads = false;
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(null, task, "minesweeper-session", SESSION_STACK);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Accepts connections and hands each one to its own session thread.
+     */
+    private void acceptConnections() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true); // Replies are single short lines
+                connections.add(socket);
+                sessions.execute(() -> serve(socket));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    System.out.println("Error accepting a connection: " + e.getMessage());
+                    pause(); // Such as running out of file handles, which will not clear up straight away
+                }
+            }
+        }
+    }
+
+    /**
+     * Waits briefly before accepting again after a failure.
+     */
+    private static void pause() {
+        try {
+            Thread.sleep(ACCEPT_RETRY_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Runs one session: reads commands and writes replies until the player quits or disconnects.
+     *
+     * @param socket The connection.
+     */
+    private void serve(Socket socket) {
+        try (socket;
+             InputStream in = new BufferedInputStream(socket.getInputStream(), BUFFER_SIZE);
+             OutputStream out = new BufferedOutputStream(socket.getOutputStream(), BUFFER_SIZE)) {
+            GameSession session = new GameSession(games.get(), saveDir);
+            StringBuilder line = new StringBuilder(64);
+            while (!session.isClosed()) {
+                int read = readLine(in, line);
+                if (read < 0) {
+                    break; // The player disconnected
+                }
+                String reply = read > MAX_LINE ? "ERR line too long" : line.length() == 0 ? "ERR empty command" : session.handle(line.toString());
+                out.write(reply.getBytes(StandardCharsets.US_ASCII));
+                out.write('\n');
+                out.flush();
+            }
+        } catch (UncheckedIOException e) {
+            System.out.println("Error starting a session: " + e.getMessage()); // The level could not be read
+        } catch (IOException e) {
+            // The connection was closed, so the session is over
+        } finally {
+            connections.remove(socket);
+        }
+    }
+
+    /**
+     * Reads one line, keeping at most MAX_LINE characters of it.
+     *
+     * @param in The connection's input.
+     * @param line Receives the line, without its line ending.
+     * @return The full length of the line, which may be more than was kept, or -1 at the end of the input.
+     * @throws IOException if the connection fails.
+     */
+    private static int readLine(InputStream in, StringBuilder line) throws IOException {
+        line.setLength(0);
+        int length = 0;
+        int c = in.read();
+        if (c < 0) {
+            return -1;
+        }
+        while (c >= 0 && c != '\n') {
+            if (c != '\r' && length++ < MAX_LINE) {
+                line.append((char) c);
+            }
+            c = in.read();
+        }
+        return length;
+    }
+
+    /**
+     * Runs a server until the process is stopped.
+     *
+     * @param args The port, then optionally a board size and mine count for generated boards
+     *             instead of the default level.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        Supplier<Minesweeper> games = Minesweeper::new;
+        if (args.length > 2) {
+            int size = Integer.parseInt(args[1]);
+            int mines = Integer.parseInt(args[2]);
+            games = () -> new Minesweeper(LevelGenerator.generate(size, mines, System.nanoTime()));
+        }
+        GameServer server = new GameServer(games, Path.of("saves"));
+        server.start(port);
+        System.out.println("Minesweeper server listening on localhost:" + server.getPort()
+                + (server.isUsingVirtualThreads() ? " (virtual threads)" : " (platform threads)"));
+    }
+} // End of GameServer Class
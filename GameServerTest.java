@@ -0,0 +1,141 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The test class GameServerTest.
+ *
+ * @version 2.0
+ */
+public class GameServerTest {
+    private GameServer server;
+
+    /**
+     * Sets up the test fixture.
+     * (Called before every test case method.)
+     */
+    @BeforeEach
+    public void setUp() throws Exception {
+        server = new GameServer(Minesweeper::new, Files.createTempDirectory("server"));
+        server.start(0);
+    }
+
+    /**
+     * Tears down the test fixture.
+     * (Called after every test case method.)
+     */
+    @AfterEach
+    public void tearDown() throws Exception {
+        server.close();
+    }
+
+    /**
+     * A connection to the server, for sending commands and reading replies.
+     */
+    private class Client implements AutoCloseable {
+        private Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+        private PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.US_ASCII);
+        private BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+
+        Client() throws Exception {
+        }
+
+        String send(String command) throws Exception {
+            out.println(command);
+            return in.readLine();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    /**
+     * UNIT-091
+     * Test sessions are isolated
+     * Ensures that each connection plays its own game and that quitting closes the connection.
+     */
+    @Test
+    public void testSessionsAreIsolated() throws Exception {
+        try (Client first = new Client(); Client second = new Client()) {
+            assertEquals("OK continue 3 Phew! You survived this time!", first.send("G 1 1"));
+            assertTrue(first.send("B").startsWith("OK 5 ?????/?1???/"));
+            assertTrue(second.send("B").startsWith("OK 5 ?????/?????/"), "Another session should not see the move");
+            assertEquals("OK continue 2 Oh no! You have lost one life. New life total: 2", first.send("G 0 0"), "Replies should stay on one line");
+            assertTrue(second.send("G 1 1").startsWith("OK continue 3 "), "Another session should keep its own lives");
+            assertEquals("BYE", second.send("Q"));
+            assertNull(second.in.readLine(), "The server should close the connection after Q");
+        }
+    }
+
+    /**
+     * UNIT-092
+     * Test many idle sessions
+     * Ensures that hundreds of connections can be open at once, each answering, and that long lines are refused.
+     */
+    @Test
+    public void testManyIdleSessions() throws Exception {
+        List<Client> clients = new ArrayList<>();
+        try {
+            for (int i = 0; i < 300; i++) {
+                clients.add(new Client());
+            }
+            for (Client client : clients) {
+                assertTrue(client.send("B").startsWith("OK 5 "), "Every session should answer");
+            }
+            assertEquals(300, server.getSessionCount(), "Every connection should have its own session");
+            assertEquals("ERR line too long", clients.get(0).send("G " + "1".repeat(1000)));
+            assertTrue(clients.get(0).send("B").startsWith("OK"), "The session should carry on after a long line");
+        } finally {
+            for (Client client : clients) {
+                client.close();
+            }
+        }
+    }
+
+    /**
+     * UNIT-117
+     * Test saves are kept per session
+     * Ensures that a game saved by one connection cannot be loaded or overwritten by another using the same name.
+     */
+    @Test
+    public void testSavesArePerSession() throws Exception {
+        try (Client first = new Client(); Client second = new Client()) {
+            first.send("G 1 1");
+            assertEquals("OK saved", first.send("S x"));
+            assertEquals("ERR could not load", second.send("L x"), "Another session should not see the save");
+            assertEquals("OK saved", second.send("S x"));
+            assertTrue(first.send("L x").endsWith("loaded"), "The first session's save should be untouched");
+            assertTrue(first.send("B").startsWith("OK 5 ?????/?1???/"));
+        }
+    }
+
+    /**
+     * UNIT-116
+     * Test closing the server
+     * Ensures that closing the server ends every open session and waits for its accepting thread to stop.
+     */
+    @Test
+    public void testCloseStopsThreads() throws Exception {
+        try (Client client = new Client()) {
+            assertTrue(client.send("B").startsWith("OK"));
+            server.close();
+            assertNull(client.in.readLine(), "Closing the server should end the session");
+        }
+        assertTrue(Thread.getAllStackTraces().keySet().stream()
+                .noneMatch(thread -> thread.getName().equals("minesweeper-acceptor")),
+                "The accepting thread should have finished by the time close returns");
+    }
+} // End of GameServerTest Class
@@ -0,0 +1,196 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * GameSession
+ * This class is one player's game on the {@link GameServer}. It answers one command line at a time
+ * with one reply line, following the same menu as the text {@link UI}. Each session owns its game,
+ * so sessions never share state and need no locking; a session is only ever used by its own connection.
+ * Saves are kept in a directory of the session's own, named after a random id, so no other session can
+ * load or overwrite them however it names its saves.
+ *
+ * Commands, with rows and columns counted from 0:
+ *   M row col   flag a mine              G row col   guess a square
+ *   S name      save the game            L name      load a saved game
+ *   U           undo the last move       R           redo the last undone move
+ *   C           clear the game           H           hint a certain move
+ *   B           show the board           Q           quit
+ *
+ * Replies start with OK or ERR. Moves reply "OK status lives message", where status is continue,
+ * won or lives. B replies "OK size" followed by the rows, separated by '/'. Q replies "BYE".
+ *
+ * @version 2.0
+ * @author Paul Carmody
+ */
+public class GameSession {
+    private static final Pattern SAVE_NAME = Pattern.compile("[A-Za-z0-9_-]{1,64}"); // Keeps saves inside the save directory
+
+    private Minesweeper theGame; // This session's own game
+    private Path saveDir; // This session's own directory of saves, created on the first save
+    private Solver solver; // Works out hints, created on the first hint
+    private boolean closed; // True once the player has quit
+
+    /**
+     * Constructs a session.
+     *
+     * @param theGame The game for this session alone.
+     * @param saveRoot The directory every session's save directory is made in.
+     */
+    public GameSession(Minesweeper theGame, Path saveRoot) {
+        this.theGame = theGame;
+        this.saveDir = saveRoot.resolve("session-" + UUID.randomUUID());
+    }
+
+    /**
+     * Carries out one command.
+     *
+     * @param line The command line, without its line ending.
+     * @return The reply line, without a line ending.
+     */
+    public String handle(String line) {
+        String[] parts = line.trim().split("\\s+");
+        String command = parts[0].toUpperCase();
+        switch (command) {
+            case "M":
+            case "G":
+                return move(command, parts);
+            case "S":
+                if (!validName(parts)) {
+                    return "ERR save names are 1-64 letters, digits, '_' or '-'";
+                }
+                try {
+                    Files.createDirectories(saveDir);
+                } catch (IOException e) {
+                    return "ERR could not save";
+                }
+                return FileHandler.saveGame(theGame, saveDir.resolve(parts[1]).toString()) ? "OK saved" : "ERR could not save";
+            case "L":
+                if (!validName(parts)) {
+                    return "ERR save names are 1-64 letters, digits, '_' or '-'";
+                }
+                return FileHandler.loadGame(theGame, saveDir.resolve(parts[1]).toString()) ? status("loaded") : "ERR could not load";
+            case "U":
+                return theGame.undo() ? status("undone") : "ERR no more moves to undo";
+            case "R":
+                return theGame.redo() ? status("redone") : "ERR no more moves to redo";
+            case "C":
+                theGame.reset();
+                return status("cleared");
+            case "H":
+                return hint();
+            case "B":
+                return board();
+            case "Q":
+                closed = true;
+                return "BYE";
+            default:
+                return "ERR unknown command, expected one of M G S L U R C H B Q";
+        }
+    }
+
+    /**
+     * Checks whether the player has quit.
+     *
+     * @return true after a Q command.
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Flags or guesses a cell, recording the move so it can be undone.
+     *
+     * @param command "M" or "G".
+     * @param parts The command and its row and column.
+     * @return The reply.
+     */
+    private String move(String command, String[] parts) {
+        if (parts.length != 3) {
+            return "ERR usage: " + command + " row col";
+        }
+        int row;
+        int col;
+        try {
+            row = Integer.parseInt(parts[1]);
+            col = Integer.parseInt(parts[2]);
+        } catch (NumberFormatException e) {
+            return "ERR row and column must be numbers";
+        }
+        int gameSize = theGame.getGameSize();
+        if (row < 0 || row >= gameSize || col < 0 || col >= gameSize) {
+            return "ERR row and column must be within the board boundaries";
+        }
+        if (!theGame.checkWin().equals("continue")) {
+            return "ERR the game is over, clear it to play again";
+        }
+        theGame.getUndoJournal().beginMove();
+        return status(theGame.makeMove(row, col, command));
+    }
+
+    /**
+     * Suggests a move that follows for certain from the cells already uncovered.
+     *
+     * @return "OK safe row col", "OK mine row col" or "OK none".
+     */
+    private String hint() {
+        if (solver == null) {
+            solver = new Solver(theGame);
+        }
+        int gameSize = theGame.getGameSize();
+        int safe = solver.nextSafeCell();
+        if (safe >= 0) {
+            return "OK safe " + safe / gameSize + " " + safe % gameSize;
+        }
+        Board board = theGame.getCells();
+        for (int index : solver.getMineCells()) {
+            if (board.getPlayer(index) != Board.FLAGGED) {
+                return "OK mine " + index / gameSize + " " + index % gameSize;
+            }
+        }
+        return "OK none";
+    }
+
+    /**
+     * Describes the whole board on one line.
+     *
+     * @return "OK size" followed by each row of states, separated by '/'.
+     */
+    private String board() {
+        Board board = theGame.getCells();
+        int gameSize = board.getSize();
+        StringBuilder reply = new StringBuilder(gameSize * (gameSize + 1) + 16);
+        reply.append("OK ").append(gameSize).append(' ');
+        for (int row = 0; row < gameSize; row++) {
+            if (row > 0) {
+                reply.append('/');
+            }
+            for (int col = 0; col < gameSize; col++) {
+                reply.append(Board.decode(board.getPlayer(row * gameSize + col)));
+            }
+        }
+        return reply.toString();
+    }
+
+    /**
+     * Builds a reply giving the state of the game.
+     *
+     * @param message What happened, which may run over several lines.
+     * @return "OK status lives message", on one line.
+     */
+    private String status(String message) {
+        return "OK " + theGame.checkWin() + " " + theGame.getLives() + " " + message.replaceAll("\\s*\\R\\s*", " ");
+    }
+
+    /**
+     * Checks that a save or load command names a plain file.
+     *
+     * @param parts The command and its name.
+     * @return true if the name is safe to use inside the save directory.
+     */
+    private static boolean validName(String[] parts) {
+        return parts.length == 2 && SAVE_NAME.matcher(parts[1]).matches();
+    }
+} // End of GameSession Class
@@ -0,0 +1,80 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The test class GameSessionTest.
+ *
+ * @version 2.0
+ */
+public class GameSessionTest {
+    private Minesweeper game;
+    private GameSession session;
+    private Path saveDir;
+
+    /**
+     * Sets up the test fixture.
+     * (Called before every test case method.)
+     */
+    @BeforeEach
+    public void setUp() throws Exception {
+        game = new Minesweeper();
+        saveDir = Files.createTempDirectory("sessions");
+        session = new GameSession(game, saveDir);
+    }
+
+    /**
+     * UNIT-088
+     * Test session moves
+     * Ensures that guesses, flags, undo and the board view follow the game.
+     */
+    @Test
+    public void testMovesUndoAndBoard() {
+        assertEquals("OK continue 3 Phew! You survived this time!", session.handle("G 1 1"));
+        assertEquals("1", game.getCellState(1, 1));
+        assertTrue(session.handle("m 0 0").startsWith("OK continue 3"), "Commands should not be case sensitive");
+        assertEquals("M", game.getCellState(0, 0));
+        assertEquals("OK continue 3 undone", session.handle("U"));
+        assertEquals("?", game.getCellState(0, 0), "Undo should take back the flag only");
+        assertTrue(session.handle("B").startsWith("OK 5 ?????/?1???/"), "The board should list every row");
+        assertEquals("OK continue 3 cleared", session.handle("C"));
+        assertEquals("?", game.getCellState(1, 1));
+    }
+
+    /**
+     * UNIT-089
+     * Test session rejects bad commands
+     * Ensures that malformed commands and unsafe save names get an error instead of changing anything.
+     */
+    @Test
+    public void testBadCommands() {
+        assertTrue(session.handle("G 9 9").startsWith("ERR"), "Cells off the board should be rejected");
+        assertTrue(session.handle("G a b").startsWith("ERR"), "Non-numeric cells should be rejected");
+        assertTrue(session.handle("G 1").startsWith("ERR"), "A missing column should be rejected");
+        assertTrue(session.handle("X").startsWith("ERR"), "Unknown commands should be rejected");
+        assertTrue(session.handle("S ../escape").startsWith("ERR"), "Save names must stay inside the save directory");
+        assertTrue(session.handle("L missing").startsWith("ERR"), "Loading a missing save should fail");
+        assertTrue(session.handle("U").startsWith("ERR"), "There should be nothing to undo");
+        assertFalse(session.isClosed());
+        assertEquals("BYE", session.handle("Q"));
+        assertTrue(session.isClosed());
+    }
+
+    /**
+     * UNIT-090
+     * Test session save, load and hint
+     * Ensures that a saved game can be loaded back and that hints name a certain move.
+     */
+    @Test
+    public void testSaveLoadAndHint() {
+        session.handle("G 1 1");
+        assertEquals("OK saved", session.handle("S first"));
+        session.handle("C");
+        assertEquals("OK continue 3 loaded", session.handle("L first"));
+        assertEquals("1", game.getCellState(1, 1), "The loaded game should have the saved move");
+        String hint = session.handle("H");
+        assertTrue(hint.equals("OK none") || hint.startsWith("OK safe ") || hint.startsWith("OK mine "), "Unexpected hint " + hint);
+    }
+} // End of GameSessionTest Class
@@ -0,0 +1,144 @@
+/**
+ * LatencyHistogram
+ * This class counts durations in a fixed number of buckets, so millions of timings can be recorded
+ * without storing them and percentiles can still be read back. Bucket widths grow with the duration:
+ * every duration is counted within one eighth of its true value, from a nanosecond to centuries.
+ *
+ * A histogram is not thread-safe. Each thread records into its own, and they are added together afterwards.
+ * Where threads must share one, {@link AtomicLatencyHistogram} records into the same buckets without locking.
+ *
+ * @version 2.0
+ * @author Paul Carmody
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKETS = 8; // Buckets per doubling of duration
+    private static final int LINEAR = 2 * SUB_BUCKETS; // Durations below this each have their own bucket
+    static final int BUCKETS = LINEAR + (63 - 4) * SUB_BUCKETS; // Enough for any non-negative long
+
+    private long[] counts = new long[BUCKETS]; // Number of durations in each bucket
+    private long count; // Number of durations recorded
+    private long total; // Sum of the durations recorded
+    private long max; // Longest duration recorded
+
+    /**
+     * Records one duration.
+     *
+     * @param nanos The duration in nanoseconds. Negative durations are counted as 0.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts[bucketOf(value)]++;
+        count++;
+        total += value;
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Adds every duration recorded by another histogram to this one.
+     *
+     * @param other The histogram to add.
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        total += other.total;
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Adds counts taken from another set of buckets, such as a snapshot of an {@link AtomicLatencyHistogram}.
+     *
+     * @param bucketCounts The number of durations in each bucket.
+     * @param sum The sum of those durations.
+     * @param longest The longest of them.
+     */
+    void add(long[] bucketCounts, long sum, long longest) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += bucketCounts[i];
+            count += bucketCounts[i];
+        }
+        total += sum;
+        max = Math.max(max, longest);
+    }
+
+    /**
+     * Returns the number of durations recorded.
+     *
+     * @return The count.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the mean duration.
+     *
+     * @return The mean in nanoseconds, or 0 if nothing was recorded.
+     */
+    public double getMean() {
+        return count == 0 ? 0 : (double) total / count;
+    }
+
+    /**
+     * Returns the longest duration recorded.
+     *
+     * @return The maximum in nanoseconds.
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Returns the duration that the given percentage of durations did not exceed.
+     *
+     * @param percent The percentile, from 0 to 100.
+     * @return The top of the bucket holding that percentile, in nanoseconds, or 0 if nothing was recorded.
+     */
+    public long getPercentile(double percent) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percent / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(max, upperBound(i));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Finds the bucket a duration is counted in.
+     *
+     * @param value The duration, not negative.
+     * @return The bucket index.
+     */
+    static int bucketOf(long value) {
+        if (value < LINEAR) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value); // At least 4
+        int sub = (int) (value >>> (exponent - 3)) & (SUB_BUCKETS - 1);
+        return LINEAR + (exponent - 4) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Returns the longest duration counted in a bucket.
+     *
+     * @param bucket The bucket index.
+     * @return The top of the bucket in nanoseconds.
+     */
+    static long upperBound(int bucket) {
+        if (bucket < LINEAR) {
+            return bucket;
+        }
+        int exponent = (bucket - LINEAR) / SUB_BUCKETS + 4;
+        int sub = (bucket - LINEAR) % SUB_BUCKETS;
+        long lower = (long) (SUB_BUCKETS + sub) << (exponent - 3);
+        return lower + (1L << (exponent - 3)) - 1;
+    }
+} // End of LatencyHistogram Class
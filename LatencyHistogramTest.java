@@ -0,0 +1,56 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The test class LatencyHistogramTest.
+ *
+ * @version 2.0
+ */
+public class LatencyHistogramTest {
+
+    /**
+     * UNIT-084
+     * Test histogram percentiles
+     * Ensures that percentiles are within an eighth of the true value and that the mean and maximum are exact.
+     */
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long nanos = 1; nanos <= 100_000; nanos++) {
+            histogram.record(nanos);
+        }
+        assertEquals(100_000, histogram.getCount());
+        assertEquals(50_000.5, histogram.getMean(), 1e-9);
+        assertEquals(100_000, histogram.getMax());
+        for (double percent : new double[] {50, 90, 99, 99.9}) {
+            long exact = (long) (percent * 1000);
+            long estimate = histogram.getPercentile(percent);
+            assertTrue(estimate >= exact && estimate <= exact * 1.125,
+                    "p" + percent + " was " + estimate + " but should be near " + exact);
+        }
+        assertEquals(100_000, histogram.getPercentile(100), "The top percentile should be the maximum");
+    }
+
+    /**
+     * UNIT-085
+     * Test histogram buckets and merging
+     * Ensures that every duration falls inside its bucket and that adding histograms adds their counts.
+     */
+    @Test
+    public void testBucketsAndAdd() {
+        for (long value : new long[] {0, 1, 15, 16, 17, 1000, 123_456_789L, Long.MAX_VALUE}) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            assertTrue(value <= LatencyHistogram.upperBound(bucket), value + " should not be above its bucket");
+            assertTrue(bucket == 0 || value > LatencyHistogram.upperBound(bucket - 1), value + " should be above the bucket before");
+        }
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        first.record(10);
+        second.record(1_000_000);
+        second.record(-5); // Counted as 0
+        first.add(second);
+        assertEquals(3, first.getCount());
+        assertEquals(1_000_000, first.getMax());
+        assertEquals(0, first.getPercentile(1));
+    }
+} // End of LatencyHistogramTest Class
@@ -0,0 +1,100 @@
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * LevelGenerator
+ * This class generates random levels of any size, as an alternative to hand-made level files.
+ * The same size, mine count and seed always produce the same board.
+ *
+ * Mines are placed one at a time from a seeded random sequence. The neighbour counts are then
+ * worked out row by row in parallel: each row only writes its own cells and only reads which
+ * neighbouring cells are mines, which no longer changes once the mines are placed.
+ *
+ * @version 2.0
+ * @author Paul Carmody
+ */
+public class LevelGenerator {
+    private static final int PARALLEL_CELLS = 1 << 16; // Smallest board whose counts are worked out in parallel
+
+    /**
+     * Generates a level. Boards are square, like those read from level files.
+     *
+     * @param size  The width and height of the board.
+     * @param mines The number of mines to place.
+     * @param seed  The seed for placing the mines.
+     * @return The board with its solution filled in and every player cell hidden.
+     * @throws IllegalArgumentException if the size is not positive or there are more mines than cells.
+     */
+    public static Board generate(int size, int mines, long seed) {
+        if (size <= 0 || size > 46340) { // 46340 * 46340 is the largest board that fits in an int index
+            throw new IllegalArgumentException("Invalid board size: " + size);
+        }
+        int cells = size * size;
+        if (mines < 0 || mines > cells) {
+            throw new IllegalArgumentException("Cannot place " + mines + " mines on " + cells + " cells");
+        }
+        Board board = new Board(size);
+        placeMines(board, cells, mines, new SplittableRandom(seed));
+        IntStream rows = IntStream.range(0, size);
+        if (cells >= PARALLEL_CELLS) {
+            rows = rows.parallel(); // Small boards are quicker to count on one thread than to split up
+        }
+        rows.forEach(row -> countRow(board, size, row));
+        board.recount(); // Start the win counters from the completed solution
+        return board;
+    }
+
+    /**
+     * Places exactly the requested number of mines. When more than half the board is mined it is
+     * quicker to mine everything and pick the safe cells instead, so random picks rarely collide.
+     *
+     * @param board  The board to place mines on.
+     * @param cells  The number of cells on the board.
+     * @param mines  The number of mines to place.
+     * @param random The seeded random sequence.
+     */
+    private static void placeMines(Board board, int cells, int mines, SplittableRandom random) {
+        boolean invert = mines > cells / 2;
+        byte mark = invert ? 0 : Board.MINE;
+        if (invert) {
+            for (int i = 0; i < cells; i++) {
+                board.setSolution(i, Board.MINE);
+            }
+        }
+        int picks = invert ? cells - mines : mines;
+        while (picks > 0) {
+            int index = random.nextInt(cells);
+            if (board.getSolution(index) != mark) {
+                board.setSolution(index, mark);
+                picks--;
+            }
+        }
+    }
+
+    /**
+     * Fills in the number of neighbouring mines for every safe cell in one row.
+     *
+     * @param board The board with its mines placed.
+     * @param size  The width and height of the board.
+     * @param row   The row to fill in.
+     */
+    private static void countRow(Board board, int size, int row) {
+        int top = Math.max(0, row - 1);
+        int bottom = Math.min(size - 1, row + 1);
+        for (int col = 0; col < size; col++) {
+            int index = row * size + col;
+            if (board.isMine(index)) {
+                continue;
+            }
+            int count = 0;
+            for (int r = top; r <= bottom; r++) {
+                for (int c = Math.max(0, col - 1); c <= Math.min(size - 1, col + 1); c++) {
+                    if (board.isMine(r * size + c)) {
+                        count++;
+                    }
+                }
+            }
+            board.setSolution(index, (byte) count);
+        }
+    }
+} // End of LevelGenerator Class
@@ -0,0 +1,69 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The test class LevelGeneratorTest.
+ *
+ * @version 2.0
+ */
+public class LevelGeneratorTest {
+
+    /**
+     * UNIT-064
+     * Test generated level is repeatable
+     * Ensures that the same seed always gives the same board and a different seed a different one.
+     */
+    @Test
+    public void testSameSeedSameBoard() {
+        Board first = LevelGenerator.generate(60, 500, 42L);
+        Board second = LevelGenerator.generate(60, 500, 42L);
+        Board other = LevelGenerator.generate(60, 500, 43L);
+        boolean differs = false;
+        for (int i = 0; i < first.getCellCount(); i++) {
+            assertEquals(first.getSolution(i), second.getSolution(i), "The same seed should give the same cell " + i);
+            differs |= first.getSolution(i) != other.getSolution(i);
+        }
+        assertTrue(differs, "A different seed should give a different board");
+    }
+
+    /**
+     * UNIT-065
+     * Test generated level contents
+     * Ensures that the board has exactly the requested mines and that every number counts its neighbours.
+     */
+    @Test
+    public void testMinesAndNumbers() {
+        int size = 40;
+        Board board = LevelGenerator.generate(size, 1200, 7L); // Most of the board, to cover the inverted placement
+        assertEquals(1200, board.getMineCount(), "Exactly the requested number of mines should be placed");
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                int index = board.index(row, col);
+                if (board.isMine(index)) {
+                    continue;
+                }
+                int count = 0;
+                for (int r = Math.max(0, row - 1); r <= Math.min(size - 1, row + 1); r++) {
+                    for (int c = Math.max(0, col - 1); c <= Math.min(size - 1, col + 1); c++) {
+                        count += board.isMine(board.index(r, c)) ? 1 : 0;
+                    }
+                }
+                assertEquals(count, board.getSolution(index), "Cell " + row + " " + col + " should count its mines");
+            }
+        }
+    }
+
+    /**
+     * UNIT-066
+     * Test playing a generated level
+     * Ensures that a Minesweeper game can be played on a generated board.
+     */
+    @Test
+    public void testPlayGeneratedLevel() {
+        Minesweeper game = new Minesweeper(LevelGenerator.generate(20, 0, 1L));
+        assertEquals(20, game.getGameSize(), "The game should take the generated size");
+        game.makeMove(0, 0, "G");
+        assertEquals("won", game.checkWin(), "Revealing a board without mines should win at once");
+        assertThrows(IllegalArgumentException.class, () -> LevelGenerator.generate(5, 26, 1L), "Too many mines should be rejected");
+    }
+}
@@ -0,0 +1,242 @@
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * LevelReader
+ * This class reads level files into a {@link Board}. A level file holds the board size on its first line,
+ * then one "row col state" line per cell, for example "2 4 M".
+ *
+ * The file is tokenised straight from a byte buffer: numbers are built digit by digit and states are
+ * encoded from their single character, so no String is created per token. Extra spaces, tabs, carriage
+ * returns and blank lines are ignored. Gzip-compressed level files are detected and read transparently.
+ *
+ * @version 2.0
+ * @author Paul Carmody
+ */
+public class LevelReader {
+    private static final int BUFFER_SIZE = 1 << 16; // Bytes read from the file at a time
+
+    private InputStream in; // The (possibly decompressed) level file
+    private String name; // The level file's name, used in error messages
+    private byte[] buffer = new byte[BUFFER_SIZE]; // Bytes read but not yet tokenised
+    private int position; // Next byte to tokenise
+    private int limit; // Number of valid bytes in the buffer
+    private int line = 1; // Line number of the next byte, for error messages
+
+    /**
+     * Constructs a reader over an already opened level file.
+     *
+     * @param in The stream of the level file.
+     * @param name The level file's name, used in error messages.
+     */
+    public LevelReader(InputStream in, String name) {
+        this.in = in;
+        this.name = name;
+    }
+
+    /**
+     * Reads a level file, decompressing it first if it is gzip-compressed.
+     *
+     * @param path The path of the level file.
+     * @return The board with its solution filled in and every player cell hidden.
+     * @throws IOException if the file cannot be read or is not a valid level.
+     */
+    public static Board read(String path) throws IOException {
+        FlightEvents.LevelParse flight = new FlightEvents.LevelParse();
+        flight.begin();
+        try (InputStream file = new BufferedInputStream(new FileInputStream(path), BUFFER_SIZE)) {
+            file.mark(2);
+            int first = file.read();
+            int second = file.read();
+            file.reset();
+            InputStream in = file;
+            if (first == 0x1f && second == 0x8b) { // The gzip magic number
+                in = new GZIPInputStream(file, BUFFER_SIZE);
+            }
+            Board board = new LevelReader(in, path).read();
+            if (flight.shouldCommit()) {
+                flight.file = path;
+                flight.bytes = new File(path).length();
+                flight.size = board.getSize();
+                flight.commit();
+            }
+            return board;
+        }
+    }
+
+    /**
+     * Reads the whole level from the stream.
+     *
+     * @return The board with its solution filled in and every player cell hidden.
+     * @throws IOException if the stream cannot be read or is not a valid level.
+     */
+    public Board read() throws IOException {
+        if (!skipBlankLines()) {
+            throw error("the file is empty");
+        }
+        int size = readNumber("the board size");
+        endOfLine();
+        if (size <= 0 || size > 46340) { // 46340 * 46340 is the largest board that fits in an int index
+            throw error("invalid board size " + size);
+        }
+
+        Board board = new Board(size);
+        while (skipBlankLines()) {
+            int row = readNumber("a row");
+            int col = readNumber("a column");
+            byte state = readState();
+            if (row >= size || col >= size) {
+                throw error("cell " + row + " " + col + " is outside the " + size + "x" + size + " board");
+            }
+            endOfLine();
+            board.setSolution(row * size + col, state);
+        }
+        board.recount(); // Start the win counters from the completed solution
+        return board;
+    }
+
+    /**
+     * Returns the next byte without consuming it.
+     *
+     * @return The next byte, or -1 at the end of the file.
+     * @throws IOException if the stream cannot be read.
+     */
+    private int peek() throws IOException {
+        if (position == limit) {
+            limit = in.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position] & 0xff;
+    }
+
+    /**
+     * Skips spaces, tabs and carriage returns on the current line.
+     *
+     * @throws IOException if the stream cannot be read.
+     */
+    private void skipSpaces() throws IOException {
+        int c = peek();
+        while (c == ' ' || c == '\t' || c == '\r') {
+            position++;
+            c = peek();
+        }
+    }
+
+    /**
+     * Skips whitespace, including whole blank lines.
+     *
+     * @return true if there is more to read, false at the end of the file.
+     * @throws IOException if the stream cannot be read.
+     */
+    private boolean skipBlankLines() throws IOException {
+        while (true) {
+            skipSpaces();
+            int c = peek();
+            if (c != '\n') {
+                return c != -1;
+            }
+            position++;
+            line++;
+        }
+    }
+
+    /**
+     * Reads a non-negative whole number on the current line.
+     *
+     * @param what What the number is, used in error messages.
+     * @return The number.
+     * @throws IOException if the stream cannot be read or there is no number.
+     */
+    private int readNumber(String what) throws IOException {
+        skipSpaces();
+        int c = peek();
+        if (c < '0' || c > '9') {
+            throw error("expected " + what + " but found " + describe(c));
+        }
+        long value = 0;
+        while (c >= '0' && c <= '9') {
+            value = value * 10 + (c - '0');
+            if (value > Integer.MAX_VALUE) {
+                throw error(what + " is too large");
+            }
+            position++;
+            c = peek();
+        }
+        if (c != -1 && c != ' ' && c != '\t' && c != '\r' && c != '\n') {
+            throw error("expected " + what + " but found " + describe(c));
+        }
+        return (int) value;
+    }
+
+    /**
+     * Reads a single-character cell state on the current line.
+     *
+     * @return The encoded state.
+     * @throws IOException if the stream cannot be read, the state is not a single character or it is '?'.
+     */
+    private byte readState() throws IOException {
+        skipSpaces();
+        int c = peek();
+        if (c <= ' ' || c >= 128) {
+            throw error("expected a cell state but found " + describe(c));
+        }
+        if (c == '?') {
+            throw error("'?' is only for cells the player has not uncovered, not a solution state");
+        }
+        position++;
+        int after = peek();
+        if (after != -1 && after != ' ' && after != '\t' && after != '\r' && after != '\n') {
+            throw error("a cell state must be a single character");
+        }
+        return Board.encode((char) c);
+    }
+
+    /**
+     * Checks that nothing but whitespace is left on the current line, and moves to the next line.
+     *
+     * @throws IOException if the stream cannot be read or the line has extra tokens.
+     */
+    private void endOfLine() throws IOException {
+        skipSpaces();
+        int c = peek();
+        if (c == '\n') {
+            position++;
+            line++;
+        } else if (c != -1) {
+            throw error("unexpected " + describe(c) + " at the end of the line");
+        }
+    }
+
+    /**
+     * Describes a byte for an error message.
+     *
+     * @param c The byte, or -1 for the end of the file.
+     * @return A readable description.
+     */
+    private static String describe(int c) {
+        if (c == -1) {
+            return "the end of the file";
+        } else if (c == '\n') {
+            return "the end of the line";
+        }
+        return "'" + (char) c + "'";
+    }
+
+    /**
+     * Creates an error naming the file and the current line.
+     *
+     * @param message What is wrong.
+     * @return The exception to throw.
+     */
+    private IOException error(String message) {
+        return new IOException(name + " line " + line + ": " + message);
+    }
+} // End of LevelReader Class
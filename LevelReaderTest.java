@@ -0,0 +1,80 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The test class LevelReaderTest.
+ *
+ * @version 2.0
+ */
+public class LevelReaderTest {
+
+    /**
+     * Writes a level to a temporary file.
+     *
+     * @param text The contents of the level.
+     * @param gzip true to compress the file.
+     * @return The path of the file.
+     */
+    private Path writeLevel(String text, boolean gzip) throws IOException {
+        Path path = Files.createTempFile("level", gzip ? ".txt.gz" : ".txt");
+        path.toFile().deleteOnExit();
+        try (OutputStream out = gzip ? new GZIPOutputStream(Files.newOutputStream(path)) : Files.newOutputStream(path)) {
+            out.write(text.getBytes(StandardCharsets.US_ASCII));
+        }
+        return path;
+    }
+
+    /**
+     * UNIT-061
+     * Test reading the bundled level
+     * Ensures that em1.txt, including its stray trailing spaces, is read correctly.
+     */
+    @Test
+    public void testReadBundledLevel() throws IOException {
+        Board board = LevelReader.read("Levels/em1.txt");
+        assertEquals(5, board.getSize(), "The level should be 5x5");
+        assertTrue(board.isMine(0), "There should be a mine at (0, 0)");
+        assertEquals(0, board.getSolution(board.index(2, 2)), "The '0 ' with a trailing space should be read");
+        assertEquals(Board.EMPTY, board.getSolution(board.index(4, 4)), "The last line has no newline");
+        assertEquals(4, board.getMineCount(), "The level has four mines");
+    }
+
+    /**
+     * UNIT-062
+     * Test reading a gzip-compressed level
+     * Ensures that compressed levels are detected and read transparently.
+     */
+    @Test
+    public void testReadGzipLevel() throws IOException {
+        Path path = writeLevel("2\r\n0 0 M\r\n0 1 1\r\n\r\n1 0 1\n1 1 1\n", true);
+        Board board = LevelReader.read(path.toString());
+        assertTrue(board.isMine(0), "The mine should be read from the compressed file");
+        assertEquals(1, board.getSolution(3), "The last cell should be read");
+    }
+
+    /**
+     * UNIT-063
+     * Test malformed level line
+     * Ensures that a malformed line, including one giving a cell the hidden state, is reported with its line number.
+     */
+    @Test
+    public void testMalformedLineReportsLineNumber() throws IOException {
+        Path path = writeLevel("2\n0 0 M\n0 x 1\n", false);
+        IOException e = assertThrows(IOException.class, () -> LevelReader.read(path.toString()));
+        assertTrue(e.getMessage().contains("line 3"), "The error should name line 3: " + e.getMessage());
+
+        Path outside = writeLevel("2\n0 2 M\n", false);
+        e = assertThrows(IOException.class, () -> LevelReader.read(outside.toString()));
+        assertTrue(e.getMessage().contains("line 2"), "The error should name line 2: " + e.getMessage());
+
+        Path hidden = writeLevel("2\n0 0 M\n1 1 ?\n", false);
+        e = assertThrows(IOException.class, () -> LevelReader.read(hidden.toString()));
+        assertTrue(e.getMessage().contains("line 3"), "A hidden solution cell should be refused: " + e.getMessage());
+    }
+}
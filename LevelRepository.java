@@ -0,0 +1,135 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LevelRepository
+ * This class parses each level file once and shares the result between games. Parsed levels are
+ * kept as {@link LevelTemplate}s in a least-recently-used cache keyed by the file's path and its
+ * last-modified time, so editing a level file is picked up the next time it is loaded.
+ * The cache is bounded by the total number of cells it holds rather than by the number of levels;
+ * a template keeps only its solution, one byte per cell, so the bound is also the cache's size in bytes.
+ *
+ * @version 2.0
+ * @author Paul Carmody
+ */
+public class LevelRepository {
+    public static final long DEFAULT_MAX_CELLS = 64L * 1024 * 1024; // 64MB of cached solutions, at one byte per cell
+
+    private static final LevelRepository shared = new LevelRepository(DEFAULT_MAX_CELLS);
+
+    private LinkedHashMap<Path, CachedLevel> cache = new LinkedHashMap<>(16, 0.75f, true); // In access order, eldest first
+    private long maxCells; // Most cells kept in the cache
+    private long cachedCells; // Cells currently in the cache
+    private long hits; // Loads answered from the cache
+    private long misses; // Loads that had to parse the file
+
+    /**
+     * A parsed level together with the modification time of the file it came from.
+     */
+    private static class CachedLevel {
+        private final long modified; // Last-modified time of the file when it was parsed
+        private final LevelTemplate template; // The parsed level
+
+        CachedLevel(long modified, LevelTemplate template) {
+            this.modified = modified;
+            this.template = template;
+        }
+    }
+
+    /**
+     * Constructs an empty repository.
+     *
+     * @param maxCells The most cells to keep cached. The most recent level is always kept, even if larger.
+     */
+    public LevelRepository(long maxCells) {
+        this.maxCells = maxCells;
+    }
+
+    /**
+     * Returns the repository shared by every game in this program.
+     *
+     * @return The shared repository.
+     */
+    public static LevelRepository getShared() {
+        return shared;
+    }
+
+    /**
+     * Loads a level, parsing the file only if it is not cached or has changed since it was cached.
+     *
+     * @param level The path of the level file.
+     * @return The parsed level.
+     * @throws IOException if the file cannot be read or is not a valid level.
+     */
+    public synchronized LevelTemplate load(String level) throws IOException {
+        Path path = Paths.get(level).toAbsolutePath().normalize();
+        long modified = Files.getLastModifiedTime(path).toMillis();
+        CachedLevel cached = cache.get(path);
+        if (cached != null && cached.modified == modified) {
+            hits++;
+            return cached.template;
+        }
+        misses++;
+        LevelTemplate template = new LevelTemplate(LevelReader.read(level));
+        if (cached != null) {
+            cachedCells -= cached.template.getCellCount(); // The file has changed, so the old copy is stale
+        }
+        cache.put(path, new CachedLevel(modified, template));
+        cachedCells += template.getCellCount();
+        evict();
+        return template;
+    }
+
+    /**
+     * Drops the least recently used levels until the cache is within its limit.
+     */
+    private void evict() {
+        Iterator<Map.Entry<Path, CachedLevel>> eldest = cache.entrySet().iterator();
+        while (cachedCells > maxCells && cache.size() > 1) {
+            cachedCells -= eldest.next().getValue().template.getCellCount();
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Returns the number of loads answered from the cache.
+     *
+     * @return The number of cache hits.
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of loads that had to parse the level file.
+     *
+     * @return The number of cache misses.
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns the number of levels currently cached.
+     *
+     * @return The number of cached levels.
+     */
+    public synchronized int size() {
+        return cache.size();
+    }
+
+    /**
+     * Empties the cache and resets the hit and miss counters.
+     */
+    public synchronized void clear() {
+        cache.clear();
+        cachedCells = 0;
+        hits = 0;
+        misses = 0;
+    }
+} // End of LevelRepository Class
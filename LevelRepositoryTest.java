@@ -0,0 +1,91 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+/**
+ * The test class LevelRepositoryTest.
+ *
+ * @version 2.0
+ */
+public class LevelRepositoryTest {
+    private LevelRepository repository;
+
+    /**
+     * Sets up the test fixture.
+     * (Called before every test case method.)
+     */
+    @BeforeEach
+    public void setUp() {
+        repository = new LevelRepository(LevelRepository.DEFAULT_MAX_CELLS);
+    }
+
+    /**
+     * UNIT-067
+     * Test repository cache hits
+     * Ensures that a level is parsed once and that games built from it do not share a player's view.
+     */
+    @Test
+    public void testCacheHits() throws IOException {
+        LevelTemplate first = repository.load("Levels/em1.txt");
+        LevelTemplate second = repository.load("Levels/em1.txt");
+        assertSame(first, second, "The second load should return the cached level");
+        assertEquals(1, repository.getMisses(), "The level should be parsed once");
+        assertEquals(1, repository.getHits(), "The second load should be a hit");
+
+        Minesweeper one = new Minesweeper(first.newBoard());
+        Minesweeper two = new Minesweeper(first.newBoard());
+        one.makeMove(1, 1, "G");
+        assertEquals("?", two.getCellState(1, 1), "Games sharing a level should keep separate player views");
+        assertThrows(IllegalStateException.class, () -> one.getCells().setSolution(0, Board.EMPTY), "The shared solution should not change");
+    }
+
+    /**
+     * UNIT-068
+     * Test repository reloads changed files
+     * Ensures that a level is parsed again once its file has been modified.
+     */
+    @Test
+    public void testChangedFileIsReloaded() throws IOException {
+        Path path = Files.createTempFile("level", ".txt");
+        path.toFile().deleteOnExit();
+        Files.writeString(path, "1\n0 0 M\n");
+        assertTrue(repository.load(path.toString()).newBoard().isMine(0), "The first version has a mine");
+
+        Files.writeString(path, "1\n0 0 -\n");
+        Files.setLastModifiedTime(path, FileTime.fromMillis(Files.getLastModifiedTime(path).toMillis() + 5000));
+        assertFalse(repository.load(path.toString()).newBoard().isMine(0), "The edited version should be parsed again");
+        assertEquals(2, repository.getMisses(), "Both versions should have been parsed");
+        assertEquals(1, repository.size(), "The stale version should have been replaced");
+    }
+
+    /**
+     * UNIT-069
+     * Test repository eviction
+     * Ensures that the least recently used level is dropped once the cache is over its cell limit.
+     */
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() throws IOException {
+        repository = new LevelRepository(30); // Room for the 5x5 level and one 2x2 level
+        Path small = Files.createTempFile("level", ".txt");
+        Path other = Files.createTempFile("level", ".txt");
+        small.toFile().deleteOnExit();
+        other.toFile().deleteOnExit();
+        Files.writeString(small, "2\n0 0 M\n0 1 1\n1 0 1\n1 1 1\n");
+        Files.writeString(other, "2\n0 0 1\n0 1 M\n1 0 1\n1 1 1\n");
+
+        repository.load("Levels/em1.txt");
+        repository.load(small.toString());
+        repository.load("Levels/em1.txt"); // The small level is now the least recently used
+        repository.load(other.toString());
+        assertEquals(2, repository.size(), "One level should have been evicted");
+
+        repository.load("Levels/em1.txt");
+        assertEquals(3, repository.getMisses(), "The recently used level should still be cached");
+        repository.load(small.toString());
+        assertEquals(4, repository.getMisses(), "The least recently used level should have been evicted");
+    }
+}
@@ -0,0 +1,55 @@
+/**
+ * LevelTemplate
+ * This class holds a parsed level that can be shared by any number of games. Only the solution is
+ * kept, one byte per cell, so a cached level costs no more than its cells. The solution is never
+ * handed out directly; each game gets its own {@link Board} that shares it and only allocates a
+ * fresh player's view.
+ *
+ * @version 2.0
+ * @author Paul Carmody
+ */
+public class LevelTemplate {
+    private final byte[] solution; // The level's answer for every cell, never changed after construction
+    private final int safeCells; // The number of cells in the solution that are not mines
+
+    /**
+     * Constructs a template from a parsed board, copying its solution so later changes to the board
+     * never reach the games sharing this level.
+     *
+     * @param parsed The board holding the level's solution.
+     */
+    LevelTemplate(Board parsed) {
+        solution = new byte[parsed.getCellCount()];
+        for (int i = 0; i < solution.length; i++) {
+            solution[i] = parsed.getSolution(i);
+        }
+        safeCells = parsed.getSafeCells();
+    }
+
+    /**
+     * Creates a board for a new game of this level, with every player cell hidden.
+     *
+     * @return A new board sharing this level's solution.
+     */
+    public Board newBoard() {
+        return new Board(solution, safeCells);
+    }
+
+    /**
+     * Provides access to the level's board size.
+     *
+     * @return The width and height of the board.
+     */
+    public int getSize() {
+        return (int) Math.sqrt(solution.length);
+    }
+
+    /**
+     * Returns the number of cells in the level, which is also the number of bytes it holds.
+     *
+     * @return The number of cells.
+     */
+    public int getCellCount() {
+        return solution.length;
+    }
+} // End of LevelTemplate Class
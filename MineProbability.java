@@ -0,0 +1,445 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * MineProbability
+ * This class estimates, for every hidden cell, how likely it is to be a mine, given the numbers the player
+ * can see and the number of mines left. It is meant for the cells the {@link Solver} cannot decide.
+ *
+ * Mine layouts that agree with every uncovered number are sampled with one random walk per worker: a walk
+ * starts from any layout with the right number of mines, moves mines until every number agrees, and from
+ * then on only makes moves that keep every number agreeing. How often a cell holds a mine over the walk is
+ * its estimated probability. Each walk has its own random sequence, split from a single seed, and its own
+ * counters, so the workers never write to shared data and run side by side on the fork-join pool.
+ *
+ * The board is copied when the estimator is constructed, so the game may carry on while it runs.
+ *
+ * @version 2.0
+ * @author Paul Carmody
+ */
+public class MineProbability {
+    private static final int ROUND_STEPS = 1 << 16; // Fewest steps each walk takes between partial results
+    private static final double TEMPERATURE = 0.5; // How readily a walk accepts a worse layout before it first agrees
+
+    /**
+     * Receives estimates while sampling is still running.
+     */
+    public interface Listener {
+        /**
+         * Called after every round of sampling with the estimate so far.
+         *
+         * @param probabilities The estimate, in the same form as the result of estimate.
+         * @param samples The number of layouts sampled so far.
+         */
+        void partial(float[] probabilities, long samples);
+    }
+
+    private int cellCount; // Cells on the board
+    private int[] unknown; // Board index of each hidden or flagged cell
+    private int mines; // Mines among the unknown cells
+    private int[] cellStart; // Offset into cellConstraints of each unknown cell's constraints
+    private int[] cellConstraints; // Constraints each unknown cell takes part in
+    private int[] constraintStart; // Offset into constraintCells of each constraint's cells
+    private int[] constraintCells; // Unknown cells (positions in unknown) next to each constraint
+    private int[] target; // Mines each constraint needs among its unknown cells
+    private Walk[] walks; // One random walk per worker
+    private int roundSteps; // Steps each walk takes between partial results, more on larger boards
+    private long samples; // Layouts sampled by the last estimate
+    private volatile boolean cancelled; // Set to stop an estimate early
+
+    /**
+     * Constructs an estimator for the board as the player currently sees it, using every core.
+     *
+     * @param board The board to estimate.
+     * @param seed The seed for the random walks.
+     */
+    public MineProbability(Board board, long seed) {
+        this(board, seed, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs an estimator for the board as the player currently sees it.
+     *
+     * @param board The board to estimate.
+     * @param seed The seed for the random walks.
+     * @param workers The number of random walks to run side by side.
+     */
+    public MineProbability(Board board, long seed, int workers) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("At least one worker is needed");
+        }
+        cellCount = board.getCellCount();
+        int size = board.getSize();
+        int[] position = new int[cellCount]; // Position of each cell in unknown, or -1
+        Arrays.fill(position, -1);
+        int unknowns = 0;
+        for (int cell = 0; cell < cellCount; cell++) {
+            byte code = board.getPlayer(cell);
+            if (code == Board.HIDDEN || code == Board.FLAGGED) {
+                position[cell] = unknowns++;
+            }
+        }
+        unknown = new int[unknowns];
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (position[cell] >= 0) {
+                unknown[position[cell]] = cell;
+            }
+        }
+        mines = Math.max(0, Math.min(unknowns, board.getMineCount() - board.getMinesRevealed()));
+        buildConstraints(board, size, position);
+
+        roundSteps = Math.max(ROUND_STEPS, unknowns * 4); // Keeps combining the walks a small part of each round
+        SplittableRandom random = new SplittableRandom(seed);
+        walks = new Walk[workers];
+        for (int i = 0; i < workers; i++) {
+            walks[i] = new Walk(random.split());
+        }
+    }
+
+    /**
+     * Turns every uncovered number next to an unknown cell into a constraint, and indexes them both ways.
+     *
+     * @param board The board to estimate.
+     * @param size The width and height of the board.
+     * @param position The position of each cell in unknown, or -1.
+     */
+    private void buildConstraints(Board board, int size, int[] position) {
+        int[] starts = new int[16];
+        int[] cells = new int[64];
+        int[] targets = new int[16];
+        int constraints = 0;
+        int used = 0;
+        for (int cell = 0; cell < cellCount; cell++) {
+            byte code = board.getPlayer(cell);
+            if (!Board.isNumber(code) && code != Board.EMPTY) {
+                continue;
+            }
+            int row = cell / size;
+            int col = cell % size;
+            int needed = code == Board.EMPTY ? 0 : code;
+            int first = used;
+            for (int r = Math.max(0, row - 1); r <= Math.min(size - 1, row + 1); r++) {
+                for (int c = Math.max(0, col - 1); c <= Math.min(size - 1, col + 1); c++) {
+                    int next = r * size + c;
+                    if (board.getPlayer(next) == Board.MINE) {
+                        needed--;
+                    } else if (position[next] >= 0) {
+                        if (used == cells.length) {
+                            cells = Arrays.copyOf(cells, used * 2);
+                        }
+                        cells[used++] = position[next];
+                    }
+                }
+            }
+            if (used == first) {
+                continue; // Touches nothing unknown, so it constrains nothing
+            }
+            if (constraints + 1 >= starts.length) {
+                starts = Arrays.copyOf(starts, starts.length * 2);
+                targets = Arrays.copyOf(targets, targets.length * 2);
+            }
+            starts[constraints] = first;
+            targets[constraints] = needed;
+            constraints++;
+        }
+        starts[constraints] = used;
+        constraintStart = Arrays.copyOf(starts, constraints + 1);
+        constraintCells = Arrays.copyOf(cells, used);
+        target = Arrays.copyOf(targets, constraints);
+
+        // The reverse index: which constraints each unknown cell takes part in
+        cellStart = new int[unknown.length + 1];
+        for (int i = 0; i < used; i++) {
+            cellStart[constraintCells[i] + 1]++;
+        }
+        for (int u = 0; u < unknown.length; u++) {
+            cellStart[u + 1] += cellStart[u];
+        }
+        cellConstraints = new int[used];
+        int[] fill = Arrays.copyOf(cellStart, unknown.length);
+        for (int k = 0; k < constraints; k++) {
+            for (int i = constraintStart[k]; i < constraintStart[k + 1]; i++) {
+                cellConstraints[fill[constraintCells[i]]++] = k;
+            }
+        }
+    }
+
+    /**
+     * Samples until either budget runs out or the estimate is cancelled.
+     *
+     * @param maxSamples The most layouts to sample across all workers.
+     * @param maxNanos The longest time to spend, in nanoseconds.
+     * @param listener Receives the estimate after every round, or null.
+     * @return The probability of a mine for every cell, indexed by row * size + col. Cells the player has
+     *         uncovered are NaN. If no layout agreeing with the numbers was found, every unknown cell gets the
+     *         average density of the remaining mines.
+     */
+    public float[] estimate(long maxSamples, long maxNanos, Listener listener) {
+        cancelled = false;
+        long deadline = System.nanoTime() + maxNanos;
+        float[] probabilities = snapshot();
+        if (unknown.length == 0) {
+            return probabilities;
+        }
+        RecursiveAction round = new RecursiveAction() {
+            @Override
+            protected void compute() {
+                for (Walk walk : walks) {
+                    walk.reinitialize();
+                }
+                invokeAll(walks);
+            }
+        };
+        while (!cancelled && samples < maxSamples && System.nanoTime() < deadline) {
+            round.reinitialize();
+            ForkJoinPool.commonPool().invoke(round);
+            probabilities = snapshot();
+            if (listener != null) {
+                listener.partial(probabilities, samples);
+            }
+        }
+        return probabilities;
+    }
+
+    /**
+     * Stops a running estimate after the current round. Safe to call from any thread.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Returns the number of layouts sampled so far.
+     *
+     * @return The total across all workers.
+     */
+    public long getSamples() {
+        return samples;
+    }
+
+    /**
+     * Combines the counters of every walk into one estimate.
+     *
+     * @return The probability of a mine for every cell.
+     */
+    private float[] snapshot() {
+        float[] probabilities = new float[cellCount];
+        Arrays.fill(probabilities, Float.NaN);
+        long total = 0;
+        for (Walk walk : walks) {
+            total += walk.clock;
+        }
+        samples = total;
+        for (int u = 0; u < unknown.length; u++) {
+            if (total == 0) {
+                probabilities[unknown[u]] = (float) mines / unknown.length;
+                continue;
+            }
+            long on = 0;
+            for (Walk walk : walks) {
+                on += walk.timeMined(u);
+            }
+            probabilities[unknown[u]] = (float) ((double) on / total);
+        }
+        return probabilities;
+    }
+
+    /**
+     * A random walk over mine layouts, run by one worker. Only the worker running it touches its fields
+     * while a round is in progress.
+     */
+    @SuppressWarnings("serial") // Only ever run in the fork/join pool, never serialized
+    private class Walk extends RecursiveAction {
+        private SplittableRandom random; // This walk's own random sequence
+        private boolean[] mined; // Whether each unknown cell holds a mine in the current layout
+        private int[] order; // Unknown cells with mines first, then those without
+        private int[] place; // Position of each unknown cell in order
+        private int[] count; // Mines currently next to each constraint
+        private int[] violated; // Constraints that do not agree, as an indexed set
+        private int[] violatedPlace; // Position of each constraint in violated, or -1
+        private int violatedCount; // Number of constraints that do not agree
+        private long clock; // Steps taken while every constraint agreed
+        private long[] onTime; // Steps each cell spent mined, up to its last change
+        private long[] since; // Clock when each mined cell last became mined
+
+        /**
+         * Starts the walk from a random layout with the right number of mines.
+         *
+         * @param random This walk's random sequence.
+         */
+        Walk(SplittableRandom random) {
+            this.random = random;
+            int unknowns = unknown.length;
+            mined = new boolean[unknowns];
+            order = new int[unknowns];
+            place = new int[unknowns];
+            for (int u = 0; u < unknowns; u++) {
+                order[u] = u;
+            }
+            for (int i = 0; i < mines; i++) { // A partial shuffle picks the mined cells
+                int j = i + random.nextInt(unknowns - i);
+                int swap = order[i];
+                order[i] = order[j];
+                order[j] = swap;
+                mined[order[i]] = true;
+            }
+            for (int i = 0; i < unknowns; i++) {
+                place[order[i]] = i;
+            }
+            onTime = new long[unknowns];
+            since = new long[unknowns];
+
+            count = new int[target.length];
+            violated = new int[target.length];
+            violatedPlace = new int[target.length];
+            for (int k = 0; k < target.length; k++) {
+                for (int i = constraintStart[k]; i < constraintStart[k + 1]; i++) {
+                    count[k] += mined[constraintCells[i]] ? 1 : 0;
+                }
+                violatedPlace[k] = -1;
+                if (count[k] != target[k]) {
+                    markViolated(k);
+                }
+            }
+        }
+
+        /**
+         * Takes one round of steps.
+         */
+        @Override
+        protected void compute() {
+            if (mines == 0 || mines == unknown.length) {
+                clock += violatedCount == 0 ? roundSteps : 0; // There is only one layout
+                return;
+            }
+            for (int step = 0; step < roundSteps; step++) {
+                if (violatedCount > 0) {
+                    repairStep();
+                } else {
+                    sampleStep();
+                    clock++;
+                }
+            }
+        }
+
+        /**
+         * Moves a mine out of, or into, a constraint that does not agree. Moves that make the layout
+         * worse are sometimes accepted so the walk cannot get stuck.
+         */
+        private void repairStep() {
+            int k = violated[random.nextInt(violatedCount)];
+            boolean tooMany = count[k] > target[k];
+            int from;
+            int to;
+            if (tooMany) {
+                from = pickNear(k, true);
+                to = order[mines + random.nextInt(unknown.length - mines)];
+            } else {
+                from = order[random.nextInt(mines)];
+                to = pickNear(k, false);
+            }
+            if (from < 0 || to < 0) {
+                return; // The constraint cannot be met, e.g. it needs more mines than it touches
+            }
+            int change = move(from, to);
+            if (change > 0 && random.nextDouble() >= Math.exp(-change / TEMPERATURE)) {
+                move(to, from);
+            }
+        }
+
+        /**
+         * Moves a random mine to a random empty cell, but only if every constraint still agrees.
+         */
+        private void sampleStep() {
+            int from = order[random.nextInt(mines)];
+            int to = order[mines + random.nextInt(unknown.length - mines)];
+            if (move(from, to) != 0) {
+                move(to, from);
+            }
+        }
+
+        /**
+         * Picks a random cell next to a constraint that does or does not hold a mine.
+         *
+         * @param k The constraint.
+         * @param withMine true to pick a mined cell, false to pick an empty one.
+         * @return The unknown cell, or -1 if there is none.
+         */
+        private int pickNear(int k, boolean withMine) {
+            int picked = -1;
+            int seen = 0;
+            for (int i = constraintStart[k]; i < constraintStart[k + 1]; i++) {
+                int u = constraintCells[i];
+                if (mined[u] == withMine && random.nextInt(++seen) == 0) {
+                    picked = u;
+                }
+            }
+            return picked;
+        }
+
+        /**
+         * Moves a mine from one unknown cell to another.
+         *
+         * @param from A mined cell.
+         * @param to An empty cell.
+         * @return The change in how far the layout is from agreeing with every constraint.
+         */
+        private int move(int from, int to) {
+            int change = 0;
+            for (int i = cellStart[from]; i < cellStart[from + 1]; i++) {
+                change += adjust(cellConstraints[i], -1);
+            }
+            for (int i = cellStart[to]; i < cellStart[to + 1]; i++) {
+                change += adjust(cellConstraints[i], 1);
+            }
+            mined[from] = false;
+            onTime[from] += clock - since[from];
+            mined[to] = true;
+            since[to] = clock;
+            int fromPlace = place[from];
+            int toPlace = place[to];
+            order[fromPlace] = to;
+            order[toPlace] = from;
+            place[to] = fromPlace;
+            place[from] = toPlace;
+            return change;
+        }
+
+        /**
+         * Changes the mine count of a constraint and keeps the set of disagreeing constraints up to date.
+         *
+         * @return The change in how far that constraint is from agreeing.
+         */
+        private int adjust(int k, int delta) {
+            int before = Math.abs(count[k] - target[k]);
+            count[k] += delta;
+            int after = Math.abs(count[k] - target[k]);
+            if (before == 0 && after != 0) {
+                markViolated(k);
+            } else if (before != 0 && after == 0) {
+                int last = violated[--violatedCount];
+                violated[violatedPlace[k]] = last;
+                violatedPlace[last] = violatedPlace[k];
+                violatedPlace[k] = -1;
+            }
+            return after - before;
+        }
+
+        /**
+         * Adds a constraint to the set of those that do not agree.
+         */
+        private void markViolated(int k) {
+            violated[violatedCount] = k;
+            violatedPlace[k] = violatedCount++;
+        }
+
+        /**
+         * Returns how many sampled steps a cell has spent mined.
+         */
+        long timeMined(int u) {
+            return onTime[u] + (mined[u] ? clock - since[u] : 0);
+        }
+    }
+} // End of MineProbability Class
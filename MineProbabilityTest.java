@@ -0,0 +1,125 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The test class MineProbabilityTest.
+ *
+ * @version 2.0
+ */
+public class MineProbabilityTest {
+    private static final long BUDGET = 5_000_000_000L; // Generous time budget, so the sample budget decides
+
+    /**
+     * Builds a board with mines in the given cells and every other cell numbered.
+     *
+     * @param size The width and height of the board.
+     * @param mines The indices of the mined cells.
+     * @return The board, with every player cell hidden.
+     */
+    private static Board boardWithMines(int size, int... mines) {
+        Board board = new Board(size);
+        for (int index : mines) {
+            board.setSolution(index, Board.MINE);
+        }
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                if (board.isMine(board.index(row, col))) {
+                    continue;
+                }
+                int count = 0;
+                for (int r = Math.max(0, row - 1); r <= Math.min(size - 1, row + 1); r++) {
+                    for (int c = Math.max(0, col - 1); c <= Math.min(size - 1, col + 1); c++) {
+                        count += board.isMine(board.index(r, c)) ? 1 : 0;
+                    }
+                }
+                board.setSolution(board.index(row, col), (byte) count);
+            }
+        }
+        board.recount();
+        return board;
+    }
+
+    /**
+     * UNIT-076
+     * Test forced layout
+     * Ensures that when only one layout fits the numbers, its cells come out as certain.
+     */
+    @Test
+    public void testForcedLayout() {
+        Board board = boardWithMines(3, 1);
+        board.reveal(board.index(2, 0)); // Leaves three hidden cells over three 1s
+        float[] odds = new MineProbability(board, 1L, 2).estimate(100_000, BUDGET, null);
+        assertEquals(0f, odds[0], 1e-6, "The left corner should be certainly safe");
+        assertEquals(1f, odds[1], 1e-6, "The middle cell should be certainly a mine");
+        assertEquals(0f, odds[2], 1e-6, "The right corner should be certainly safe");
+        assertTrue(Float.isNaN(odds[board.index(2, 2)]), "Uncovered cells should have no odds");
+    }
+
+    /**
+     * UNIT-077
+     * Test symmetric odds
+     * Ensures that a single 1 with three hidden neighbours gives each of them the same one in three chance.
+     */
+    @Test
+    public void testSymmetricOdds() {
+        Board board = boardWithMines(2, 0);
+        board.setPlayer(board.index(1, 1), (byte) 1); // Uncover one corner only
+        MineProbability estimator = new MineProbability(board, 7L, 2);
+        float[] odds = estimator.estimate(400_000, BUDGET, null);
+        for (int index = 0; index < 3; index++) {
+            assertEquals(1.0 / 3, odds[index], 0.03, "Cell " + index + " should have a one in three chance");
+        }
+        assertTrue(estimator.getSamples() >= 400_000, "The whole sample budget should be used");
+    }
+
+    /**
+     * UNIT-078
+     * Test partial results
+     * Ensures that estimates are streamed while sampling runs, with a growing sample count, and that cancel stops it.
+     */
+    @Test
+    public void testPartialResultsAndCancel() {
+        Board board = LevelGenerator.generate(30, 120, 3L);
+        int start = 0;
+        while (board.getSolution(start) != 0) {
+            start++;
+        }
+        board.reveal(start);
+        MineProbability estimator = new MineProbability(board, 5L, 2);
+        long[] calls = new long[2]; // Number of calls, then the last sample count
+        estimator.estimate(Long.MAX_VALUE, BUDGET, (odds, samples) -> {
+            assertTrue(samples >= calls[1], "The sample count should never go down");
+            calls[0]++;
+            calls[1] = samples;
+            if (calls[0] == 3) {
+                estimator.cancel();
+            }
+        });
+        assertEquals(3, calls[0], "Sampling should stop after the round in which it was cancelled");
+        assertTrue(calls[1] > 0, "Some layouts should have been sampled");
+    }
+
+    /**
+     * UNIT-079
+     * Test sound estimates on a random board
+     * Ensures that cells the solver proves safe or mined get odds of 0 or 1.
+     */
+    @Test
+    public void testAgreesWithSolver() {
+        Board board = LevelGenerator.generate(20, 50, 9L);
+        Minesweeper game = new Minesweeper(board);
+        Solver solver = new Solver(game);
+        int start = 0;
+        while (board.getSolution(start) != 0) {
+            start++;
+        }
+        game.makeMove(start / 20, start % 20, "G");
+        float[] odds = new MineProbability(board, 11L, 2).estimate(2_000_000, BUDGET, null);
+        for (int index : solver.getSafeCells()) {
+            assertEquals(0f, odds[index], 1e-6, "Cell " + index + " is provably safe");
+        }
+        for (int index : solver.getMineCells()) {
+            assertEquals(1f, odds[index], 1e-6, "Cell " + index + " is provably a mine");
+        }
+    }
+} // End of MineProbabilityTest Class
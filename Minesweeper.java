@@ -1,47 +1,82 @@
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.util.Observable; // 
-import java.util.Scanner;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
 
 /**
  * This class represents the Minesweeper game, handling the core game logic, 
  * managing the game board, player moves, and win conditions.
- * It extends Observable to notify the GUI of changes in the game state.
+ * It publishes changes in the game state to the GUI and other listeners through its {@link GameEventBus},
+ * one {@link GameEvent} per move listing the cells it changed.
+ * The board itself is kept in a byte-packed {@link Board} rather than in per-cell objects.
  * 
  * @authors: Lauren Scott & Paul Carmody
  * @version 2.0
  */
-public class Minesweeper extends Observable {
-    private String[][] gameBoard; // Array to store the board currently displayed to the game
-    private Slot[][] playerBoard; // Array to store the player's moves
-    private Scanner reader; // Scanner to read the game and level files
+public class Minesweeper {
+    private Board board; // Byte-packed solution and player layers of the board
+    private Slot[][] moves; // Slot view over the player layer, only created when a caller asks for it
     private int gameSize; // The size of the game
     private String level = "Levels/em1.txt"; // The level file, changeable for different difficulties
     private int lives = 3; // The number of lives the player has
+    private UndoJournal journal = new UndoJournal(); // Changes made by each move, for undo and redo
+    private GameEventBus events = new GameEventBus(this); // Tells listeners what each move changed
+    private int lastMoveCells; // Cells changed by the last move, for its flight recorder event
+    private MoveJournal recorder; // Journal recording every move for replay, or null when not recording
+
+    static {
+        if (Boolean.getBoolean("minesweeper.metrics")) {
+            enableMetrics(); // Opted in on the command line
+        }
+    }
 
     /**
      * Constructs a Minesweeper game instance by initialising the game board,
      * player board, and reading the level file.
      */
     public Minesweeper() {
-        try {
-            reader = new Scanner(new File(level));
-        } catch (FileNotFoundException e) {
-            e.printStackTrace();
-        }
+        readLevelFile(); // Populate the game board by reading the level file
+        gameSize = calculateGameSize();
+    }
+
+    /**
+     * Constructs a Minesweeper game instance for a specific level file.
+     * 
+     * @param level The path of the level file.
+     */
+    public Minesweeper(String level) {
+        this.level = level;
+        readLevelFile();
         gameSize = calculateGameSize();
-        gameBoard = new String[gameSize][gameSize];
-        playerBoard = new Slot[gameSize][gameSize];
-        readLevelFile(); // Populate the game and player boards by reading the level file
+    }
+
+    /**
+     * Constructs a Minesweeper game instance on an existing board, such as one made by {@link LevelGenerator}.
+     * 
+     * @param board The board to play, with its solution filled in.
+     */
+    public Minesweeper(Board board) {
+        this.board = board;
+        board.setJournal(journal);
+        gameSize = board.getSize();
     }
 
     /**
      * Returns the entire set of player moves for the game.
+     * The Slots are views onto the board, so they are created on first use and stay in step with the game.
+     * This costs an object per cell, so callers that only need a few cells should use getSlot instead.
      * 
      * @return The current state of the player's moves as a 2D array of Slots.
      */
     public Slot[][] getMoves() {
-        return playerBoard;
+        if (moves == null) {
+            moves = new Slot[gameSize][gameSize];
+            for (int i = 0; i < gameSize; i++) {
+                for (int j = 0; j < gameSize; j++) {
+                    moves[i][j] = new Slot(board, i, j);
+                }
+            }
+        }
+        return moves;
     }
 
     /**
@@ -52,16 +87,16 @@ public class Minesweeper extends Observable {
      * @return The state of the specified cell.
      */
     public String getIndividualMove(int row, int col) {
-        return playerBoard[row][col].getState();
+        return board.getState(row, col);
     }
 
     /**
-     * Calculates and returns the size of the game board by reading from the level file.
+     * Calculates and returns the size of the game board from the level file.
      * 
      * @return The size of the game board.
      */
     public int calculateGameSize() {
-        return Integer.parseInt(reader.next());
+        return board.getSize();
     }
 
     /**
@@ -74,38 +109,53 @@ public class Minesweeper extends Observable {
     }
 
     /**
-     * Reads the level file to populate the game board and initialise player moves.
+     * Reads the level file to populate the game board. Every player cell starts hidden.
+     * The level is parsed once and shared through the {@link LevelRepository}; this game only gets its own player's view.
      * 
      * @return The game board populated with the level's data.
+     * @throws UncheckedIOException if the level file is missing or malformed.
      */
-    public String[][] readLevelFile() {
-        while (reader.hasNext()) {
-            int row = Integer.parseInt(reader.next());
-            int col = Integer.parseInt(reader.next());
-            String move = reader.next();
-
-            gameBoard[row][col] = move;
-            playerBoard[row][col] = new Slot(row, col, "?");
+    public Board readLevelFile() {
+        try {
+            board = LevelRepository.getShared().load(level).newBoard();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read level " + level, e);
         }
-        return gameBoard;
+        board.setJournal(journal);
+        moves = null; // Any Slot view belonged to the previous board
+        return board;
     }
 
     /**
      * Checks whether the game has been won, lost, or is still ongoing.
+     * This runs in constant time using the board's count of safe cells still to be uncovered.
      * 
      * @return "won" if the player has won, "lives" if the player has run out of lives, 
      * or "continue" if the game is still ongoing.
      */
     public String checkWin() {
+        MinesweeperMetrics metrics = MinesweeperMetrics.getActive();
+        if (metrics == null) {
+            return result();
+        }
+        long start = System.nanoTime();
+        String result = result();
+        metrics.recordCheckWin(System.nanoTime() - start);
+        return result;
+    }
+
+    /**
+     * Works out whether the game has been won, lost, or is still ongoing, as checkWin does but without
+     * being timed, so the event bus can check after every move without the cost of reading the clock.
+     * 
+     * @return "won", "lives" or "continue".
+     */
+    String result() {
         if (lives <= 0) {
             return "lives"; // Check if the player has run out of lives, solving the issue of negative lives continuing the game
         }
-        for (int i = 0; i < gameSize; i++) {
-            for (int c = 0; c < gameSize; c++) {
-                if (!playerBoard[i][c].getState().equals(gameBoard[i][c]) && !gameBoard[i][c].equals("M")) {
-                    return "continue";
-                }
-            }
+        if (board.getSafeRemaining() > 0) {
+            return "continue";
         }
         return "won";
     }
@@ -118,40 +168,80 @@ public class Minesweeper extends Observable {
      * @param guess the player's guess, either "M" for mine or "G" for guess.
      * @return A message indicating the result of the move.
      */
+    public String makeMove(int row, int col, String guess) {
+        MinesweeperMetrics metrics = MinesweeperMetrics.getActive();
+        long start = metrics == null ? 0 : System.nanoTime();
+        FlightEvents.Move flight = new FlightEvents.Move();
+        flight.begin();
+        lastMoveCells = 0;
+        events.begin(); // Everything the move changes is published as one event
+        try {
+            return applyMove(row, col, guess, metrics);
+        } finally {
+            events.commit();
+            if (metrics != null) {
+                metrics.recordMove(System.nanoTime() - start); // Includes telling the listeners
+            }
+            if (flight.shouldCommit()) {
+                flight.row = row;
+                flight.col = col;
+                flight.guess = guess;
+                flight.cellsChanged = lastMoveCells;
+                flight.commit();
+            }
+        }
+    }
+
     /**
- * Allows a user to make a move in the game.
- * 
- * @param row   the row of the move.
- * @param col   the column of the move.
- * @param guess the player's guess, either "M" for mine or "G" for guess.
- * @return A message indicating the result of the move.
- */
-public String makeMove(int row, int col, String guess) {
-    // Check if the guess is to flag a mine
-    if (guess.equals("M")) {
-        playerBoard[row][col].setState("M"); // Set the cell state to "M" indicating a flagged mine
-        setChanged();
-        notifyObservers(); // Notify the observers (GUI) to update the board
-        return "You have flagged a tile."; // Return a message indicating the tile has been flagged
-    } else if (guess.equals("G")) { // Check if the guess is to reveal a cell
-        if (gameBoard[row][col].equals("M")) { // If the guessed cell contains a mine
-            lives -= 1; // Decrease the player's lives by one
-            playerBoard[row][col].setState("M"); // Update the player board to show the mine
-            setChanged();
-            notifyObservers(); // Notify the observers (GUI) to update the board
-            return "Oh no! You have lost one life. \nNew life total: " + lives; // Return a message indicating the player has lost a life
-        } else if (gameBoard[row][col].equals("-")) { // If the guessed cell is empty
-            playerBoard[row][col].setState("-"); // Set the cell state to empty
+     * Carries out a move inside the event transaction opened by makeMove.
+     * 
+     * @param row   the row of the move.
+     * @param col   the column of the move.
+     * @param guess the player's guess, either "M" for mine or "G" for guess.
+     * @param metrics the metrics to record the move in, or null if they are off.
+     * @return A message indicating the result of the move.
+     */
+    private String applyMove(int row, int col, String guess, MinesweeperMetrics metrics) {
+        // Check if the guess is to flag a mine
+        if (guess.equals("M")) {
+            int index = board.index(row, col); // Also rejects moves outside the board
+            if (recorder != null) {
+                recorder.recordMove(index, true);
+            }
+            board.setPlayer(index, Board.FLAGGED); // Set the cell state to "M" indicating a flagged mine
+            events.cellChanged(index); // Tell the listeners (GUI) to update the cell
+            lastMoveCells = 1;
+            if (metrics != null) {
+                metrics.recordFlag();
+            }
+            return "You have flagged a tile."; // Return a message indicating the tile has been flagged
+        } else if (guess.equals("G")) { // Check if the guess is to reveal a cell
+            int index = board.index(row, col);
+            if (recorder != null) {
+                recorder.recordMove(index, false);
+            }
+            if (board.isMine(index)) { // If the guessed cell contains a mine
+                lives -= 1; // Decrease the player's lives by one
+                journal.recordLives(-1);
+                board.setPlayer(index, Board.MINE); // Update the player board to show the mine
+                events.cellChanged(index); // Tell the listeners (GUI) to update the cell
+                lastMoveCells = 1;
+                if (metrics != null) {
+                    metrics.recordLifeLost();
+                }
+                return "Oh no! You have lost one life. \nNew life total: " + lives; // Return a message indicating the player has lost a life
+            }
+            int revealed = board.reveal(index); // Otherwise, reveal the cell and any empty region connected to it
+            events.cellsChanged(board.getRevealed(), revealed); // Tell the listeners (GUI) about the whole reveal at once
+            lastMoveCells = revealed;
+            if (metrics != null) {
+                metrics.recordReveal(revealed);
+            }
+            return "Phew! You survived this time!"; // Return a message indicating the player has survived
         } else {
-            playerBoard[row][col].setState(gameBoard[row][col]); // Otherwise, set the cell state to the corresponding game board value
+            return "Nope - this was not a mine"; // Return a message for an invalid guess
         }
-        setChanged();
-        notifyObservers(); // Notify the observers (GUI) to update the board
-        return "Phew! You survived this time!"; // Return a message indicating the player has survived
-    } else {
-        return "Nope - this was not a mine"; // Return a message for an invalid guess
     }
-}
 
 
     /**
@@ -162,7 +252,7 @@ public String makeMove(int row, int col, String guess) {
      * @return The state of the specified cell.
      */
     public String getCellState(int row, int col) {
-        return playerBoard[row][col].getState();
+        return board.getState(row, col);
     }
     
     // The following methods were added and deemed necessary to improve encapsulation, state management, 
@@ -174,18 +264,44 @@ public String makeMove(int row, int col, String guess) {
      * @return The player's board as a 2D array of Slots.
      */
     public Slot[][] getBoard() {
-        return playerBoard;
+        return getMoves();
+    }
+
+    /**
+     * Returns the byte-packed board behind the game.
+     * 
+     * @return The solution and player layers of the board.
+     */
+    public Board getCells() {
+        return board;
     }
 
     /**
-     * Sets the player board to a new state.
+     * Sets the player board to a new state by copying each Slot's state onto the board.
      * 
      * @param board The new state of the player board.
      */
     public void setBoard(Slot[][] board) {
-        this.playerBoard = board;
-        setChanged();
-        notifyObservers();
+        for (int i = 0; i < gameSize; i++) {
+            for (int j = 0; j < gameSize; j++) {
+                this.board.setState(i, j, board[i][j].getState());
+            }
+        }
+        events.boardReplaced();
+    }
+
+    /**
+     * Sets the player board from a buffer of encoded cells, one byte per cell in row order.
+     * This is how saved games are loaded without creating a Slot for every cell.
+     * The loaded board starts a new history, so the load cannot be undone as part of an earlier move.
+     * 
+     * @param cells The buffer holding the encoded cells.
+     * @throws IllegalArgumentException if the buffer holds a byte that is not a valid code, leaving the board unchanged.
+     */
+    public void setCells(ByteBuffer cells) {
+        board.readPlayer(cells);
+        journal.clear();
+        events.boardReplaced();
     }
 
     /**
@@ -203,33 +319,166 @@ public String makeMove(int row, int col, String guess) {
      * @param lives The new number of lives.
      */
     public void setLives(int lives) {
+        events.begin();
+        journal.recordLives(lives - this.lives);
         this.lives = lives;
-        setChanged();
-        notifyObservers();
+        events.commit(); // No cells changed, only the lives
+    }
+
+    /**
+     * Returns the number of cells the player has uncovered, counting mines they have stepped on but not flags.
+     * 
+     * @return The number of revealed cells.
+     */
+    public int getRevealedCount() {
+        return board.getCellCount() - board.getHiddenCount() - board.getFlagsPlaced();
+    }
+
+    /**
+     * Returns the number of cells the player has flagged.
+     * 
+     * @return The number of flagged cells.
+     */
+    public int getFlaggedCount() {
+        return board.getFlagsPlaced();
+    }
+
+    /**
+     * Returns the number of safe cells the player still has to uncover to win.
+     * 
+     * @return The number of safe cells remaining.
+     */
+    public int getSafeCellsRemaining() {
+        return board.getSafeRemaining();
+    }
+
+    /**
+     * Returns the number of mines not yet accounted for by a flag or by being stepped on.
+     * This can go below zero if the player places more flags than there are mines.
+     * 
+     * @return The number of mines remaining.
+     */
+    public int getMinesRemaining() {
+        return board.getMineCount() - board.getFlagsPlaced() - board.getMinesRevealed();
     }
 
     /**
      * Resets the game by restoring the initial number of lives and resetting the board.
      */
     public void reset() {
+        FlightEvents.Reset flight = new FlightEvents.Reset();
+        flight.begin();
+        events.begin();
         lives = 3;
-        for (int i = 0; i < gameSize; i++) {
-            for (int j = 0; j < gameSize; j++) {
-                playerBoard[i][j].setState("?");
-            }
+        board.hideAll();
+        journal.clear(); // Moves from the previous game cannot be undone
+        if (recorder != null) {
+            recorder.recordReset();
+        }
+        events.boardReplaced();
+        events.commit();
+        if (flight.shouldCommit()) {
+            flight.cells = board.getCellCount();
+            flight.commit();
+        }
+    }
+
+    /**
+     * Returns the bus that tells listeners about changes to the game.
+     * 
+     * @return The game's event bus.
+     */
+    public GameEventBus getEvents() {
+        return events;
+    }
+
+    /**
+     * Starts recording metrics for every game in this JVM and publishes them over JMX.
+     * 
+     * @return The metrics being recorded.
+     */
+    public static MinesweeperMetrics enableMetrics() {
+        return MinesweeperMetrics.enable();
+    }
+
+    /**
+     * Starts or stops recording the game's moves, undo steps, resets, undos and redos for replay with MoveReplay.
+     * Boards loaded with setCells or setBoard are not recorded, so start a new journal after loading a game.
+     * 
+     * @param recorder The journal to record into, or null to stop recording. The caller closes it.
+     */
+    public void setRecorder(MoveJournal recorder) {
+        this.recorder = recorder;
+        journal.setRecorder(recorder); // Undo steps begun with getUndoJournal().beginMove() are recorded too
+    }
+
+    /**
+     * Returns the journal the game's moves are being recorded into.
+     * 
+     * @return The move journal, or null if the game is not being recorded.
+     */
+    public MoveJournal getRecorder() {
+        return recorder;
+    }
+
+    /**
+     * Returns the journal recording each move's changes.
+     * 
+     * @return The undo journal of the game.
+     */
+    public UndoJournal getUndoJournal() {
+        return journal;
+    }
+
+    /**
+     * Undoes the most recent move, restoring the cells and lives it changed.
+     * 
+     * @return true if a move was undone, false if there was nothing to undo.
+     */
+    public boolean undo() {
+        if (!journal.canUndo()) {
+            return false;
+        }
+        if (recorder != null) {
+            recorder.recordUndo();
+        }
+        events.begin();
+        lives += journal.undo(board);
+        int[] cells = journal.getLastApplied();
+        events.cellsChanged(cells, cells.length);
+        events.commit();
+        return true;
+    }
+
+    /**
+     * Redoes the most recently undone move.
+     * 
+     * @return true if a move was redone, false if there was nothing to redo.
+     */
+    public boolean redo() {
+        if (!journal.canRedo()) {
+            return false;
+        }
+        if (recorder != null) {
+            recorder.recordRedo();
         }
-        setChanged();
-        notifyObservers();
+        events.begin();
+        lives += journal.redo(board);
+        int[] cells = journal.getLastApplied();
+        events.cellsChanged(cells, cells.length);
+        events.commit();
+        return true;
     }
 
     /**
      * Returns a specific slot on the game board.
+     * The Slot is a fresh view onto the board, so no array of Slots is built for the whole board.
      * 
      * @param row the row of the slot.
      * @param col the column of the slot.
      * @return The Slot at the specified position.
      */
     public Slot getSlot(int row, int col) {
-        return playerBoard[row][col];
+        return new Slot(board, row, col);
     }
 }// End of Minesweeper Class
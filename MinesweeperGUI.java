@@ -1,17 +1,18 @@
 import javax.swing.*;
 import java.awt.*;
-import java.util.Observable;
-import java.util.Observer;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 
 /**
  * The MinesweeperGUI class represents the main graphical user interface for the Minesweeper game.
- * It observes the Minesweeper game state and updates the UI accordingly.
+ * It listens to the Minesweeper game's events and updates the UI accordingly.
  */
-public class MinesweeperGUI extends JFrame implements Observer {
+public class MinesweeperGUI extends JFrame implements GameListener {
     private Minesweeper theGame;
     private GamePanel gamePanel;
     private ControlPanel controlPanel;
     private UI theUI;
+    private AutoSaver autoSaver; // Writes saves and autosaves off the event dispatch thread
 
     /**
      * Constructs the MinesweeperGUI with the given game instance.
@@ -20,10 +21,10 @@ public class MinesweeperGUI extends JFrame implements Observer {
      */
     public MinesweeperGUI(Minesweeper theGame) {
         this.theGame = theGame;
-        this.theGame.addObserver(this); // Adds the GUI as an observer to the game state
+        this.theGame.getEvents().subscribe(new FrameCoalescer(this)); // Adds the GUI as a listener to the game state, refreshed at most once per frame
 
         setTitle("Minesweeper Assessment");
-        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE); // quit exits once the saves are written
         setSize(800, 600);
         setLayout(new BorderLayout());
 
@@ -37,6 +38,15 @@ public class MinesweeperGUI extends JFrame implements Observer {
         controlPanel.setGamePanel(gamePanel); // Set the game panel in the control panel
         gamePanel.setControlPanel(controlPanel); // Set the control panel in the game panel
 
+        autoSaver = AutoSaver.fromSystemProperties(theGame, GameEventBus.EDT); // Autosaves if asked to with -Dminesweeper.autosave.*
+        controlPanel.setAutoSaver(autoSaver);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                quit(); // Write the last changes before exiting, without waiting for them here
+            }
+        });
+
         add(gamePanel, BorderLayout.CENTER); // Adds the game panel to the center of the frame
         add(controlPanel, BorderLayout.EAST); // Adds the control panel to the right side of the frame
 
@@ -44,19 +54,26 @@ public class MinesweeperGUI extends JFrame implements Observer {
     }
 
     /**
-     * Updates the GUI when the observed object changes.
+     * Updates the GUI when the game changes. Called on the event dispatch thread by a {@link FrameCoalescer},
+     * with one event covering every move made since the last refresh.
      * 
-     * @param o The observable object.
-     * @param arg An argument passed to the notifyObservers method.
+     * @param event What the moves changed.
      */
     @Override
-    public void update(Observable o, Object arg) {
-        if (o instanceof Minesweeper) { // Ensure the update is from the Minesweeper instance
-            gamePanel.updateBoard(); // Update the game board panel
+    public void gameChanged(GameEvent event) {
+        if (event.getGame() == theGame) { // Ensure the update is from this window's game
+            if (event.getCells() != null) {
+                gamePanel.updateCells(event.getCells()); // Only redraw the cells the move changed
+            } else {
+                gamePanel.updateBoard(); // The whole board may have changed, so redraw all of it
+            }
             controlPanel.update(); // Update the control panel
 
-            // Check if the game is won and prompt the user accordingly
-            if (theGame.checkWin().equals("won")) {
+            // Prompt the user once, on the refresh that shows the game ending
+            if (!event.has(GameEvent.Kind.GAME_OVER)) {
+                return;
+            }
+            if (event.getResult().equals("won")) {
                 int choice = JOptionPane.showOptionDialog(this,
                         "Wahoo, you solved the level! Do you want to play again?",
                         "Game Won",
@@ -68,9 +85,9 @@ public class MinesweeperGUI extends JFrame implements Observer {
                 if (choice == JOptionPane.YES_OPTION) {
                     theGame.reset(); // Reset the game if the user wants to play again
                 } else {
-                    System.exit(0); // Exit the game if the user chooses to quit
+                    quit(); // Exit the game if the user chooses to quit
                 }
-            } else if (theGame.getLives() <= 0) { // Check if the player has run out of lives
+            } else { // The player has run out of lives
                 int choice = JOptionPane.showOptionDialog(this,
                         "You lose!No more lives, the game is over. Do you want to play again?",
                         "Game Over",
@@ -82,12 +99,21 @@ public class MinesweeperGUI extends JFrame implements Observer {
                 if (choice == JOptionPane.YES_OPTION) {
                     theGame.reset(); // Reset the game if the user wants to play again
                 } else {
-                    System.exit(0); // Exit the game if the user chooses to quit
+                    quit(); // Exit the game if the user chooses to quit
                 }
             }
         }
     }
 
+    /**
+     * Hides the window and exits the game once any save still in progress has been written.
+     * The exit happens on the AutoSaver's writer thread, so the event dispatch thread never waits for the disk.
+     */
+    private void quit() {
+        setVisible(false);
+        autoSaver.close(() -> System.exit(0));
+    }
+
     /**
      * Restarts the game by resetting the game state and updating the UI.
      * This method provides a convenient way to reset the game from other parts of the GUI.
@@ -0,0 +1,326 @@
+import java.beans.ConstructorProperties;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * MinesweeperMetrics
+ * This class counts what every game in the JVM is doing, so games running unattended can be watched over JMX.
+ * It is off unless enabled, either by calling {@link Minesweeper#enableMetrics} or by starting the JVM with
+ * -Dminesweeper.metrics=true, and is then registered with the platform MBean server as Minesweeper:type=Metrics.
+ *
+ * While it is off the game pays one volatile read per move. While it is on, recording is a few atomic
+ * increments and two calls to System.nanoTime, with no locking or allocation, so games on many threads
+ * can share it. Counters use LongAdder and durations go into {@link AtomicLatencyHistogram}s.
+ *
+ * @version 2.0
+ * @author Paul Carmody
+ */
+public class MinesweeperMetrics implements MinesweeperMetricsMXBean {
+    public static final String OBJECT_NAME = "Minesweeper:type=Metrics"; // Name the metrics are registered under
+
+    private static volatile MinesweeperMetrics active; // The metrics being recorded, or null while they are off
+
+    private final LongAdder moves = new LongAdder(); // Moves made
+    private final LongAdder reveals = new LongAdder(); // Cells uncovered by guesses
+    private final LongAdder flags = new LongAdder(); // Flags placed
+    private final LongAdder livesLost = new LongAdder(); // Mines stepped on
+    private final AtomicLatencyHistogram cascadeSizes = new AtomicLatencyHistogram(); // Cells uncovered by each safe guess
+    private final AtomicLatencyHistogram makeMoveLatency = new AtomicLatencyHistogram(); // Duration of makeMove
+    private final AtomicLatencyHistogram checkWinLatency = new AtomicLatencyHistogram(); // Duration of checkWin
+    private final AtomicLatencyHistogram saveLatency = new AtomicLatencyHistogram(); // Duration of writing a save, from saveGame or an AutoSaver
+    private final AtomicLatencyHistogram loadLatency = new AtomicLatencyHistogram(); // Duration of loadGame
+    private final AtomicLatencyHistogram refreshLatency = new AtomicLatencyHistogram(); // Duration of game panel refreshes
+    private long rateMoves; // Moves when the rate was last read
+    private long rateNanos = System.nanoTime(); // When the rate was last read
+
+    /**
+     * Returns the metrics being recorded.
+     *
+     * @return The metrics, or null while they are off.
+     */
+    public static MinesweeperMetrics getActive() {
+        return active;
+    }
+
+    /**
+     * Starts recording and registers the metrics with the platform MBean server. Does nothing if they are already on.
+     *
+     * @return The metrics being recorded.
+     * @throws IllegalStateException if the metrics cannot be registered.
+     */
+    public static synchronized MinesweeperMetrics enable() {
+        if (active == null) {
+            MinesweeperMetrics metrics = new MinesweeperMetrics();
+            try {
+                MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                ObjectName name = new ObjectName(OBJECT_NAME);
+                if (server.isRegistered(name)) {
+                    server.unregisterMBean(name); // Left behind by another class loader
+                }
+                server.registerMBean(metrics, name);
+            } catch (JMException e) {
+                throw new IllegalStateException("Could not register the metrics", e);
+            }
+            active = metrics;
+        }
+        return active;
+    }
+
+    /**
+     * Stops recording and unregisters the metrics.
+     */
+    public static synchronized void disable() {
+        if (active == null) {
+            return;
+        }
+        active = null;
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            // Already unregistered, so there is nothing left to do
+        }
+    }
+
+    /**
+     * Records a move.
+     *
+     * @param nanos The time makeMove took.
+     */
+    public void recordMove(long nanos) {
+        moves.increment();
+        makeMoveLatency.record(nanos);
+    }
+
+    /**
+     * Records a safe guess.
+     *
+     * @param cells The number of cells it uncovered.
+     */
+    public void recordReveal(int cells) {
+        reveals.add(cells);
+        cascadeSizes.record(cells);
+    }
+
+    /**
+     * Records a flag being placed.
+     */
+    public void recordFlag() {
+        flags.increment();
+    }
+
+    /**
+     * Records a life being lost.
+     */
+    public void recordLifeLost() {
+        livesLost.increment();
+    }
+
+    /**
+     * Records a call to checkWin.
+     *
+     * @param nanos The time it took.
+     */
+    public void recordCheckWin(long nanos) {
+        checkWinLatency.record(nanos);
+    }
+
+    /**
+     * Records a game being saved.
+     *
+     * @param nanos The time it took.
+     */
+    public void recordSave(long nanos) {
+        saveLatency.record(nanos);
+    }
+
+    /**
+     * Records a game being loaded.
+     *
+     * @param nanos The time it took.
+     */
+    public void recordLoad(long nanos) {
+        loadLatency.record(nanos);
+    }
+
+    /**
+     * Records the game panel being refreshed.
+     *
+     * @param nanos The time it took.
+     */
+    public void recordRefresh(long nanos) {
+        refreshLatency.record(nanos);
+    }
+
+    @Override
+    public long getMoves() {
+        return moves.sum();
+    }
+
+    @Override
+    public synchronized double getMovesPerSecond() {
+        long now = System.nanoTime();
+        long total = moves.sum();
+        double rate = now == rateNanos ? 0 : (total - rateMoves) * 1e9 / (now - rateNanos);
+        rateMoves = total;
+        rateNanos = now;
+        return rate;
+    }
+
+    @Override
+    public long getReveals() {
+        return reveals.sum();
+    }
+
+    @Override
+    public long getFlags() {
+        return flags.sum();
+    }
+
+    @Override
+    public long getLivesLost() {
+        return livesLost.sum();
+    }
+
+    @Override
+    public Summary getCascadeSizes() {
+        return new Summary(cascadeSizes.snapshot());
+    }
+
+    @Override
+    public Summary getMakeMoveLatency() {
+        return new Summary(makeMoveLatency.snapshot());
+    }
+
+    @Override
+    public Summary getCheckWinLatency() {
+        return new Summary(checkWinLatency.snapshot());
+    }
+
+    @Override
+    public Summary getSaveLatency() {
+        return new Summary(saveLatency.snapshot());
+    }
+
+    @Override
+    public Summary getLoadLatency() {
+        return new Summary(loadLatency.snapshot());
+    }
+
+    @Override
+    public Summary getRefreshLatency() {
+        return new Summary(refreshLatency.snapshot());
+    }
+
+    @Override
+    public synchronized void reset() {
+        moves.reset();
+        reveals.reset();
+        flags.reset();
+        livesLost.reset();
+        for (AtomicLatencyHistogram histogram : new AtomicLatencyHistogram[] {cascadeSizes, makeMoveLatency,
+                checkWinLatency, saveLatency, loadLatency, refreshLatency}) {
+            histogram.reset();
+        }
+        rateMoves = 0;
+        rateNanos = System.nanoTime();
+    }
+
+    /**
+     * A summary of one histogram, shown over JMX as a composite value.
+     */
+    public static class Summary {
+        private final long count; // Values recorded
+        private final double mean; // Mean value
+        private final long p50; // Median
+        private final long p90; // 90th percentile
+        private final long p99; // 99th percentile
+        private final long max; // Largest value
+
+        /**
+         * Constructs a summary from its values, as JMX clients rebuilding it do.
+         *
+         * @param count The number of values recorded.
+         * @param mean The mean value.
+         * @param p50 The median.
+         * @param p90 The 90th percentile.
+         * @param p99 The 99th percentile.
+         * @param max The largest value.
+         */
+        @ConstructorProperties({"count", "mean", "p50", "p90", "p99", "max"})
+        public Summary(long count, double mean, long p50, long p90, long p99, long max) {
+            this.count = count;
+            this.mean = mean;
+            this.p50 = p50;
+            this.p90 = p90;
+            this.p99 = p99;
+            this.max = max;
+        }
+
+        /**
+         * Constructs a summary of a histogram.
+         *
+         * @param histogram The histogram.
+         */
+        Summary(LatencyHistogram histogram) {
+            this(histogram.getCount(), histogram.getMean(), histogram.getPercentile(50),
+                    histogram.getPercentile(90), histogram.getPercentile(99), histogram.getMax());
+        }
+
+        /**
+         * Returns the number of values recorded.
+         *
+         * @return The count.
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Returns the mean value.
+         *
+         * @return The mean.
+         */
+        public double getMean() {
+            return mean;
+        }
+
+        /**
+         * Returns the median.
+         *
+         * @return The 50th percentile.
+         */
+        public long getP50() {
+            return p50;
+        }
+
+        /**
+         * Returns the 90th percentile.
+         *
+         * @return The 90th percentile.
+         */
+        public long getP90() {
+            return p90;
+        }
+
+        /**
+         * Returns the 99th percentile.
+         *
+         * @return The 99th percentile.
+         */
+        public long getP99() {
+            return p99;
+        }
+
+        /**
+         * Returns the largest value recorded.
+         *
+         * @return The maximum.
+         */
+        public long getMax() {
+            return max;
+        }
+    }
+} // End of MinesweeperMetrics Class
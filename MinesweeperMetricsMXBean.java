@@ -0,0 +1,91 @@
+/**
+ * MinesweeperMetricsMXBean
+ * This interface is the management view of {@link MinesweeperMetrics}, as shown by JConsole, VisualVM or
+ * any other JMX client under the name Minesweeper:type=Metrics.
+ *
+ * @version 2.0
+ * @author Paul Carmody
+ */
+public interface MinesweeperMetricsMXBean {
+    /**
+     * Returns the number of moves made, flags and guesses together.
+     *
+     * @return The moves made since the metrics were enabled or reset.
+     */
+    long getMoves();
+
+    /**
+     * Returns how many moves were made per second since this was last read.
+     *
+     * @return The recent move rate.
+     */
+    double getMovesPerSecond();
+
+    /**
+     * Returns the number of cells uncovered by guesses, counting every cell of a cascade.
+     *
+     * @return The cells revealed.
+     */
+    long getReveals();
+
+    /**
+     * Returns the number of flags placed.
+     *
+     * @return The flags placed.
+     */
+    long getFlags();
+
+    /**
+     * Returns the number of lives lost by stepping on mines.
+     *
+     * @return The lives lost.
+     */
+    long getLivesLost();
+
+    /**
+     * Returns the number of cells uncovered by each safe guess.
+     *
+     * @return The distribution of cascade sizes, in cells rather than nanoseconds.
+     */
+    MinesweeperMetrics.Summary getCascadeSizes();
+
+    /**
+     * Returns the time taken by makeMove.
+     *
+     * @return The distribution of move durations.
+     */
+    MinesweeperMetrics.Summary getMakeMoveLatency();
+
+    /**
+     * Returns the time taken by checkWin.
+     *
+     * @return The distribution of checkWin durations.
+     */
+    MinesweeperMetrics.Summary getCheckWinLatency();
+
+    /**
+     * Returns the time taken to save games.
+     *
+     * @return The distribution of save durations.
+     */
+    MinesweeperMetrics.Summary getSaveLatency();
+
+    /**
+     * Returns the time taken to load games.
+     *
+     * @return The distribution of load durations.
+     */
+    MinesweeperMetrics.Summary getLoadLatency();
+
+    /**
+     * Returns the time taken to refresh the game panel.
+     *
+     * @return The distribution of refresh durations.
+     */
+    MinesweeperMetrics.Summary getRefreshLatency();
+
+    /**
+     * Sets every counter and histogram back to zero.
+     */
+    void reset();
+} // End of MinesweeperMetricsMXBean Interface
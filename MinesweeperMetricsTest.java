@@ -0,0 +1,89 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+/**
+ * The test class MinesweeperMetricsTest.
+ *
+ * @version 2.0
+ */
+public class MinesweeperMetricsTest {
+
+    /**
+     * Turns the metrics off again so other tests run without them.
+     */
+    @AfterEach
+    public void tearDown() {
+        MinesweeperMetrics.disable();
+    }
+
+    /**
+     * UNIT-102
+     * Test move metrics over JMX
+     * Ensures that moves, reveals, flags, lives lost and cascade sizes are counted and can be read
+     * through the platform MBean server.
+     */
+    @Test
+    public void testMoveMetricsOverJmx() throws Exception {
+        Minesweeper game = new Minesweeper();
+        game.makeMove(2, 2, "G"); // Made before the metrics are on, so not counted
+        Minesweeper.enableMetrics().reset();
+        game.reset();
+        game.makeMove(0, 0, "M");
+        game.makeMove(2, 0, "G"); // A cascade of 21 cells
+        game.makeMove(0, 4, "G"); // A mine
+        game.checkWin();
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(MinesweeperMetrics.OBJECT_NAME);
+        assertEquals(3L, server.getAttribute(name, "Moves"));
+        assertEquals(21L, server.getAttribute(name, "Reveals"));
+        assertEquals(1L, server.getAttribute(name, "Flags"));
+        assertEquals(1L, server.getAttribute(name, "LivesLost"));
+        CompositeData cascades = (CompositeData) server.getAttribute(name, "CascadeSizes");
+        assertEquals(1L, cascades.get("count"));
+        assertEquals(21L, cascades.get("max"));
+        CompositeData moves = (CompositeData) server.getAttribute(name, "MakeMoveLatency");
+        assertEquals(3L, moves.get("count"));
+        CompositeData checks = (CompositeData) server.getAttribute(name, "CheckWinLatency");
+        assertEquals(1L, checks.get("count"), "Only calls from outside the game should be timed");
+        assertTrue((Double) server.getAttribute(name, "MovesPerSecond") > 0);
+
+        server.invoke(name, "reset", null, null);
+        assertEquals(0L, server.getAttribute(name, "Moves"));
+    }
+
+    /**
+     * UNIT-103
+     * Test save, load and refresh metrics
+     * Ensures that saves, loads and game panel refreshes are timed, and that nothing is recorded or
+     * registered once the metrics are turned off.
+     */
+    @Test
+    public void testSaveLoadAndRefreshMetrics() throws Exception {
+        MinesweeperMetrics metrics = Minesweeper.enableMetrics();
+        metrics.reset();
+        Minesweeper game = new Minesweeper();
+        assertTrue(FileHandler.saveGame(game, "metrics_save.dat"));
+        assertTrue(FileHandler.loadGame(game, "metrics_save.dat"));
+        new File("metrics_save.dat").delete();
+        new GamePanel(game, false, null).updateBoard();
+
+        assertEquals(1, metrics.getSaveLatency().getCount());
+        assertEquals(1, metrics.getLoadLatency().getCount());
+        assertTrue(metrics.getLoadLatency().getMax() > 0, "The load should take some time");
+        assertEquals(1, metrics.getRefreshLatency().getCount());
+
+        MinesweeperMetrics.disable();
+        assertNull(MinesweeperMetrics.getActive());
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(new ObjectName(MinesweeperMetrics.OBJECT_NAME)));
+        game.makeMove(0, 0, "M");
+        assertEquals(0, metrics.getMoves(), "Nothing should be recorded while the metrics are off");
+    }
+} // End of MinesweeperMetricsTest Class
@@ -345,4 +345,63 @@ public class MinesweeperTest {
         assertThrows(IndexOutOfBoundsException.class, () -> game.makeMove(gameSize, 0, "G"), "Move at (size, 0) should throw IndexOutOfBoundsException");
         assertThrows(IndexOutOfBoundsException.class, () -> game.makeMove(0, gameSize, "G"), "Move at (0, size) should throw IndexOutOfBoundsException");
     }
+
+    /**
+     * UNIT-048
+     * Test Minesweeper cascade reveal
+     * Ensures guessing an empty cell opens the connected empty region and its border in a single move.
+     */
+    @Test
+    public void testMinesweeperCascadeReveal() {
+        game.makeMove(2, 0, "G");
+        assertEquals("0", game.getCellState(2, 2), "Connected empty cells should be revealed");
+        assertEquals("1", game.getCellState(3, 0), "The numbered border should be revealed");
+        assertEquals("?", game.getCellState(0, 0), "Mines should stay hidden");
+        assertEquals(3, game.getLives(), "A cascade should never cost a life");
+    }
+
+    /**
+     * UNIT-050
+     * Test Minesweeper change notifications
+     * Ensures that moves tell listeners exactly which cells changed, and that a cascade is reported once.
+     */
+    @Test
+    public void testMinesweeperChangeNotifications() {
+        java.util.List<GameEvent> changes = new java.util.ArrayList<>();
+        game.getEvents().subscribe(changes::add);
+
+        game.makeMove(0, 0, "M");
+        assertEquals(1, changes.size(), "A flag should notify once");
+        assertEquals(0, changes.get(0).getCells().getCells()[0], "The flagged cell should be reported");
+
+        game.makeMove(2, 0, "G");
+        assertEquals(2, changes.size(), "A cascade should notify once");
+        assertEquals(21, changes.get(1).getCells().size(), "Every revealed cell should be reported");
+
+        game.reset();
+        assertNull(changes.get(2).getCells(), "A reset should ask for a full redraw");
+    }
+
+    /**
+     * UNIT-052
+     * Test Minesweeper progress counters
+     * Ensures the revealed, flagged and remaining counters follow moves and resets.
+     */
+    @Test
+    public void testMinesweeperProgressCounters() {
+        assertEquals(4, game.getMinesRemaining(), "The level has four mines");
+        assertEquals(21, game.getSafeCellsRemaining(), "No safe cells should be uncovered yet");
+
+        game.makeMove(0, 0, "M");
+        game.makeMove(0, 4, "G");
+        game.makeMove(1, 1, "G");
+        assertEquals(1, game.getFlaggedCount(), "One cell should be flagged");
+        assertEquals(2, game.getRevealedCount(), "The mine hit and the number should count as revealed");
+        assertEquals(2, game.getMinesRemaining(), "Flags and mine hits should both reduce the mines remaining");
+        assertEquals(20, game.getSafeCellsRemaining(), "One safe cell should be uncovered");
+
+        game.reset();
+        assertEquals(0, game.getRevealedCount(), "Nothing should be revealed after a reset");
+        assertEquals(4, game.getMinesRemaining(), "All mines should remain after a reset");
+    }
 }
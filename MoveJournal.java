@@ -0,0 +1,298 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * MoveJournal
+ * This class records a game as an append-only binary journal, so it can be replayed exactly by {@link MoveReplay},
+ * for example to reproduce a bug report or as regression input. Attach it with {@link Minesweeper#setRecorder}.
+ *
+ * The journal starts with a header identifying the level: its size, a CRC32 of its solution and either the
+ * name of the level file or the solution itself. After that comes one record per move. A record is a varint
+ * holding the kind of move in its low two bits and, for flags and guesses, the zigzag-encoded difference
+ * from the previous move's cell index above them, followed by a varint of the microseconds since the previous
+ * record. Moves near each other, as most are, take three or four bytes. A record is also written each time
+ * the game's UndoJournal begins a move, so a replay undoes exactly the steps the player did.
+ *
+ * Records are gathered in a buffer and written to the file channel when it fills, when the journal is flushed
+ * or closed, and by a background timer once a second, even while the player is idle. Nothing is forced to disk,
+ * so a crash can lose the last second of moves but never corrupts the earlier ones; a journal cut short replays
+ * up to its last whole record. If the file cannot be written the records are kept and the write is tried again
+ * later; only when the buffer is full as well does the journal stop recording, as any later records could not
+ * be replayed without the lost ones. The error is then thrown by close.
+ *
+ * @version 2.0
+ * @author Paul Carmody
+ */
+public class MoveJournal implements Closeable {
+    public static final int MAGIC = 0x4D53574A; // "MSWJ" at the start of every journal
+    public static final int VERSION = 1; // Version of the journal format
+    static final int EMBEDDED = 1; // Header flag: the solution follows the name
+    static final int GUESS = 0; // Record kind: makeMove with "G"
+    static final int FLAG = 1; // Record kind: makeMove with "M"
+    static final int RESET = 2; // Record kind: reset
+    static final int CONTROL = 3; // Record kind: undo, redo or the start of an undo step, given by the bits above the kind
+    static final int UNDO = 0; // Control operation: undo
+    static final int REDO = 1; // Control operation: redo
+    static final int BEGIN_MOVE = 2; // Control operation: UndoJournal.beginMove
+
+    private static final int BUFFER_SIZE = 1 << 16; // Bytes gathered before writing to the channel
+    private static final int MAX_RECORD = 20; // Longest possible record, two 10-byte varints
+    private static final long FLUSH_MILLIS = 1000; // Longest time records wait in the buffer
+    private static final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "minesweeper-journal-flush");
+        thread.setDaemon(true); // Never keep the JVM running for a journal
+        return thread;
+    }); // Writes out every open journal's buffer once a second
+
+    private final FileChannel channel; // The journal file, open for appending
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE); // Records not yet written
+    private int lastIndex; // Cell index of the previous flag or guess
+    private long lastNanos; // System.nanoTime of the previous record
+    private long records; // Records written
+    private IOException error; // The last write that failed, or null
+    private boolean stopped; // Whether recording stopped because records had to be dropped
+    private final ScheduledFuture<?> timer; // Flushes the buffer once a second
+
+    /**
+     * Creates a journal that refers to its level by the name of the level file. Replaying it reads that file,
+     * and checks it is still the same level.
+     *
+     * @param file The journal file to create, replacing any file already there.
+     * @param game The game to record, as it is now.
+     * @param level The level file the game was read from.
+     * @return The journal, ready to be attached to the game.
+     * @throws IOException if the file cannot be written.
+     */
+    public static MoveJournal create(Path file, Minesweeper game, String level) throws IOException {
+        return new MoveJournal(file, game.getCells(), level, false);
+    }
+
+    /**
+     * Creates a journal holding its own copy of the level's solution, so it can be replayed without the level file.
+     * This suits generated boards, which have no file.
+     *
+     * @param file The journal file to create, replacing any file already there.
+     * @param game The game to record, as it is now.
+     * @return The journal, ready to be attached to the game.
+     * @throws IOException if the file cannot be written.
+     */
+    public static MoveJournal create(Path file, Minesweeper game) throws IOException {
+        return new MoveJournal(file, game.getCells(), "", true);
+    }
+
+    /**
+     * Opens the file and writes the header.
+     *
+     * @param file The journal file.
+     * @param board The board being played.
+     * @param level The level file's name, or empty.
+     * @param embed true to write the solution into the header.
+     * @throws IOException if the file cannot be written.
+     */
+    private MoveJournal(Path file, Board board, String level, boolean embed) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        byte[] name = level.getBytes(StandardCharsets.UTF_8);
+        int cells = board.getCellCount();
+        ByteBuffer header = ByteBuffer.allocate(4 + 2 + 5 + 4 + 5 + name.length + (embed ? cells : 0) + 8);
+        header.putInt(MAGIC);
+        header.put((byte) VERSION);
+        header.put((byte) (embed ? EMBEDDED : 0));
+        putVarint(header, board.getSize());
+        header.putInt(solutionChecksum(board));
+        putVarint(header, name.length);
+        header.put(name);
+        if (embed) {
+            for (int i = 0; i < cells; i++) {
+                header.put(board.getSolution(i));
+            }
+        }
+        header.putLong(System.currentTimeMillis()); // When the recording started
+        header.flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        lastNanos = System.nanoTime();
+        timer = flusher.scheduleWithFixedDelay(this::flushQuietly, FLUSH_MILLIS, FLUSH_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Records a flag or guess.
+     *
+     * @param index The index of the cell.
+     * @param flag true for "M", false for "G".
+     */
+    public void recordMove(int index, boolean flag) {
+        int delta = index - lastIndex;
+        lastIndex = index;
+        append(((long) ((delta << 1) ^ (delta >> 31)) << 2) | (flag ? FLAG : GUESS)); // Zigzag, so small steps back are small too
+    }
+
+    /**
+     * Records a reset.
+     */
+    public void recordReset() {
+        append(RESET);
+    }
+
+    /**
+     * Records the start of an undo step. Called by the game's UndoJournal from beginMove.
+     */
+    public void recordBeginMove() {
+        append((BEGIN_MOVE << 2) | CONTROL);
+    }
+
+    /**
+     * Records an undo.
+     */
+    public void recordUndo() {
+        append((UNDO << 2) | CONTROL);
+    }
+
+    /**
+     * Records a redo.
+     */
+    public void recordRedo() {
+        append((REDO << 2) | CONTROL);
+    }
+
+    /**
+     * Returns the number of records written.
+     *
+     * @return The records.
+     */
+    public synchronized long getRecords() {
+        return records;
+    }
+
+    /**
+     * Returns whether the journal has stopped recording because the file could not be written.
+     *
+     * @return true if records were lost.
+     */
+    public synchronized boolean isStopped() {
+        return stopped;
+    }
+
+    /**
+     * Writes any buffered records to the file. Records that could not be written stay in the buffer.
+     *
+     * @throws UncheckedIOException if the file cannot be written.
+     */
+    public synchronized void flush() {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        } catch (IOException e) {
+            buffer.compact(); // Keep what was not written, ready for more records
+            error = e;
+            throw new UncheckedIOException("Could not write the move journal", e);
+        }
+    }
+
+    /**
+     * Writes any buffered records and closes the file.
+     *
+     * @throws IOException if the file cannot be written, or an earlier write failed and records were lost.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        timer.cancel(false);
+        try {
+            flush();
+            if (stopped) {
+                throw new IOException("The move journal stopped after " + records + " records", error);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Adds a record to the buffer, writing the buffer out first when it is full. A failed write never
+     * stops the move being recorded; it is kept for the next try unless there is no room left at all.
+     *
+     * @param head The record's first varint.
+     */
+    private synchronized void append(long head) {
+        if (stopped) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (buffer.remaining() < MAX_RECORD && !flushQuietly()) {
+            if (buffer.remaining() < MAX_RECORD) {
+                stopped = true; // Any later record would replay against the wrong game without this one
+                return;
+            }
+        }
+        putVarint(buffer, head);
+        putVarint(buffer, (now - lastNanos) / 1000);
+        lastNanos = now;
+        records++;
+    }
+
+    /**
+     * Writes out the buffer, keeping it if the write fails. Run once a second by the timer.
+     *
+     * @return true if everything buffered was written.
+     */
+    private synchronized boolean flushQuietly() {
+        if (buffer.position() == 0 || !channel.isOpen()) {
+            return true;
+        }
+        try {
+            flush();
+            return true;
+        } catch (UncheckedIOException e) {
+            return false; // Tried again on the next record or tick; close reports it
+        }
+    }
+
+    /**
+     * Writes a non-negative number as a varint: seven bits a byte, lowest first, with the top bit set on all but the last.
+     *
+     * @param out The buffer to write to.
+     * @param value The number.
+     */
+    static void putVarint(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    /**
+     * Works out the checksum identifying a level's solution.
+     *
+     * @param board The board.
+     * @return The CRC32 of the solution, one byte per cell in row order.
+     */
+    static int solutionChecksum(Board board) {
+        CRC32 crc = new CRC32();
+        byte[] row = new byte[board.getSize()];
+        for (int start = 0; start < board.getCellCount(); start += row.length) {
+            for (int i = 0; i < row.length; i++) {
+                row[i] = board.getSolution(start + i);
+            }
+            crc.update(row);
+        }
+        return (int) crc.getValue();
+    }
+} // End of MoveJournal Class
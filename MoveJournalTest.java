@@ -0,0 +1,177 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * The test class MoveJournalTest.
+ *
+ * @version 2.0
+ */
+public class MoveJournalTest {
+
+    /**
+     * UNIT-107
+     * Test a recorded game replays exactly
+     * Ensures that replaying a journal of flags, guesses, undos, redos and resets on a generated board,
+     * each move in its own undo step as the UI makes them, leaves a fresh game in the same state, with the
+     * same lives, as the game that was recorded.
+     */
+    @Test
+    public void testReplayMatchesRecordedGame() throws Exception {
+        Path file = Files.createTempFile("minesweeper", ".mswj");
+        Minesweeper game = new Minesweeper(LevelGenerator.generate(30, 90, 7L));
+        Random random = new Random(11L);
+        int undone = 0;
+        int redone = 0;
+        try (MoveJournal journal = MoveJournal.create(file, game)) {
+            game.setRecorder(journal);
+            for (int i = 0; i < 2000; i++) {
+                int pick = random.nextInt(100);
+                if (pick < 8) {
+                    undone += game.undo() ? 1 : 0;
+                } else if (pick < 12) {
+                    redone += game.redo() ? 1 : 0;
+                } else if (pick == 12) {
+                    game.reset();
+                } else {
+                    game.getUndoJournal().beginMove(); // As UI and GameSession do before every move
+                    game.makeMove(random.nextInt(30), random.nextInt(30), pick < 30 ? "M" : "G");
+                }
+            }
+            game.setRecorder(null);
+        }
+
+        MoveReplay replay = MoveReplay.replay(file);
+        Files.delete(file);
+        assertFalse(replay.isTruncated());
+        assertEquals("", replay.getLevel());
+        assertTrue(undone > 50, "The game should have had moves to undo");
+        assertTrue(redone > 0, "The game should have had moves to redo");
+        assertTrue(replay.getRecords() > 3000, "Every undo step, move, undo, redo and reset should replay");
+        assertEquals(game.getUndoJournal().getMoveCount(), replay.getGame().getUndoJournal().getMoveCount());
+        assertEquals(game.getLives(), replay.getGame().getLives());
+        assertArrayEquals(playerCells(game), playerCells(replay.getGame()));
+        assertEquals(game.checkWin(), replay.getGame().checkWin());
+    }
+
+    /**
+     * UNIT-108
+     * Test a journal naming its level file
+     * Ensures that a journal refers to its level file by name in a few bytes per move, and that it is
+     * refused once the level file no longer holds the level it was recorded on.
+     */
+    @Test
+    public void testNamedLevelIsCheckedOnReplay() throws Exception {
+        Path level = Files.createTempFile("minesweeper", ".txt");
+        Path file = Files.createTempFile("minesweeper", ".mswj");
+        Files.copy(Path.of("Levels/em1.txt"), level, StandardCopyOption.REPLACE_EXISTING);
+        try {
+            Minesweeper game = new Minesweeper(LevelReader.read(level.toString()));
+            long header;
+            try (MoveJournal journal = MoveJournal.create(file, game, level.toString())) {
+                journal.flush();
+                header = Files.size(file);
+                game.setRecorder(journal);
+                game.makeMove(0, 0, "M");
+                game.makeMove(2, 0, "G");
+                game.makeMove(0, 4, "G");
+            }
+            assertTrue(Files.size(file) - header <= 3 * 4, "Each move should take no more than four bytes");
+
+            MoveReplay replay = MoveReplay.replay(file);
+            assertEquals(level.toString(), replay.getLevel());
+            assertEquals(3, replay.getRecords());
+            assertEquals(2, replay.getGame().getLives());
+            assertEquals("M", replay.getGame().getCellState(0, 0));
+            assertEquals("0", replay.getGame().getCellState(2, 0));
+
+            Files.writeString(level, Files.readString(level).replace("4 0 M", "4 0 1").replace("0 0 M", "0 0 1"));
+            Files.setLastModifiedTime(level, FileTime.fromMillis(System.currentTimeMillis() + 5000));
+            assertThrows(IOException.class, () -> MoveReplay.replay(file));
+        } finally {
+            Files.deleteIfExists(level);
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * UNIT-109
+     * Test a journal cut short
+     * Ensures that a journal ending part way through a record replays up to its last whole record and
+     * reports that it was truncated, and that a file which is not a journal is refused.
+     */
+    @Test
+    public void testTruncatedJournal() throws Exception {
+        Path file = Files.createTempFile("minesweeper", ".mswj");
+        Minesweeper game = new Minesweeper(LevelGenerator.generate(200, 4000, 3L));
+        try (MoveJournal journal = MoveJournal.create(file, game)) {
+            game.setRecorder(journal);
+            game.makeMove(0, 0, "M");
+            game.makeMove(199, 199, "M"); // A long jump, so its index takes several bytes
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 2));
+
+        MoveReplay replay = MoveReplay.replay(file);
+        assertTrue(replay.isTruncated());
+        assertEquals(1, replay.getRecords());
+        assertEquals("M", replay.getGame().getCellState(0, 0));
+        assertEquals("?", replay.getGame().getCellState(199, 199));
+
+        Files.writeString(file, "5\n0 0 M\n");
+        assertThrows(IOException.class, () -> MoveReplay.replay(file));
+        Files.delete(file);
+    }
+
+    /**
+     * UNIT-113
+     * Test an idle journal is written out
+     * Ensures that moves reach the file within about a second even when no more moves follow them,
+     * and that an undo replayed from the journal undoes the same step it did when recorded.
+     */
+    @Test
+    public void testIdleJournalIsFlushed() throws Exception {
+        Path file = Files.createTempFile("minesweeper", ".mswj");
+        Minesweeper game = new Minesweeper(LevelReader.read("Levels/em1.txt"));
+        try (MoveJournal journal = MoveJournal.create(file, game)) {
+            long header = Files.size(file);
+            game.setRecorder(journal);
+            game.getUndoJournal().beginMove();
+            game.makeMove(0, 0, "M");
+            game.getUndoJournal().beginMove();
+            game.makeMove(2, 0, "G");
+            assertTrue(game.undo());
+            long deadline = System.currentTimeMillis() + 5000;
+            while (Files.size(file) == header && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            assertTrue(Files.size(file) > header, "The timer should write the moves while the game is idle");
+
+            MoveReplay replay = MoveReplay.replay(file); // Read while the journal is still open
+            assertEquals(5, replay.getRecords());
+            assertEquals("M", replay.getGame().getCellState(0, 0));
+            assertEquals("?", replay.getGame().getCellState(2, 0), "The replayed undo should take back the cascade");
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Copies the player layer of a game's board.
+     */
+    private static byte[] playerCells(Minesweeper game) {
+        Board board = game.getCells();
+        byte[] cells = new byte[board.getCellCount()];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = board.getPlayer(i);
+        }
+        return cells;
+    }
+} // End of MoveJournalTest Class
@@ -0,0 +1,229 @@
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * MoveReplay
+ * This class replays a journal written by {@link MoveJournal} against a fresh game, move by move, as fast as
+ * the game can take them. The recorded timings are added up but not waited for.
+ *
+ * The level is rebuilt from the solution in the journal, or read from the named level file and checked against
+ * the journal's checksum so a journal is never replayed against a level that has since been edited. A journal
+ * that ends part way through a record, as one can after a crash, is replayed up to its last whole record and
+ * reported as truncated.
+ *
+ * @version 2.0
+ * @author Paul Carmody
+ */
+public class MoveReplay {
+    private final Minesweeper game; // The game the journal was replayed against
+    private final String level; // The level file named in the journal, or empty if the solution was embedded
+    private final long startedAt; // When the recording started, in milliseconds since the epoch
+    private long records; // Records replayed
+    private long recordedMicros; // Time the recorded game took, from the timestamp deltas
+    private boolean truncated; // Whether the journal ended part way through a record
+
+    /**
+     * Replays the journal in a file.
+     *
+     * @param file The journal file.
+     * @return The finished replay.
+     * @throws IOException if the file cannot be read, is not a journal or its level has changed.
+     */
+    public static MoveReplay replay(Path file) throws IOException {
+        return replay(ByteBuffer.wrap(Files.readAllBytes(file)));
+    }
+
+    /**
+     * Replays a journal already in memory, from the buffer's position to its limit.
+     *
+     * @param journal The journal's bytes.
+     * @return The finished replay.
+     * @throws IOException if the bytes are not a journal or its level has changed.
+     */
+    public static MoveReplay replay(ByteBuffer journal) throws IOException {
+        MoveReplay replay = new MoveReplay(journal);
+        replay.run(journal);
+        return replay;
+    }
+
+    /**
+     * Reads the journal's header and builds the game it was recorded on.
+     *
+     * @param in The journal, positioned at its header.
+     * @throws IOException if the header is not valid or the level does not match.
+     */
+    private MoveReplay(ByteBuffer in) throws IOException {
+        try {
+            if (in.getInt() != MoveJournal.MAGIC) {
+                throw new IOException("Not a move journal");
+            }
+            int version = in.get();
+            if (version != MoveJournal.VERSION) {
+                throw new IOException("Unsupported move journal version " + version);
+            }
+            int flags = in.get();
+            int size = (int) getVarint(in);
+            int checksum = in.getInt();
+            byte[] name = new byte[(int) getVarint(in)];
+            in.get(name);
+            level = new String(name, StandardCharsets.UTF_8);
+            Board board;
+            if ((flags & MoveJournal.EMBEDDED) != 0) {
+                board = new Board(size);
+                for (int i = 0; i < board.getCellCount(); i++) {
+                    board.setSolution(i, in.get());
+                }
+                board.recount();
+            } else {
+                board = LevelRepository.getShared().load(level).newBoard();
+            }
+            if (board.getSize() != size || MoveJournal.solutionChecksum(board) != checksum) {
+                throw new IOException("The level " + (level.isEmpty() ? "in the journal" : level)
+                        + " does not match the one the journal was recorded on");
+            }
+            startedAt = in.getLong();
+            game = new Minesweeper(board);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("The move journal header is incomplete or damaged", e);
+        }
+    }
+
+    /**
+     * Applies every whole record in the journal to the game.
+     *
+     * @param in The journal, positioned after its header.
+     * @throws IOException if a record is not one MoveJournal writes.
+     */
+    private void run(ByteBuffer in) throws IOException {
+        int size = game.getGameSize();
+        int index = 0;
+        while (in.hasRemaining()) {
+            long head;
+            long micros;
+            try {
+                head = getVarint(in);
+                micros = getVarint(in);
+            } catch (BufferUnderflowException e) {
+                truncated = true; // The writer stopped part way through this record
+                return;
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Damaged record in the move journal after " + records + " records", e);
+            }
+            int kind = (int) head & 3;
+            if (kind == MoveJournal.GUESS || kind == MoveJournal.FLAG) {
+                long zigzag = head >>> 2;
+                index += (int) (zigzag >>> 1) ^ -(int) (zigzag & 1);
+                game.makeMove(index / size, index % size, kind == MoveJournal.FLAG ? "M" : "G");
+            } else if (kind == MoveJournal.RESET) {
+                game.reset();
+            } else if ((head >>> 2) == MoveJournal.UNDO) {
+                game.undo();
+            } else if ((head >>> 2) == MoveJournal.REDO) {
+                game.redo();
+            } else if ((head >>> 2) == MoveJournal.BEGIN_MOVE) {
+                game.getUndoJournal().beginMove();
+            } else {
+                throw new IOException("Unknown record in the move journal after " + records + " records");
+            }
+            records++;
+            recordedMicros += micros;
+        }
+    }
+
+    /**
+     * Reads a varint written by MoveJournal.
+     *
+     * @param in The buffer to read from.
+     * @return The number.
+     * @throws BufferUnderflowException if the buffer ends before the varint does.
+     */
+    static long getVarint(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Varint longer than 64 bits");
+    }
+
+    /**
+     * Returns the game after the whole journal has been replayed.
+     *
+     * @return The game.
+     */
+    public Minesweeper getGame() {
+        return game;
+    }
+
+    /**
+     * Returns the level file named in the journal.
+     *
+     * @return The level's file name, or an empty string if the journal holds its own copy of the level.
+     */
+    public String getLevel() {
+        return level;
+    }
+
+    /**
+     * Returns when the recording started.
+     *
+     * @return Milliseconds since the epoch.
+     */
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    /**
+     * Returns the number of moves, undo steps, resets, undos and redos replayed.
+     *
+     * @return The records replayed.
+     */
+    public long getRecords() {
+        return records;
+    }
+
+    /**
+     * Returns how long the recorded game took, from its first record to its last.
+     *
+     * @return The recorded time in microseconds.
+     */
+    public long getRecordedMicros() {
+        return recordedMicros;
+    }
+
+    /**
+     * Returns whether the journal ended part way through a record.
+     *
+     * @return true if the last record was incomplete and skipped.
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * Replays each journal named on the command line and reports how it ended and how fast it replayed.
+     *
+     * @param args The journal files.
+     * @throws IOException if a journal cannot be read.
+     */
+    public static void main(String[] args) throws IOException {
+        for (String arg : args) {
+            ByteBuffer journal = ByteBuffer.wrap(Files.readAllBytes(Paths.get(arg)));
+            long start = System.nanoTime();
+            MoveReplay replay = replay(journal);
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("%s: %d records in %.1f ms (%.0f per second), recorded over %.1f s%s%n  %s, lives %d%n",
+                    arg, replay.getRecords(), elapsed / 1e6, replay.getRecords() * 1e9 / Math.max(elapsed, 1),
+                    replay.getRecordedMicros() / 1e6, replay.isTruncated() ? ", truncated" : "",
+                    replay.getGame().checkWin(), replay.getGame().getLives());
+        }
+    }
+} // End of MoveReplay Class
@@ -0,0 +1,22 @@
+import java.util.SplittableRandom;
+
+/**
+ * RandomBot
+ * A bot that guesses hidden cells at random. It is the baseline other strategies are measured against.
+ *
+ * @version 2.0
+ * @author Paul Carmody
+ */
+public class RandomBot implements Bot {
+    private SplittableRandom random; // The random sequence for the current game
+
+    @Override
+    public void newGame(Minesweeper game, SplittableRandom random) {
+        this.random = random;
+    }
+
+    @Override
+    public int nextGuess(Minesweeper game) {
+        return Bot.randomHidden(game.getCells(), random, null);
+    }
+} // End of RandomBot Class
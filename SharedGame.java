@@ -0,0 +1,261 @@
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * SharedGame
+ * This class is one board played by several players at once, for cooperative games where any number of
+ * threads or connections make moves on the same level. {@link Minesweeper} and {@link Board} are written for
+ * a single player and are not thread-safe; this class holds its own copy of the player's view instead.
+ *
+ * The view is packed four cells to an int in an AtomicIntegerArray, one byte per cell using the Board codes,
+ * and every cell only ever changes by compare-and-set from the state the move expected to find. Whichever
+ * player's compare-and-set succeeds owns that change: only the player who uncovers a mine loses a life for it,
+ * and only the player who uncovers a safe cell counts it and carries a cascade on from it. Cascades started by
+ * different players can run into each other freely, since each cell is claimed exactly once. No locks are taken.
+ *
+ * The solution is copied when the game is constructed and never changes, so it is read without synchronisation.
+ *
+ * @version 2.0
+ * @author Paul Carmody
+ */
+public class SharedGame {
+    private static final int HIDDEN_WORD = 0x01010101 * Board.HIDDEN; // Four hidden cells packed into one int
+
+    private final int size; // The width and height of the board
+    private final int cellCount; // The number of cells on the board
+    private final byte[] solution; // The level's answer for every cell, never changed
+    private final AtomicIntegerArray cells; // The player's view, four cells per int, lowest byte first
+    private final AtomicInteger lives; // Lives the players have left between them
+    private final AtomicInteger safeRemaining; // Safe cells still to be uncovered
+    private final AtomicInteger minesRevealed; // Mines stepped on
+
+    /**
+     * Constructs a shared game of a level, with every cell hidden.
+     *
+     * @param level The board whose solution is played. Only its solution is read, and it is not kept.
+     * @param lives The lives the players share.
+     */
+    public SharedGame(Board level, int lives) {
+        size = level.getSize();
+        cellCount = level.getCellCount();
+        solution = new byte[cellCount];
+        int safe = 0;
+        for (int i = 0; i < cellCount; i++) {
+            solution[i] = level.getSolution(i);
+            if (solution[i] != Board.MINE) {
+                safe++;
+            }
+        }
+        int[] packed = new int[(cellCount + 3) >>> 2];
+        Arrays.fill(packed, HIDDEN_WORD);
+        cells = new AtomicIntegerArray(packed);
+        this.lives = new AtomicInteger(lives);
+        safeRemaining = new AtomicInteger(safe);
+        minesRevealed = new AtomicInteger();
+    }
+
+    /**
+     * Makes a move for one player, in the same way as {@link Minesweeper#makeMove}.
+     * Flagging only changes hidden cells, and guessing a cell that is already uncovered changes nothing.
+     *
+     * @param row The row of the move.
+     * @param col The column of the move.
+     * @param guess The player's guess, either "M" for mine or "G" for guess.
+     * @return A message indicating the result of the move.
+     */
+    public String makeMove(int row, int col, String guess) {
+        int index = index(row, col);
+        if (guess.equals("M")) {
+            flag(index);
+            return "You have flagged a tile.";
+        } else if (guess.equals("G")) {
+            if (guess(index) < 0) {
+                return "Oh no! You have lost one life. \nNew life total: " + lives.get();
+            }
+            return "Phew! You survived this time!";
+        } else {
+            return "Nope - this was not a mine";
+        }
+    }
+
+    /**
+     * Flags a hidden cell.
+     *
+     * @param index The index of the cell.
+     * @return true if this call flagged it, false if it was not hidden.
+     */
+    public boolean flag(int index) {
+        return transition(index, Board.HIDDEN, Board.FLAGGED);
+    }
+
+    /**
+     * Uncovers a cell, hidden or flagged, and if it is safe and has no neighbouring mines the connected
+     * region of empty cells around it, as {@link Board#reveal} does. If the cell is a mine, the player who
+     * uncovers it loses one life; a cell that someone else has already uncovered costs nothing.
+     *
+     * @param index The index of the cell.
+     * @return The number of cells this call uncovered, 0 if the cell was already uncovered, or -1 if this
+     *         call uncovered a mine.
+     */
+    public int guess(int index) {
+        byte answer = solution[index];
+        if (!transition(index, Board.HIDDEN, answer) && !transition(index, Board.FLAGGED, answer)) {
+            return 0; // Someone has already uncovered it
+        }
+        if (answer == Board.MINE) {
+            minesRevealed.incrementAndGet();
+            lives.decrementAndGet();
+            return -1;
+        }
+        int[] queue = new int[16]; // Each call walks its own part of the region
+        queue[0] = index;
+        int head = 0;
+        int tail = 1;
+        while (head < tail) {
+            int cell = queue[head++];
+            byte code = solution[cell];
+            if (code != 0 && code != Board.EMPTY) {
+                continue; // Numbered cells form the border of the region and are not expanded
+            }
+            int row = cell / size;
+            int col = cell % size;
+            for (int r = Math.max(0, row - 1); r <= Math.min(size - 1, row + 1); r++) {
+                for (int c = Math.max(0, col - 1); c <= Math.min(size - 1, col + 1); c++) {
+                    int next = r * size + c;
+                    if (solution[next] != Board.MINE && transition(next, Board.HIDDEN, solution[next])) {
+                        if (tail == queue.length) {
+                            queue = Arrays.copyOf(queue, Math.min(queue.length * 2, cellCount));
+                        }
+                        queue[tail++] = next; // Only the player who claimed the cell carries the cascade on from it
+                    }
+                }
+            }
+        }
+        safeRemaining.addAndGet(-tail); // Once per move rather than once per cell, to keep the counter cool
+        return tail;
+    }
+
+    /**
+     * Checks the state of the game.
+     *
+     * @return "won" if every safe cell is uncovered, "lives" if the lives have run out, or "continue".
+     */
+    public String checkWin() {
+        if (lives.get() <= 0) {
+            return "lives";
+        }
+        if (safeRemaining.get() > 0) {
+            return "continue";
+        }
+        return "won";
+    }
+
+    /**
+     * Returns the player's view of one cell.
+     *
+     * @param index The index of the cell.
+     * @return The cell's code, as used by Board.
+     */
+    public byte getPlayer(int index) {
+        return (byte) (cells.get(index >>> 2) >>> ((index & 3) << 3));
+    }
+
+    /**
+     * Gets the current state of an individual cell.
+     *
+     * @param row The row of the cell.
+     * @param col The column of the cell.
+     * @return The state of the cell, as shown to the players.
+     */
+    public String getCellState(int row, int col) {
+        return Board.decode(getPlayer(index(row, col)));
+    }
+
+    /**
+     * Returns the solution of one cell.
+     *
+     * @param index The index of the cell.
+     * @return The cell's code in the solution.
+     */
+    public byte getSolution(int index) {
+        return solution[index];
+    }
+
+    /**
+     * Returns the width and height of the board.
+     *
+     * @return The board size.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the lives the players have left.
+     *
+     * @return The lives, which may be below 0 if players stepped on mines at the same moment as the last life was lost.
+     */
+    public int getLives() {
+        return lives.get();
+    }
+
+    /**
+     * Returns the number of safe cells still to be uncovered.
+     *
+     * @return The safe cells remaining.
+     */
+    public int getSafeRemaining() {
+        return safeRemaining.get();
+    }
+
+    /**
+     * Returns the number of mines that have been stepped on.
+     *
+     * @return The mines revealed, which is also the number of lives lost.
+     */
+    public int getMinesRevealed() {
+        return minesRevealed.get();
+    }
+
+    /**
+     * Converts a row and column into a cell index.
+     *
+     * @param row The row of the cell.
+     * @param col The column of the cell.
+     * @return The index of the cell.
+     * @throws IndexOutOfBoundsException if the row or column is outside the board.
+     */
+    public int index(int row, int col) {
+        Objects.checkIndex(row, size);
+        Objects.checkIndex(col, size);
+        return row * size + col;
+    }
+
+    /**
+     * Changes one cell from an expected state to a new one, retrying only while other cells packed into
+     * the same int are changing underneath it.
+     *
+     * @param index The index of the cell.
+     * @param from The state the cell must be in.
+     * @param to The state to change it to.
+     * @return true if this call changed the cell, false if it was not in the expected state.
+     */
+    private boolean transition(int index, byte from, byte to) {
+        int word = index >>> 2;
+        int shift = (index & 3) << 3;
+        int mask = 0xFF << shift;
+        int expected = (from & 0xFF) << shift;
+        int replacement = (to & 0xFF) << shift;
+        while (true) {
+            int current = cells.get(word);
+            if ((current & mask) != expected) {
+                return false;
+            }
+            if (cells.compareAndSet(word, current, (current & ~mask) | replacement)) {
+                return true;
+            }
+        }
+    }
+} // End of SharedGame Class
@@ -0,0 +1,213 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The test class SharedGameTest.
+ *
+ * @version 2.0
+ */
+public class SharedGameTest {
+
+    /**
+     * UNIT-093
+     * Test shared game moves
+     * Ensures that a shared game answers moves with the same messages as a single-player game.
+     */
+    @Test
+    public void testMoves() throws Exception {
+        SharedGame game = new SharedGame(LevelReader.read("Levels/em1.txt"), 3);
+        assertEquals("You have flagged a tile.", game.makeMove(0, 4, "M"));
+        assertEquals("M", game.getCellState(0, 4));
+        assertEquals("Phew! You survived this time!", game.makeMove(1, 1, "G"));
+        assertEquals("1", game.getCellState(1, 1));
+        assertEquals("Oh no! You have lost one life. \nNew life total: 2", game.makeMove(0, 0, "G"));
+        assertEquals("Phew! You survived this time!", game.makeMove(0, 0, "G"), "A mine already stepped on should cost nothing");
+        assertEquals(2, game.getLives());
+        assertEquals("continue", game.checkWin());
+        assertThrows(IndexOutOfBoundsException.class, () -> game.makeMove(5, 0, "G"));
+    }
+
+    /**
+     * UNIT-094
+     * Test players racing for the same cell
+     * Ensures that many players stepping on one mine lose one life between them and that many players
+     * opening one empty region uncover each cell exactly once.
+     */
+    @Test
+    public void testSameCellRace() throws Exception {
+        Board level = LevelGenerator.generate(64, 200, 5L);
+        int mine = mineIndex(level);
+        int empty = emptyIndex(level);
+        SharedGame game = new SharedGame(level, 3);
+        int[] mineResults = race(64, () -> game.guess(mine));
+        int[] emptyResults = race(64, () -> game.guess(empty));
+        assertEquals(1, count(mineResults, -1), "Exactly one player should step on the mine");
+        assertEquals(2, game.getLives(), "Only one life should be lost");
+        int winners = 0;
+        int uncovered = 0;
+        for (int result : emptyResults) {
+            if (result > 0) {
+                winners++;
+                uncovered += result;
+            }
+        }
+        assertEquals(1, winners, "Exactly one player should open the region");
+        assertEquals(level.getSafeCells() - game.getSafeRemaining(), uncovered, "Each cell should be counted once");
+        assertRevealedConsistently(level, game);
+    }
+
+    /**
+     * UNIT-095
+     * Test shared board under concurrent writers
+     * Ensures that with 1 to 64 players guessing and flagging at once, no life is lost twice, no cell is
+     * uncovered twice, every cascade is complete and the counters agree with the board. Its throughput is
+     * measured by the sharedMove benchmark instead.
+     */
+    @Test
+    public void testConcurrentWriters() throws Exception {
+        int size = 256;
+        int moves = 200_000; // Shared out between the players
+        Board level = LevelGenerator.generate(size, size * size / 8, 11L);
+        for (int players = 1; players <= 64; players *= 2) {
+            SharedGame game = new SharedGame(level, Integer.MAX_VALUE);
+            ExecutorService pool = Executors.newFixedThreadPool(players);
+            List<Callable<long[]>> workers = new ArrayList<>();
+            for (int p = 0; p < players; p++) {
+                SplittableRandom random = new SplittableRandom(players * 1000L + p);
+                int share = moves / players;
+                workers.add(() -> play(game, random, share));
+            }
+            long uncovered = 0;
+            long minesHit = 0;
+            for (Future<long[]> result : pool.invokeAll(workers)) {
+                uncovered += result.get()[0];
+                minesHit += result.get()[1];
+            }
+            pool.shutdown();
+
+            assertEquals(game.getMinesRevealed(), minesHit, "Each mine should be stepped on by one player");
+            assertEquals(Integer.MAX_VALUE - minesHit, game.getLives(), "Each mine should cost exactly one life");
+            assertEquals(level.getSafeCells() - game.getSafeRemaining(), uncovered, "Each safe cell should be counted once");
+            assertRevealedConsistently(level, game);
+        }
+    }
+
+    /**
+     * Makes random moves, nine guesses to every flag.
+     *
+     * @return The cells this player uncovered and the mines this player stepped on.
+     */
+    private static long[] play(SharedGame game, SplittableRandom random, int moves) {
+        int cells = game.getSize() * game.getSize();
+        long uncovered = 0;
+        long minesHit = 0;
+        for (int i = 0; i < moves; i++) {
+            int cell = random.nextInt(cells);
+            if (random.nextInt(10) == 0) {
+                game.flag(cell);
+                continue;
+            }
+            int result = game.guess(cell);
+            if (result < 0) {
+                minesHit++;
+            } else {
+                uncovered += result;
+            }
+        }
+        return new long[] {uncovered, minesHit};
+    }
+
+    /**
+     * Checks every cell against the solution and the counters against the board.
+     */
+    private static void assertRevealedConsistently(Board level, SharedGame game) {
+        int size = level.getSize();
+        int safeHidden = 0;
+        int minesShown = 0;
+        for (int i = 0; i < level.getCellCount(); i++) {
+            byte code = game.getPlayer(i);
+            if (code == Board.HIDDEN || code == Board.FLAGGED) {
+                if (!level.isMine(i)) {
+                    safeHidden++;
+                }
+                continue;
+            }
+            assertEquals(level.getSolution(i), code, "Cell " + i + " should show its solution");
+            if (code == Board.MINE) {
+                minesShown++;
+            } else if (code == 0 || code == Board.EMPTY) {
+                int row = i / size;
+                int col = i % size;
+                for (int r = Math.max(0, row - 1); r <= Math.min(size - 1, row + 1); r++) {
+                    for (int c = Math.max(0, col - 1); c <= Math.min(size - 1, col + 1); c++) {
+                        assertNotEquals(Board.HIDDEN, game.getPlayer(r * size + c), "The cascade from cell " + i + " is incomplete");
+                    }
+                }
+            }
+        }
+        assertEquals(safeHidden, game.getSafeRemaining());
+        assertEquals(minesShown, game.getMinesRevealed());
+    }
+
+    /**
+     * Starts the same move on many threads at once.
+     *
+     * @return Each thread's result.
+     */
+    private static int[] race(int threads, Callable<Integer> move) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            results.add(pool.submit(() -> {
+                ready.countDown();
+                go.await();
+                return move.call();
+            }));
+        }
+        ready.await();
+        go.countDown();
+        int[] values = new int[threads];
+        for (int i = 0; i < threads; i++) {
+            values[i] = results.get(i).get();
+        }
+        pool.shutdown();
+        return values;
+    }
+
+    private static int mineIndex(Board level) {
+        int index = 0;
+        while (!level.isMine(index)) {
+            index++;
+        }
+        return index;
+    }
+
+    private static int emptyIndex(Board level) {
+        int index = 0;
+        while (level.getSolution(index) != 0 && level.getSolution(index) != Board.EMPTY) {
+            index++;
+        }
+        return index;
+    }
+
+    private static int count(int[] values, int value) {
+        int count = 0;
+        for (int v : values) {
+            if (v == value) {
+                count++;
+            }
+        }
+        return count;
+    }
+} // End of SharedGameTest Class
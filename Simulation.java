@@ -0,0 +1,244 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Simulation
+ * This class plays large numbers of games headlessly, with a {@link Bot} choosing every move, to compare
+ * strategies and catch regressions. No console, Swing or file I/O happens while games are played.
+ *
+ * Games are shared out to a fixed pool of threads, one bot per thread. Each thread keeps its own totals
+ * and latency histogram, which are added together once every game is finished, so the threads share
+ * nothing but the counter handing out game numbers. Game n is always generated and played from the same
+ * seed, so a run can be repeated exactly with any number of threads.
+ *
+ * @version 2.0
+ * @author Paul Carmody
+ */
+public class Simulation {
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L; // Spreads game numbers across the seed space
+
+    private int size; // Width and height of every board
+    private int mines; // Mines on every board
+    private long seed; // Seed the game seeds are derived from
+    private Supplier<Bot> bots; // Creates one bot per thread
+    private int threads; // Number of threads playing games
+
+    /**
+     * Constructs a simulation.
+     *
+     * @param size The width and height of every board.
+     * @param mines The number of mines on every board.
+     * @param seed The seed for the whole run.
+     * @param bots Creates the bot each thread plays with.
+     * @param threads The number of threads playing games.
+     */
+    public Simulation(int size, int mines, long seed, Supplier<Bot> bots, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one thread is needed");
+        }
+        this.size = size;
+        this.mines = mines;
+        this.seed = seed;
+        this.bots = bots;
+        this.threads = threads;
+    }
+
+    /**
+     * Plays the given number of games.
+     *
+     * @param games The number of games to play.
+     * @return The combined results.
+     * @throws IllegalStateException if a bot fails or the run is interrupted.
+     */
+    public Report run(int games) {
+        AtomicInteger next = new AtomicInteger(); // The next game number to hand out
+        List<Callable<Report>> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            workers.add(() -> play(next, games, bots.get()));
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        try {
+            Report total = new Report();
+            for (Future<Report> result : pool.invokeAll(workers)) {
+                total.add(result.get());
+            }
+            total.elapsedNanos = System.nanoTime() - start;
+            return total;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A simulation thread failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("The simulation was interrupted", e);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Plays games until none are left to hand out.
+     *
+     * @param next The counter handing out game numbers.
+     * @param games The number of games in the run.
+     * @param bot This thread's bot.
+     * @return This thread's totals.
+     */
+    private Report play(AtomicInteger next, int games, Bot bot) {
+        Report report = new Report();
+        for (int game = next.getAndIncrement(); game < games; game = next.getAndIncrement()) {
+            playGame(game, bot, report);
+        }
+        return report;
+    }
+
+    /**
+     * Plays one game to the end.
+     *
+     * @param number The game number, which decides its board and random sequence.
+     * @param bot The bot choosing the moves.
+     * @param report The totals to add the game to.
+     */
+    private void playGame(int number, Bot bot, Report report) {
+        SplittableRandom random = new SplittableRandom(seed ^ (number * GOLDEN));
+        Board board = LevelGenerator.generate(size, mines, random.nextLong());
+        Minesweeper game = new Minesweeper(board);
+        int startLives = game.getLives();
+        bot.newGame(game, random);
+        while (game.getLives() > 0 && board.getSafeRemaining() > 0) {
+            int guess = bot.nextGuess(game);
+            if (guess < 0) {
+                break; // The bot has given up
+            }
+            long moveStart = System.nanoTime();
+            game.makeMove(guess / size, guess % size, "G");
+            report.moveLatency.record(System.nanoTime() - moveStart);
+        }
+        report.games++;
+        report.livesLost += startLives - game.getLives();
+        if (game.getLives() > 0 && board.getSafeRemaining() == 0) {
+            report.wins++;
+        }
+    }
+
+    /**
+     * The results of a simulation run.
+     */
+    public static class Report {
+        private long games; // Games played
+        private long wins; // Games won
+        private long livesLost; // Lives lost across every game
+        private long elapsedNanos; // Wall-clock time of the whole run
+        private LatencyHistogram moveLatency = new LatencyHistogram(); // Time taken by each move
+
+        /**
+         * Adds another thread's totals to these.
+         */
+        private void add(Report other) {
+            games += other.games;
+            wins += other.wins;
+            livesLost += other.livesLost;
+            moveLatency.add(other.moveLatency);
+        }
+
+        /**
+         * Returns the number of games played.
+         *
+         * @return The number of games.
+         */
+        public long getGames() {
+            return games;
+        }
+
+        /**
+         * Returns the number of games won.
+         *
+         * @return The number of wins.
+         */
+        public long getWins() {
+            return wins;
+        }
+
+        /**
+         * Returns the share of games won.
+         *
+         * @return The win rate, from 0 to 1.
+         */
+        public double getWinRate() {
+            return games == 0 ? 0 : (double) wins / games;
+        }
+
+        /**
+         * Returns the lives lost per game, on average.
+         *
+         * @return The average lives lost.
+         */
+        public double getAverageLivesLost() {
+            return games == 0 ? 0 : (double) livesLost / games;
+        }
+
+        /**
+         * Returns how many games were played per second of wall-clock time.
+         *
+         * @return The games per second.
+         */
+        public double getGamesPerSecond() {
+            return elapsedNanos == 0 ? 0 : games * 1e9 / elapsedNanos;
+        }
+
+        /**
+         * Returns the number of moves made across every game.
+         *
+         * @return The number of moves.
+         */
+        public long getMoves() {
+            return moveLatency.getCount();
+        }
+
+        /**
+         * Returns the time taken by each move.
+         *
+         * @return The histogram of move durations.
+         */
+        public LatencyHistogram getMoveLatency() {
+            return moveLatency;
+        }
+
+        /**
+         * Summarises the run in a few lines.
+         *
+         * @return The summary.
+         */
+        @Override
+        public String toString() {
+            return String.format("Games: %d in %.2fs (%.0f games/s)%n"
+                    + "Win rate: %.2f%%%n"
+                    + "Average lives lost: %.3f%n"
+                    + "Moves: %d, latency p50 %dns, p90 %dns, p99 %dns, max %dns",
+                    games, elapsedNanos / 1e9, getGamesPerSecond(), getWinRate() * 100, getAverageLivesLost(),
+                    getMoves(), moveLatency.getPercentile(50), moveLatency.getPercentile(90),
+                    moveLatency.getPercentile(99), moveLatency.getMax());
+        }
+    }
+
+    /**
+     * Runs a simulation from the command line and prints the report once it is finished.
+     *
+     * @param args games, size, mines, threads and bot ("solver" or "random"), all optional.
+     */
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        int size = args.length > 1 ? Integer.parseInt(args[1]) : 9;
+        int mines = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        Supplier<Bot> bots = args.length > 4 && args[4].equalsIgnoreCase("random") ? RandomBot::new : SolverBot::new;
+        System.out.println(new Simulation(size, mines, 42L, bots, threads).run(games));
+    }
+} // End of Simulation Class
@@ -0,0 +1,53 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The test class SimulationTest.
+ *
+ * @version 2.0
+ */
+public class SimulationTest {
+
+    /**
+     * UNIT-081
+     * Test simulation totals
+     * Ensures that every game is played to the end and counted once.
+     */
+    @Test
+    public void testTotals() {
+        Simulation.Report report = new Simulation(9, 10, 1L, SolverBot::new, 2).run(300);
+        assertEquals(300, report.getGames(), "Every game should be played");
+        assertTrue(report.getWins() <= 300, "There cannot be more wins than games");
+        assertTrue(report.getAverageLivesLost() >= 0 && report.getAverageLivesLost() <= 3, "No game can lose more than 3 lives");
+        assertTrue(report.getMoves() >= 300, "Every game needs at least one move");
+        assertTrue(report.getGamesPerSecond() > 0, "The rate should be measured");
+        assertTrue(report.getMoveLatency().getPercentile(50) <= report.getMoveLatency().getPercentile(99), "Percentiles should not decrease");
+    }
+
+    /**
+     * UNIT-082
+     * Test simulation is repeatable
+     * Ensures that the same seed gives the same results whatever the number of threads.
+     */
+    @Test
+    public void testRepeatableAcrossThreads() {
+        Simulation.Report one = new Simulation(9, 10, 7L, SolverBot::new, 1).run(200);
+        Simulation.Report three = new Simulation(9, 10, 7L, SolverBot::new, 3).run(200);
+        assertEquals(one.getWins(), three.getWins(), "The same games should be won");
+        assertEquals(one.getAverageLivesLost(), three.getAverageLivesLost(), 1e-12, "The same lives should be lost");
+        assertEquals(one.getMoves(), three.getMoves(), "The same moves should be made");
+    }
+
+    /**
+     * UNIT-083
+     * Test solver bot beats random guessing
+     * Ensures that the bots can be swapped and that the solver-driven bot wins more often.
+     */
+    @Test
+    public void testSolverBotBeatsRandomBot() {
+        Simulation.Report random = new Simulation(9, 10, 3L, RandomBot::new, 2).run(300);
+        Simulation.Report solver = new Simulation(9, 10, 3L, SolverBot::new, 2).run(300);
+        assertTrue(solver.getWinRate() > random.getWinRate(),
+                "Solver win rate " + solver.getWinRate() + " should beat random " + random.getWinRate());
+    }
+} // End of SimulationTest Class
@@ -1,47 +1,88 @@
-import java.util.Observable;
-
 /**
  * Slot
- * This class handles the state of each slot in the game. Extending Observable for use in the GUI version of the game.
- * 
+ * This class is a view of one cell of the game. It holds only the board the cell lives on and the cell's
+ * index, and reads and writes go straight to the board's state byte, so a Slot can be created whenever one
+ * is asked for and thrown away again without the board keeping a Slot per cell. Two Slots of the same cell are equal.
+ *
  * @version 2.0
  * @authors Lauren Scott, Paul Carmody
  */
-public class Slot extends Observable {
-    private String state; // The current state of the slot
-    private int row, col; // The row and column number of the slot 
+public class Slot {
+    private final Board board; // The board holding the cell
+    private final int index; // The index of the cell on the board
 
     /**
      * Constructor of the class Slot when importing the level file.
-     * This creates the slot and denotes where it is placed in the game board.
-     * 
+     * This creates a standalone slot, backed by a board of its own one cell.
+     *
      * @param col - the slot's column number
      * @param row - the slot's row number
      * @param state - the state that is in that cell
      */
     public Slot(int col, int row, String state) {
-        this.row = row;
-        this.col = col;
-        this.state = state; // changed status to state for consistent coding purposes.
+        this.board = new Board(1);
+        this.index = 0;
+        setState(state);
+    }
+
+    /**
+     * Constructor of the class Slot as a view of a cell on a board.
+     * The slot holds no state of its own; reads and writes go straight to the board.
+     *
+     * @param board - the board holding the cell
+     * @param row - the slot's row number
+     * @param col - the slot's column number
+     */
+    public Slot(Board board, int row, int col) {
+        this.board = board;
+        this.index = board.index(row, col);
     }
 
     /**
      * This provides the current state of the slot.
-     * 
+     *
      * @return the current state of the slot
      */
     public String getState() {
-        return state;
+        return Board.decode(board.getPlayer(index));
     }
 
     /**
-     * Sets the state of the slot and notifies observers of the change.
-     * 
+     * Sets the state of the slot on the board, where "M" is a flag.
+     *
      * @param state - the new state of the slot
      */
     public void setState(String state) {
-        this.state = state;
-        setChanged();
-        notifyObservers(); // Notify observers about the change in state
+        board.setPlayer(index, Board.encodePlayer(state));
+    }
+
+    /**
+     * Returns the index of the cell this slot shows.
+     *
+     * @return the cell index, row * size + col
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Checks whether another object is a slot of the same cell.
+     *
+     * @param other - the object to compare with
+     * @return true if both are views of the same cell on the same board
+     */
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Slot && ((Slot) other).board == board && ((Slot) other).index == index;
+    }
+
+    /**
+     * Returns a hash code matching equals.
+     *
+     * @return the hash code
+     */
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(board) * 31 + index;
     }
 }//End of class Slot
@@ -32,4 +32,26 @@ public class SlotTest {
         slot.setState("1");
         assertEquals("1", slot.getState(), "State should be '1' after setting it");
     }
+
+    /**
+     * UNIT-101
+     * Test slots as views of a game
+     * Ensures that slots fetched from a game are equal views of its cells that read and write the board
+     * directly, and that standalone slots keep their own state.
+     */
+    @Test
+    public void testSlotViewsOfGame() {
+        Minesweeper game = new Minesweeper();
+        Slot first = game.getSlot(2, 3);
+        Slot second = game.getSlot(2, 3);
+        assertEquals(first, second, "Two views of the same cell should be equal");
+        assertEquals(first.hashCode(), second.hashCode());
+        assertNotEquals(first, game.getSlot(3, 2), "Views of different cells should differ");
+        assertEquals(2 * game.getGameSize() + 3, first.getIndex());
+
+        first.setState("M");
+        assertEquals("M", second.getState(), "A write through one view should be seen by the other");
+        assertEquals("M", game.getCellState(2, 3), "A write through a view should reach the game");
+        assertEquals("?", slot.getState(), "A standalone slot should not share the game's cells");
+    }
 }
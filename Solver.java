@@ -0,0 +1,406 @@
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Solver
+ * This class works out which hidden cells are certainly safe and which are certainly mines,
+ * using only what the player can see. It watches the game and keeps its deductions up to date
+ * incrementally: after a move only the numbers around the changed cells are looked at again.
+ *
+ * Two rules are applied until nothing more follows:
+ * - single cell: if a number already touches as many mines as it shows, its other hidden neighbours
+ *   are safe; if its hidden neighbours are exactly as many as its missing mines, they are all mines.
+ * - subset: if the hidden neighbours of one number are all neighbours of a second number, the cells
+ *   only the second number touches hold the difference between their missing mines.
+ *
+ * Flagged cells are treated as hidden, since a flag is only the player's guess.
+ *
+ * @version 2.0
+ * @author Paul Carmody
+ */
+public class Solver implements GameListener {
+    private Minesweeper theGame; // The game being solved
+    private BitSet known = new BitSet(); // Cells the player has uncovered
+    private BitSet frontier = new BitSet(); // Uncovered numbers that still touch undecided hidden cells
+    private BitSet safe = new BitSet(); // Hidden cells proven safe
+    private BitSet mines = new BitSet(); // Hidden cells proven to be mines
+    private BitSet queued = new BitSet(); // Numbers waiting in the work queue
+    private int[] queue = new int[64]; // Numbers to look at again, used as a circular buffer
+    private int head; // Next number to take from the queue
+    private int count; // Numbers in the queue
+    private int[] changed = new int[64]; // Cells reported changed since the last solve
+    private int changedCount; // Number of entries in changed
+    private boolean rescan = true; // True if the whole board must be looked at again
+    private int[] unknown = new int[8]; // Undecided neighbours of the number being looked at
+    private int[] other = new int[8]; // Undecided neighbours of the number it is compared with
+
+    /**
+     * Constructs a solver for a game and starts watching it for changes.
+     *
+     * @param theGame The Minesweeper game to solve.
+     */
+    public Solver(Minesweeper theGame) {
+        this.theGame = theGame;
+        theGame.getEvents().subscribe(this, null, GameEvent.Kind.CELLS_CHANGED, GameEvent.Kind.BOARD_REPLACED);
+    }
+
+    /**
+     * Notes which cells a change in the game touched. The work is done later, in solve.
+     *
+     * @param event The event listing the changed cells, or without any if the whole board may have changed.
+     */
+    @Override
+    public void gameChanged(GameEvent event) {
+        BoardChange change = event.getCells();
+        if (change == null) {
+            rescan = true;
+            return;
+        }
+        if (rescan) {
+            return; // Everything will be looked at anyway
+        }
+        int[] cells = change.getCells();
+        if (changedCount + cells.length > changed.length) {
+            changed = Arrays.copyOf(changed, Math.max(changed.length * 2, changedCount + cells.length));
+        }
+        System.arraycopy(cells, 0, changed, changedCount, cells.length);
+        changedCount += cells.length;
+    }
+
+    /**
+     * Brings the deductions up to date with the board.
+     */
+    public void solve() {
+        Board board = theGame.getCells();
+        if (!rescan) {
+            for (int i = 0; i < changedCount && !rescan; i++) {
+                cellChanged(board, changed[i]);
+            }
+        }
+        changedCount = 0;
+        if (rescan) {
+            rescanAll(board);
+        }
+        propagate(board);
+    }
+
+    /**
+     * Returns the hidden cells that are certainly safe.
+     *
+     * @return The cell indices (row * size + col), in order.
+     */
+    public int[] getSafeCells() {
+        solve();
+        return safe.stream().toArray();
+    }
+
+    /**
+     * Returns the hidden cells that are certainly mines, including any the player has already flagged.
+     *
+     * @return The cell indices (row * size + col), in order.
+     */
+    public int[] getMineCells() {
+        solve();
+        return mines.stream().toArray();
+    }
+
+    /**
+     * Returns one hidden cell that is certainly safe, without building the whole list.
+     *
+     * @return The lowest such cell index, or -1 if there is none.
+     */
+    public int nextSafeCell() {
+        solve();
+        return safe.nextSetBit(0);
+    }
+
+    /**
+     * Checks whether a hidden cell is certainly a mine, as of the last solve.
+     *
+     * @param index The cell index.
+     * @return true if the cell was proven to be a mine.
+     */
+    public boolean isCertainMine(int index) {
+        return mines.get(index);
+    }
+
+    /**
+     * Returns the uncovered numbers that still touch undecided hidden cells.
+     *
+     * @return The number of cells on the frontier.
+     */
+    public int getFrontierSize() {
+        solve();
+        return frontier.cardinality();
+    }
+
+    /**
+     * Updates what is known about one changed cell and queues the numbers around it.
+     *
+     * @param board The board being solved.
+     * @param cell The changed cell.
+     */
+    private void cellChanged(Board board, int cell) {
+        if (isUnknown(board.getPlayer(cell))) {
+            if (known.get(cell)) {
+                rescan = true; // An uncovered cell was hidden again, e.g. by undo, so deductions may no longer hold
+            }
+            return; // A flag being placed or removed tells the solver nothing
+        }
+        known.set(cell);
+        safe.clear(cell);
+        mines.clear(cell);
+        queueAround(board, cell, true);
+    }
+
+    /**
+     * Forgets every deduction and queues every uncovered number on the board.
+     *
+     * @param board The board being solved.
+     */
+    private void rescanAll(Board board) {
+        known.clear();
+        frontier.clear();
+        safe.clear();
+        mines.clear();
+        queued.clear();
+        head = 0;
+        count = 0;
+        for (int cell = 0; cell < board.getCellCount(); cell++) {
+            byte code = board.getPlayer(cell);
+            if (!isUnknown(code)) {
+                known.set(cell);
+                if (number(code) >= 0) {
+                    enqueue(cell);
+                }
+            }
+        }
+        rescan = false;
+    }
+
+    /**
+     * Applies the rules to queued numbers until no more deductions follow.
+     *
+     * @param board The board being solved.
+     */
+    private void propagate(Board board) {
+        while (count > 0) {
+            int cell = queue[head];
+            head = (head + 1) % queue.length;
+            count--;
+            queued.clear(cell);
+
+            int unknowns = collect(board, cell, unknown);
+            if (unknowns < 0) {
+                continue; // Not a number
+            }
+            int missing = missingMines(board, cell);
+            if (unknowns == 0) {
+                frontier.clear(cell);
+                continue;
+            }
+            frontier.set(cell);
+            if (missing == 0) {
+                decide(board, unknown, unknowns, safe);
+                continue;
+            } else if (missing == unknowns) {
+                decide(board, unknown, unknowns, mines);
+                continue;
+            }
+
+            if (subsetRule(board, cell, unknowns, missing)) {
+                enqueue(cell); // Its undecided neighbours may have changed, so look at it again
+            }
+        }
+    }
+
+    /**
+     * Compares a number with every frontier number close enough to share a hidden neighbour, in both directions.
+     * Stops at the first deduction, since that changes the neighbours already collected.
+     *
+     * @param board The board being solved.
+     * @param cell The number, whose undecided neighbours are in unknown.
+     * @param unknowns How many undecided neighbours it has.
+     * @param missing How many of its mines have not been found.
+     * @return true if anything was deduced.
+     */
+    private boolean subsetRule(Board board, int cell, int unknowns, int missing) {
+        int size = board.getSize();
+        int row = cell / size;
+        int col = cell % size;
+        for (int r = Math.max(0, row - 2); r <= Math.min(size - 1, row + 2); r++) {
+            for (int c = Math.max(0, col - 2); c <= Math.min(size - 1, col + 2); c++) {
+                int next = r * size + c;
+                if (next == cell || !frontier.get(next)) {
+                    continue;
+                }
+                int others = collect(board, next, other);
+                if (others == 0 || others == unknowns) {
+                    continue;
+                }
+                if (others > unknowns && containsAll(other, others, unknown, unknowns)) {
+                    int difference = missingMines(board, next) - missing; // Mines among the cells only next touches
+                    if (difference == 0 || difference == others - unknowns) {
+                        decideExcept(board, other, others, unknown, unknowns, difference == 0 ? safe : mines);
+                        return true;
+                    }
+                } else if (others < unknowns && containsAll(unknown, unknowns, other, others)) {
+                    int difference = missing - missingMines(board, next); // Mines among the cells only this number touches
+                    if (difference == 0 || difference == unknowns - others) {
+                        decideExcept(board, unknown, unknowns, other, others, difference == 0 ? safe : mines);
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Lists the undecided hidden neighbours of a number.
+     *
+     * @param board The board being solved.
+     * @param cell The number.
+     * @param into The array to fill.
+     * @return How many were found, or -1 if the cell is not an uncovered number.
+     */
+    private int collect(Board board, int cell, int[] into) {
+        if (number(board.getPlayer(cell)) < 0) {
+            return -1;
+        }
+        int size = board.getSize();
+        int row = cell / size;
+        int col = cell % size;
+        int found = 0;
+        for (int r = Math.max(0, row - 1); r <= Math.min(size - 1, row + 1); r++) {
+            for (int c = Math.max(0, col - 1); c <= Math.min(size - 1, col + 1); c++) {
+                int next = r * size + c;
+                if (isUnknown(board.getPlayer(next)) && !safe.get(next) && !mines.get(next)) {
+                    into[found++] = next;
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Works out how many of a number's mines have not yet been found.
+     *
+     * @param board The board being solved.
+     * @param cell The number.
+     * @return The number shown minus the uncovered and proven mines around it.
+     */
+    private int missingMines(Board board, int cell) {
+        int size = board.getSize();
+        int row = cell / size;
+        int col = cell % size;
+        int missing = number(board.getPlayer(cell));
+        for (int r = Math.max(0, row - 1); r <= Math.min(size - 1, row + 1); r++) {
+            for (int c = Math.max(0, col - 1); c <= Math.min(size - 1, col + 1); c++) {
+                int next = r * size + c;
+                if (board.getPlayer(next) == Board.MINE || mines.get(next)) {
+                    missing--;
+                }
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Checks whether every cell of one small set is in another.
+     */
+    private static boolean containsAll(int[] outer, int outerCount, int[] inner, int innerCount) {
+        for (int i = 0; i < innerCount; i++) {
+            boolean found = false;
+            for (int j = 0; j < outerCount && !found; j++) {
+                found = outer[j] == inner[i];
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Records cells as proven and queues the numbers around them.
+     */
+    private void decide(Board board, int[] cells, int cellCount, BitSet into) {
+        for (int i = 0; i < cellCount; i++) {
+            into.set(cells[i]);
+            queueAround(board, cells[i], false);
+        }
+    }
+
+    /**
+     * Records the cells of one set that are not in another as proven.
+     */
+    private void decideExcept(Board board, int[] cells, int cellCount, int[] except, int exceptCount, BitSet into) {
+        for (int i = 0; i < cellCount; i++) {
+            boolean excluded = false;
+            for (int j = 0; j < exceptCount && !excluded; j++) {
+                excluded = except[j] == cells[i];
+            }
+            if (!excluded) {
+                into.set(cells[i]);
+                queueAround(board, cells[i], false);
+            }
+        }
+    }
+
+    /**
+     * Queues the uncovered numbers next to a cell, and the cell itself if asked.
+     */
+    private void queueAround(Board board, int cell, boolean includeSelf) {
+        int size = board.getSize();
+        int row = cell / size;
+        int col = cell % size;
+        for (int r = Math.max(0, row - 1); r <= Math.min(size - 1, row + 1); r++) {
+            for (int c = Math.max(0, col - 1); c <= Math.min(size - 1, col + 1); c++) {
+                int next = r * size + c;
+                if ((next != cell || includeSelf) && known.get(next) && number(board.getPlayer(next)) >= 0) {
+                    enqueue(next);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds a number to the work queue unless it is already waiting.
+     */
+    private void enqueue(int cell) {
+        if (queued.get(cell)) {
+            return;
+        }
+        if (count == queue.length) {
+            int[] bigger = new int[queue.length * 2];
+            for (int i = 0; i < count; i++) {
+                bigger[i] = queue[(head + i) % queue.length];
+            }
+            queue = bigger;
+            head = 0;
+        }
+        queue[(head + count) % queue.length] = cell;
+        count++;
+        queued.set(cell);
+    }
+
+    /**
+     * Checks whether a player code leaves the cell's contents unknown.
+     */
+    private static boolean isUnknown(byte code) {
+        return code == Board.HIDDEN || code == Board.FLAGGED;
+    }
+
+    /**
+     * Returns the number a player code shows.
+     *
+     * @return 0-8, with "-" counting as 0, or -1 if the code is not a number.
+     */
+    private static int number(byte code) {
+        if (Board.isNumber(code)) {
+            return code;
+        }
+        return code == Board.EMPTY ? 0 : -1;
+    }
+} // End of Solver Class
@@ -0,0 +1,30 @@
+import java.util.SplittableRandom;
+
+/**
+ * SolverBot
+ * A bot that guesses a cell the {@link Solver} has proven safe whenever there is one, and otherwise
+ * guesses at random among the hidden cells not proven to be mines.
+ *
+ * @version 2.0
+ * @author Paul Carmody
+ */
+public class SolverBot implements Bot {
+    private SplittableRandom random; // The random sequence for the current game
+    private Solver solver; // The solver following the current game
+
+    @Override
+    public void newGame(Minesweeper game, SplittableRandom random) {
+        this.random = random;
+        solver = new Solver(game); // Each game is new, so the old solver goes with the old game
+    }
+
+    @Override
+    public int nextGuess(Minesweeper game) {
+        int safe = solver.nextSafeCell();
+        if (safe >= 0) {
+            return safe;
+        }
+        int guess = Bot.randomHidden(game.getCells(), random, solver);
+        return guess >= 0 ? guess : Bot.randomHidden(game.getCells(), random, null); // Only mines are left hidden
+    }
+} // End of SolverBot Class
@@ -0,0 +1,138 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The test class SolverTest.
+ *
+ * @version 2.0
+ */
+public class SolverTest {
+
+    /**
+     * Builds a board with mines in the given cells and every other cell numbered.
+     *
+     * @param size The width and height of the board.
+     * @param mines The indices of the mined cells.
+     * @return The board, with every player cell hidden.
+     */
+    private static Board boardWithMines(int size, int... mines) {
+        Board board = new Board(size);
+        for (int index : mines) {
+            board.setSolution(index, Board.MINE);
+        }
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                if (board.isMine(board.index(row, col))) {
+                    continue;
+                }
+                int count = 0;
+                for (int r = Math.max(0, row - 1); r <= Math.min(size - 1, row + 1); r++) {
+                    for (int c = Math.max(0, col - 1); c <= Math.min(size - 1, col + 1); c++) {
+                        count += board.isMine(board.index(r, c)) ? 1 : 0;
+                    }
+                }
+                board.setSolution(board.index(row, col), (byte) count);
+            }
+        }
+        board.recount();
+        return board;
+    }
+
+    /**
+     * UNIT-071
+     * Test single cell rule
+     * Ensures that a number with as many hidden neighbours as missing mines marks them all as mines.
+     */
+    @Test
+    public void testSingleCellRule() {
+        Minesweeper game = new Minesweeper(boardWithMines(3, 0));
+        Solver solver = new Solver(game);
+        game.makeMove(2, 2, "G"); // Opens every cell but the mine
+        assertArrayEquals(new int[] {0}, solver.getMineCells(), "The last hidden cell should be a certain mine");
+        assertEquals(0, solver.getSafeCells().length, "No hidden cell should be left to call safe");
+    }
+
+    /**
+     * UNIT-072
+     * Test subset rule
+     * Ensures that the 1-1-1 pattern along an edge is solved, which the single cell rule alone cannot do.
+     */
+    @Test
+    public void testSubsetRule() {
+        Minesweeper game = new Minesweeper(boardWithMines(3, 1));
+        Solver solver = new Solver(game);
+        game.makeMove(2, 0, "G"); // Opens the bottom two rows, leaving three hidden cells over three 1s
+        assertArrayEquals(new int[] {0, 2}, solver.getSafeCells(), "Both corners should be certainly safe");
+        assertArrayEquals(new int[] {1}, solver.getMineCells(), "The middle cell should be a certain mine");
+        assertEquals(0, solver.getFrontierSize(), "Every hidden cell next to the 1s should now be decided");
+    }
+
+    /**
+     * UNIT-073
+     * Test solver follows moves, undo and reset
+     * Ensures that deductions are dropped once a cell is uncovered and worked out again after undo or reset.
+     */
+    @Test
+    public void testFollowsMovesUndoAndReset() {
+        Minesweeper game = new Minesweeper(boardWithMines(3, 1));
+        Solver solver = new Solver(game);
+        game.makeMove(2, 0, "G");
+        assertArrayEquals(new int[] {0, 2}, solver.getSafeCells());
+
+        game.getUndoJournal().beginMove();
+        game.makeMove(0, 0, "G");
+        assertArrayEquals(new int[] {2}, solver.getSafeCells(), "An uncovered cell should no longer be offered");
+        game.undo();
+        assertArrayEquals(new int[] {0, 2}, solver.getSafeCells(), "Undo should bring the deduction back");
+
+        game.reset();
+        assertEquals(0, solver.getSafeCells().length, "Nothing can be deduced on a fresh board");
+        assertEquals(0, solver.getMineCells().length, "Nothing can be deduced on a fresh board");
+    }
+
+    /**
+     * UNIT-074
+     * Test solver never guesses
+     * Ensures that on a random board every cell called safe is safe and every cell called a mine is a mine.
+     */
+    @Test
+    public void testDeductionsAreSound() {
+        Board board = LevelGenerator.generate(60, 500, 11L);
+        Minesweeper game = new Minesweeper(board);
+        Solver solver = new Solver(game);
+        int start = 0;
+        while (board.getSolution(start) != 0) {
+            start++;
+        }
+        game.makeMove(start / 60, start % 60, "G");
+        int[] safe = solver.getSafeCells();
+        while (safe.length > 0) {
+            for (int index : safe) {
+                assertFalse(board.isMine(index), "Cell " + index + " was called safe but is a mine");
+                game.makeMove(index / 60, index % 60, "G");
+            }
+            safe = solver.getSafeCells();
+        }
+        for (int index : solver.getMineCells()) {
+            assertTrue(board.isMine(index), "Cell " + index + " was called a mine but is safe");
+        }
+        assertEquals(3, game.getLives(), "Following the solver should never cost a life");
+    }
+
+    /**
+     * UNIT-075
+     * Test hint from the UI
+     * Ensures that the hint names a certainly safe cell, or says when there is none.
+     */
+    @Test
+    public void testHint() {
+        Minesweeper game = new Minesweeper(boardWithMines(3, 1));
+        UI ui = new UI(game);
+        assertEquals("No certain move - you will have to guess.", ui.hint());
+        game.makeMove(2, 0, "G");
+        assertEquals("Safe to guess: row 0, column 0", ui.hint());
+        game.makeMove(0, 0, "G");
+        game.makeMove(0, 2, "G");
+        assertEquals("Mine to flag: row 0, column 1", ui.hint());
+    }
+} // End of SolverTest Class
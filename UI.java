@@ -1,10 +1,9 @@
 import java.util.Scanner;
-import java.util.Stack;
 
 /**
  * TThe UI class provides a text-based user interface for the player to interact with the Minesweeper game. 
  * It handles user input through a console-based menu, allowing the player to make moves, 
- * undo moves, and clear the game board.
+ * undo and redo moves, and clear the game board.
  * 
  * @version 2.0
  * @authors Lauren Scott, Paul Camrody
@@ -13,7 +12,7 @@ public class UI {
     private Minesweeper theGame; // The game model
     private String menuChoice; // The user's choice from the menu
     private Scanner reader; // This scanner is used to read the terminal
-    private Stack<Slot[][]> undoStack; // Stack to undo game states
+    private Solver solver; // Works out certain moves for hints, created on the first hint
 
     /**
      * Constructs the UI with a given Minesweeper game instance.
@@ -25,7 +24,6 @@ public class UI {
         this.theGame = theGame; // Uses the provided Minesweeper game instance instead of creating a new one.
         reader = new Scanner(System.in);
         menuChoice = "";
-        undoStack = new Stack<>(); // Initialises the undo stack to store game states.
         displayWelcomeMessage(); // Displays the welcome message to the user.
     }       
 
@@ -58,8 +56,7 @@ public class UI {
             }
             continuePlaying = promptPlayAgain();
             if (continuePlaying) {
-                theGame.reset();
-                undoStack.clear();
+                theGame.reset(); // Also clears the undo history
             }
         }
     }
@@ -113,8 +110,11 @@ public class UI {
                 "[M] Flag a mine\n" +
                 "[G] Guess a square\n" +
                 "[S] Save game\n" +
+                "[E] Export game as text\n" +
                 "[L] Load saved game\n" +
                 "[U] Undo move\n" +
+                "[R] Redo move\n" +
+                "[H] Hint\n" +
                 "[C] Clear game\n" +
                 "[Q] Quit game\n");
     }
@@ -137,7 +137,7 @@ public class UI {
                 int col = Integer.parseInt(colInput);
 
                 if (row >= 0 && row < theGame.getGameSize() && col >= 0 && col < theGame.getGameSize()) {
-                    pushCurrentStateToUndoStack(); // Saves the current state before making a move.
+                    pushCurrentStateToUndoStack(); // Starts recording the move so it can be undone.
                     Assign assignMove = new Assign(theGame, row, col, choice);
                     System.out.print(theGame.makeMove(row, col, choice));
                 } else {
@@ -150,8 +150,16 @@ public class UI {
             System.out.print("Enter the filename to save the game: ");
             String filename = reader.next();
             FileHandler.saveGame(theGame, filename);
+        } else if (choice.equalsIgnoreCase("E")) {
+            System.out.print("Enter the filename to export the game to: ");
+            String filename = reader.next();
+            FileHandler.exportTextGame(theGame, filename);
         } else if (choice.equalsIgnoreCase("U")) {
             undoMove();
+        } else if (choice.equalsIgnoreCase("R")) {
+            redoMove();
+        } else if (choice.equalsIgnoreCase("H")) {
+            hint();
         } else if (choice.equalsIgnoreCase("L")) {
             System.out.print("Enter the filename to load the game: ");
             String filename = reader.next();
@@ -167,41 +175,68 @@ public class UI {
     }
 
     /**
-     * Pushes the current state of the game to the undo stack.
-     * This method creates a deep copy of the current game board state.
+     * Marks the start of a move so that it can be undone.
+     * Only the cells the move changes are recorded, rather than a copy of the whole board.
      */
     public void pushCurrentStateToUndoStack() {
-        Slot[][] currentState = theGame.getMoves();
-        Slot[][] copyState = new Slot[currentState.length][currentState.length];
-
-        for (int i = 0; i < currentState.length; i++) {
-            for (int j = 0; j < currentState[i].length; j++) {
-                copyState[i][j] = new Slot(j, i, currentState[i][j].getState());
-            }
-        }
-
-        undoStack.push(copyState);
+        theGame.getUndoJournal().beginMove();
     }
 
     /**
      * Undoes the last move made by the player.
      */
     public void undoMove() {
-        if (!undoStack.isEmpty()) {
-            Slot[][] previousState = undoStack.pop(); // Retrieves the previous state from the stack.
-            theGame.setBoard(previousState);
+        if (theGame.undo()) {
             System.out.println("Undo successful.");
         } else {
             System.out.println("No more moves to undo.");
         }
     }
 
+    /**
+     * Redoes the last move that was undone.
+     */
+    public void redoMove() {
+        if (theGame.redo()) {
+            System.out.println("Redo successful.");
+        } else {
+            System.out.println("No more moves to redo.");
+        }
+    }
+
+    /**
+     * Suggests a move that follows for certain from the cells already uncovered.
+     * A safe cell is suggested first, then a mine that has not been flagged yet.
+     *
+     * @return The hint, which is also printed.
+     */
+    public String hint() {
+        if (solver == null) {
+            solver = new Solver(theGame);
+        }
+        int gameSize = theGame.getGameSize();
+        String message = "No certain move - you will have to guess.";
+        int[] safeCells = solver.getSafeCells();
+        if (safeCells.length > 0) {
+            message = "Safe to guess: row " + safeCells[0] / gameSize + ", column " + safeCells[0] % gameSize;
+        } else {
+            Board board = theGame.getCells();
+            for (int index : solver.getMineCells()) {
+                if (board.getPlayer(index) != Board.FLAGGED) {
+                    message = "Mine to flag: row " + index / gameSize + ", column " + index % gameSize;
+                    break;
+                }
+            }
+        }
+        System.out.println(message);
+        return message;
+    }
+
     /**
      * Clears the game board and resets the game state.
      */
     public void clearGame() {
-        theGame.reset();
-        undoStack.clear();
+        theGame.reset(); // Also clears the undo history
         System.out.println("Game cleared and reset. Go again!");
     }
 
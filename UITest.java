@@ -74,4 +74,38 @@ public class UITest {
         ui.undoMove();
         assertEquals("?", game.getCellState(0, 1), "Undo should revert the last move");
     }
+
+    /**
+     * UNIT-053
+     * Test redo move
+     * Ensures that an undone move, including a whole cascade, can be redone.
+     */
+    @Test
+    public void testRedoMove() {
+        ui.pushCurrentStateToUndoStack();
+        game.makeMove(2, 0, "G"); // Opens the empty region
+        ui.undoMove();
+        assertEquals("?", game.getCellState(2, 2), "Undo should hide the whole cascade again");
+        ui.redoMove();
+        assertEquals("0", game.getCellState(2, 2), "Redo should reveal the cascade again");
+        assertEquals("1", game.getCellState(3, 0), "Redo should reveal the border again");
+    }
+
+    /**
+     * UNIT-054
+     * Test undo restores lives
+     * Ensures that undoing a mine hit gives the life back, and that a new move clears the redo history.
+     */
+    @Test
+    public void testUndoRestoresLives() {
+        ui.pushCurrentStateToUndoStack();
+        game.makeMove(0, 0, "G"); // There's a mine at (0, 0)
+        assertEquals(2, game.getLives(), "Hitting a mine should cost a life");
+        ui.undoMove();
+        assertEquals(3, game.getLives(), "Undo should give the life back");
+
+        ui.pushCurrentStateToUndoStack();
+        game.makeMove(1, 1, "G");
+        assertFalse(game.redo(), "A new move should clear the redo history");
+    }
 }
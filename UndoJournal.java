@@ -0,0 +1,289 @@
+import java.util.Arrays;
+
+/**
+ * UndoJournal
+ * This class records the cells each move changes so that moves can be undone and redone in place,
+ * instead of keeping a full copy of the board for every move. Each change is stored as a cell index
+ * with its state before and after, in plain primitive arrays, together with the change in lives.
+ *
+ * A move is opened with beginMove. Every change the board reports after that belongs to the open
+ * move until the next beginMove, so undo returns the board to exactly how it was when the move began.
+ * The journal keeps at most a configurable number of cell changes, dropping the oldest moves first.
+ *
+ * @version 2.0
+ * @author Paul Carmody
+ */
+public class UndoJournal {
+    public static final int DEFAULT_MAX_CHANGES = 1 << 20; // About 6MB of history
+
+    private int[] cells = new int[64]; // Index of each changed cell
+    private byte[] before = new byte[64]; // State of each changed cell before the change
+    private byte[] after = new byte[64]; // State of each changed cell after the change
+    private int size; // Number of changes belonging to moves that can be undone
+    private int end; // Number of changes recorded, including those of undone moves that can be redone
+
+    private int[] moveStart = new int[16]; // Offset of the first change of each move
+    private int[] livesDelta = new int[16]; // Change in lives made by each move
+    private int moves; // Number of moves that can be undone
+    private int lastMove; // Number of moves recorded, including undone moves that can be redone
+
+    private int maxChanges; // Most cell changes kept before the oldest moves are dropped
+    private boolean applying; // True while undo or redo is writing to the board, so those writes are not recorded
+    private int appliedStart; // First change touched by the last undo or redo
+    private int appliedEnd; // One past the last change touched by the last undo or redo
+    private MoveJournal recorder; // Told where each move begins, so a replay can undo the same steps, or null
+
+    /**
+     * Constructs an empty journal with the default memory cap.
+     */
+    public UndoJournal() {
+        this(DEFAULT_MAX_CHANGES);
+    }
+
+    /**
+     * Constructs an empty journal.
+     *
+     * @param maxChanges The most cell changes to keep before dropping the oldest moves.
+     */
+    public UndoJournal(int maxChanges) {
+        setMaxChanges(maxChanges);
+    }
+
+    /**
+     * Sets the memory cap, dropping the oldest moves straight away if the journal is already over it.
+     *
+     * @param maxChanges The most cell changes to keep.
+     */
+    public void setMaxChanges(int maxChanges) {
+        if (maxChanges < 1) {
+            throw new IllegalArgumentException("The journal must be able to hold at least one change");
+        }
+        this.maxChanges = maxChanges;
+        if (end > maxChanges) {
+            trim(maxChanges);
+        }
+    }
+
+    /**
+     * Returns the memory cap.
+     *
+     * @return The most cell changes the journal keeps.
+     */
+    public int getMaxChanges() {
+        return maxChanges;
+    }
+
+    /**
+     * Opens a new move. Any moves that were undone can no longer be redone.
+     */
+    public void beginMove() {
+        if (recorder != null) {
+            recorder.recordBeginMove();
+        }
+        discardRedo();
+        if (moves == moveStart.length) {
+            moveStart = Arrays.copyOf(moveStart, moves * 2);
+            livesDelta = Arrays.copyOf(livesDelta, moves * 2);
+        }
+        moveStart[moves] = size;
+        livesDelta[moves] = 0;
+        moves++;
+        lastMove = moves;
+    }
+
+    /**
+     * Sets the move journal told where each move begins. Set by Minesweeper.setRecorder.
+     *
+     * @param recorder The move journal, or null to stop telling one.
+     */
+    public void setRecorder(MoveJournal recorder) {
+        this.recorder = recorder;
+    }
+
+    /**
+     * Records a change to a cell. Called by the board on every write to the player's view.
+     *
+     * @param index The index of the cell.
+     * @param from The state before the change.
+     * @param to The state after the change.
+     */
+    public void recordCell(int index, byte from, byte to) {
+        if (applying || from == to) {
+            return;
+        }
+        discardRedo();
+        if (moves == 0) {
+            return; // No move has been opened, so there is nothing to undo back to
+        }
+        if (size == cells.length) {
+            int capacity = Math.min(cells.length * 2, maxChanges + 1); // Never more than one change over the cap
+            cells = Arrays.copyOf(cells, capacity);
+            before = Arrays.copyOf(before, capacity);
+            after = Arrays.copyOf(after, capacity);
+        }
+        cells[size] = index;
+        before[size] = from;
+        after[size] = to;
+        size++;
+        end = size;
+        if (size > maxChanges) {
+            trim(maxChanges - maxChanges / 4); // Free a quarter at once so trimming is not repeated on every change
+        }
+    }
+
+    /**
+     * Records a change in lives as part of the open move.
+     *
+     * @param delta The change in lives, negative for a life lost.
+     */
+    public void recordLives(int delta) {
+        if (applying || delta == 0) {
+            return;
+        }
+        discardRedo();
+        if (moves > 0) {
+            livesDelta[moves - 1] += delta;
+        }
+    }
+
+    /**
+     * Checks whether there is a move to undo.
+     *
+     * @return true if undo would do something.
+     */
+    public boolean canUndo() {
+        return moves > 0;
+    }
+
+    /**
+     * Checks whether there is an undone move to redo.
+     *
+     * @return true if redo would do something.
+     */
+    public boolean canRedo() {
+        return lastMove > moves;
+    }
+
+    /**
+     * Undoes the most recent move by writing back the earlier state of every cell it changed, newest first.
+     *
+     * @param board The board to restore.
+     * @return The change in lives to apply to undo the move, or 0 if there was nothing to undo.
+     */
+    public int undo(Board board) {
+        if (moves == 0) {
+            return 0;
+        }
+        moves--;
+        int start = moveStart[moves];
+        applying = true;
+        for (int i = size - 1; i >= start; i--) {
+            board.setPlayer(cells[i], before[i]);
+        }
+        applying = false;
+        appliedStart = start;
+        appliedEnd = size;
+        size = start;
+        return -livesDelta[moves];
+    }
+
+    /**
+     * Redoes the most recently undone move by writing its later states back, oldest first.
+     *
+     * @param board The board to update.
+     * @return The change in lives to apply to redo the move, or 0 if there was nothing to redo.
+     */
+    public int redo(Board board) {
+        if (!canRedo()) {
+            return 0;
+        }
+        int start = size;
+        int stop = moves + 1 < lastMove ? moveStart[moves + 1] : end;
+        applying = true;
+        for (int i = start; i < stop; i++) {
+            board.setPlayer(cells[i], after[i]);
+        }
+        applying = false;
+        appliedStart = start;
+        appliedEnd = stop;
+        size = stop;
+        return livesDelta[moves++];
+    }
+
+    /**
+     * Returns the cells touched by the last undo or redo, so listeners can redraw just those cells.
+     *
+     * @return The indices of the cells, which may contain repeats.
+     */
+    public int[] getLastApplied() {
+        return Arrays.copyOfRange(cells, appliedStart, appliedEnd);
+    }
+
+    /**
+     * Forgets every move.
+     */
+    public void clear() {
+        size = 0;
+        end = 0;
+        moves = 0;
+        lastMove = 0;
+    }
+
+    /**
+     * Returns the number of moves that can be undone.
+     *
+     * @return The number of moves.
+     */
+    public int getMoveCount() {
+        return moves;
+    }
+
+    /**
+     * Returns the number of cell changes held for moves that can be undone.
+     *
+     * @return The number of changes.
+     */
+    public int getChangeCount() {
+        return size;
+    }
+
+    /**
+     * Forgets moves that were undone, once something new happens.
+     */
+    private void discardRedo() {
+        lastMove = moves;
+        end = size;
+    }
+
+    /**
+     * Drops the oldest moves until no more than the given number of changes remain, along with any redo history.
+     * The open move is never split: if it alone is over the cap, the whole history is dropped.
+     *
+     * @param limit The most changes to keep.
+     */
+    private void trim(int limit) {
+        discardRedo();
+        int drop = 0;
+        while (drop < moves - 1 && size - moveStart[drop] > limit) {
+            drop++;
+        }
+        if (moves == 0 || size - moveStart[drop] > maxChanges) {
+            clear();
+            return;
+        }
+        int offset = moveStart[drop];
+        if (offset == 0) {
+            return; // Already within the cap without dropping anything
+        }
+        System.arraycopy(cells, offset, cells, 0, size - offset);
+        System.arraycopy(before, offset, before, 0, size - offset);
+        System.arraycopy(after, offset, after, 0, size - offset);
+        for (int m = drop; m < moves; m++) {
+            moveStart[m - drop] = moveStart[m] - offset;
+            livesDelta[m - drop] = livesDelta[m];
+        }
+        size -= offset;
+        moves -= drop;
+        discardRedo();
+    }
+} // End of UndoJournal Class
@@ -0,0 +1,74 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The test class UndoJournalTest.
+ *
+ * @version 2.0
+ */
+public class UndoJournalTest {
+    private Board board;
+    private UndoJournal journal;
+
+    /**
+     * Sets up the test fixture.
+     * (Called before every test case method.)
+     */
+    @BeforeEach
+    public void setUp() {
+        board = new Board(5);
+        journal = new UndoJournal(10);
+        board.setJournal(journal);
+    }
+
+    /**
+     * UNIT-055
+     * Test undo and redo order
+     * Ensures that a cell changed twice in one move is restored to its state before the move.
+     */
+    @Test
+    public void testUndoRedoOrder() {
+        journal.beginMove();
+        board.setPlayer(3, Board.FLAGGED);
+        board.setPlayer(3, (byte) 2);
+        journal.undo(board);
+        assertEquals("?", board.getState(0, 3), "Undo should restore the state from before the move");
+        journal.redo(board);
+        assertEquals("2", board.getState(0, 3), "Redo should restore the final state of the move");
+        assertFalse(journal.canRedo(), "Nothing should be left to redo");
+    }
+
+    /**
+     * UNIT-056
+     * Test journal memory cap
+     * Ensures that the oldest moves are dropped once the journal holds more changes than its cap.
+     */
+    @Test
+    public void testMemoryCap() {
+        for (int move = 0; move < 6; move++) {
+            journal.beginMove();
+            board.setPlayer(move * 2, (byte) 1);
+            board.setPlayer(move * 2 + 1, (byte) 1);
+        }
+        assertTrue(journal.getChangeCount() <= 10, "The journal should stay within its cap");
+        assertTrue(journal.getMoveCount() < 6, "The oldest moves should have been dropped");
+        while (journal.canUndo()) {
+            journal.undo(board);
+        }
+        assertEquals("1", board.getState(0, 0), "Dropped moves can no longer be undone");
+        assertEquals("?", board.getState(2, 1), "The newest move should have been undone");
+    }
+
+    /**
+     * UNIT-057
+     * Test changes outside a move
+     * Ensures that changes made before any move is opened are not recorded.
+     */
+    @Test
+    public void testChangesOutsideMove() {
+        board.setPlayer(0, Board.FLAGGED);
+        assertEquals(0, journal.getChangeCount(), "No move is open, so nothing should be recorded");
+        assertFalse(journal.canUndo(), "There should be nothing to undo");
+    }
+}